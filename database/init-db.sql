@@ -1,4 +1,7 @@
 -- Initialize milkman schema
+-- The schema is owned by the Flyway migrations in middleware/src/main/resources/db/migration, applied on
+-- application startup. The tables below mirror V1__baseline_schema.sql so sample data can be loaded before the
+-- application first starts; indexes and later schema changes live only in the migrations.
 CREATE SCHEMA IF NOT EXISTS milkman;
 
 -- Set default schema
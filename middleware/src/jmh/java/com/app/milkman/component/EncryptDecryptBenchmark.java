@@ -0,0 +1,58 @@
+package com.app.milkman.component;
+
+import com.app.milkman.utils.Constants;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link EncryptDecrypt} under concurrent logins.
+ *
+ * legacyEncrypt reproduces the previous implementation (SHA-1 key derivation and Cipher.getInstance on every
+ * call) without its static fields, so it is only a cost baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EncryptDecryptBenchmark {
+
+    private static final String PIN = "1234";
+
+    private EncryptDecrypt encryptDecrypt;
+    private String encryptedPin;
+
+    @Setup
+    public void setUp() {
+        encryptDecrypt = new EncryptDecrypt();
+        encryptedPin = encryptDecrypt.encrypt(PIN, Constants.KEY);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptDecrypt.encrypt(PIN, Constants.KEY);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptDecrypt.decrypt(encryptedPin, Constants.KEY);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        byte[] key = MessageDigest.getInstance("SHA-1").digest(Constants.KEY.getBytes(StandardCharsets.UTF_8));
+        SecretKeySpec secretKey = new SecretKeySpec(Arrays.copyOf(key, 16), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(PIN.getBytes(StandardCharsets.UTF_8)));
+    }
+}
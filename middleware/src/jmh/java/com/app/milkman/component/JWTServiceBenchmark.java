@@ -0,0 +1,89 @@
+package com.app.milkman.component;
+
+import com.app.milkman.model.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation cost of {@link JWTService}.
+ *
+ * The legacy* benchmarks reproduce the previous implementation, which decoded the secret, rebuilt the key and
+ * built a new parser on every call, so before/after numbers come out of the same run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JWTServiceBenchmark {
+
+    private static final String PHONE_NO = "9876543210";
+
+    private JWTService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JWTService();
+        token = jwtService.GenerateToken(PHONE_NO, "ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.GenerateToken(PHONE_NO, "ADMIN");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, PHONE_NO);
+    }
+
+    @Benchmark
+    public TokenClaims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public String legacyGenerateToken() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("type", "access");
+        claims.put("role", "ADMIN");
+        return Jwts.builder()
+                .claims(claims)
+                .subject(PHONE_NO)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
+                .signWith(legacySignKey()).compact();
+    }
+
+    @Benchmark
+    public Boolean legacyValidateToken() {
+        // Subject and expiry were each read through a separate parse
+        String phoneNo = legacyParse(token).getSubject();
+        return phoneNo.equals(PHONE_NO) && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public String legacyControllerClaims() {
+        // OrderController read role and phone number with two parses per request
+        return legacyParse(token).get("role", String.class) + legacyParse(token).getSubject();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser().verifyWith(legacySignKey()).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static SecretKey legacySignKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWTService.SECRET));
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.milkman.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of one listing page of {@link OrderDetails} and {@link SubscriptionDetails}, with an
+ * ObjectMapper configured the way Spring Boot configures the one behind the controllers (java.time support,
+ * ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetailsSerializationBenchmark {
+
+    private static final int LINES = 3;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<OrderDetails> orders;
+    private List<SubscriptionDetails> subscriptions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 6, 0);
+        orders = new ArrayList<>(pageSize);
+        subscriptions = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            List<OrderProductDetails> orderLines = new ArrayList<>();
+            List<SubscriptionProductDetails> subscriptionLines = new ArrayList<>();
+            for (int line = 0; line < LINES; line++) {
+                orderLines.add(OrderProductDetails.builder().productOrderId("ORDER" + i + "-" + line)
+                        .orderId("ORDER" + i).productId("PROD" + line).productName("Product " + line)
+                        .productPrice(BigDecimal.valueOf(48)).quantity(2L).status("ACTIVE")
+                        .createdBy("Bench Customer").createdTime(now).updatedBy("Bench Customer").updatedTime(now)
+                        .build());
+                subscriptionLines.add(SubscriptionProductDetails.builder()
+                        .productSubscriptionId("SUB" + i + "-" + line).subscriptionId("SUB" + i)
+                        .productId("PROD" + line).productName("Product " + line)
+                        .productPrice(BigDecimal.valueOf(48)).quantity(1L).status("ACTIVE")
+                        .createdBy("Bench Customer").createdTime(now).updatedBy("Bench Customer").updatedTime(now)
+                        .build());
+            }
+            orders.add(OrderDetails.builder().orderId("ORDER" + i).customerId("CUST" + i)
+                    .customerName("Bench Customer").primaryPhone("9000000000")
+                    .emailId("bench.customer@example.com").address("1 Dairy Road").pinCode("500001")
+                    .orderDateTime(now.minusMinutes(i)).deliveryDate(LocalDate.of(2024, 1, 2))
+                    .deliveryTimeSlot("MORNING").deliveryFrequency("ONETIME").orderStatus("ORDER PLACED")
+                    .createdBy("Bench Customer").createdTime(now).updatedBy("Bench Customer").updatedTime(now)
+                    .status("ACTIVE").deliveryCharge(BigDecimal.TEN).orderTotal(BigDecimal.valueOf(298))
+                    .orderProductDetails(orderLines).build());
+            subscriptions.add(SubscriptionDetails.builder().subscriptionId("SUB" + i).customerId("CUST" + i)
+                    .customerName("Bench Customer").primaryPhone("9000000000")
+                    .emailId("bench.customer@example.com").address("1 Dairy Road").pinCode("500001")
+                    .orderDateTime(now.minusMinutes(i)).deliveryStartDate(LocalDate.of(2024, 1, 2))
+                    .deliveryEndDate(LocalDate.of(2024, 3, 31)).deliveryDays("Monday, Wednesday, Friday")
+                    .deliveryTimeSlot("MORNING").deliveryFrequency("DAILY").orderStatus("ORDER PLACED")
+                    .createdBy("Bench Customer").createdTime(now).updatedBy("Bench Customer").updatedTime(now)
+                    .status("ACTIVE").deliveryCharge(BigDecimal.TEN).orderTotal(BigDecimal.valueOf(154))
+                    .subscriptionProductDetails(subscriptionLines).build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeSubscriptions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(subscriptions);
+    }
+}
@@ -0,0 +1,164 @@
+package com.app.milkman.repository;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login lookup latency on PostgreSQL with a large customers table.
+ *
+ * The legacy benchmark runs the SQL generated for the former OR-based login query; phoneLogin and emailLogin run
+ * the single-column queries that replaced it. Sample mode reports the latency distribution, including p0.99.
+ * The query plans of all three are printed during setup.
+ *
+ * Needs a running PostgreSQL; the customers are seeded once into a separate milkman_bench schema:
+ * <pre>
+ * gradle jmh -PjmhIncludes=CustomerLoginBenchmark \
+ *     -PjmhArgs="-jvmArgs -Dmilkman.bench.jdbcUrl=jdbc:postgresql://localhost:5433/milkman"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CustomerLoginBenchmark {
+
+    private static final String JDBC_URL = System.getProperty("milkman.bench.jdbcUrl",
+            "jdbc:postgresql://localhost:5433/milkman");
+    private static final String USERNAME = System.getProperty("milkman.bench.username", "postgres");
+    private static final String PASSWORD = System.getProperty("milkman.bench.password", "Welcome@1234");
+    private static final int CUSTOMERS = Integer.getInteger("milkman.bench.customers", 1_000_000);
+
+    private static final String COLUMNS = "c.id, c.customerid, c.firstname, c.lastname, c.pphone, c.emailid, c.role";
+    private static final String AUTH_PIN = "qLW4HhIq71oAvgWWYfv8ew==";
+
+    static final String LEGACY_SQL = "SELECT " + COLUMNS + " FROM milkman_bench.customers c "
+            + "WHERE (c.emailid = ? OR c.pphone = ?) AND (c.auth_pin = ? OR ? = '') AND c.status = 'ACTIVE'";
+    static final String PHONE_SQL = "SELECT " + COLUMNS + " FROM milkman_bench.customers c "
+            + "WHERE c.pphone = ? AND c.auth_pin = ? AND c.status = 'ACTIVE'";
+    static final String EMAIL_SQL = "SELECT " + COLUMNS + " FROM milkman_bench.customers c "
+            + "WHERE c.emailid = ? AND c.auth_pin = ? AND c.status = 'ACTIVE'";
+
+    private Connection connection;
+    private PreparedStatement legacy;
+    private PreparedStatement byPhone;
+    private PreparedStatement byEmail;
+
+    /**
+     * Creates and seeds the benchmark table once per run; reruns reuse it when the row count already matches
+     */
+    @State(Scope.Benchmark)
+    public static class Dataset {
+
+        @Setup(Level.Trial)
+        public void seed() throws SQLException {
+            try (Connection connection = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS milkman_bench");
+                statement.execute("CREATE TABLE IF NOT EXISTS milkman_bench.customers (id serial4 PRIMARY KEY, "
+                        + "customerid varchar, firstname varchar, lastname varchar, pphone varchar, emailid varchar, "
+                        + "auth_pin varchar, status varchar, role varchar)");
+                if (count(statement) != CUSTOMERS) {
+                    statement.execute("TRUNCATE milkman_bench.customers");
+                    statement.execute("INSERT INTO milkman_bench.customers "
+                            + "(customerid, firstname, lastname, pphone, emailid, auth_pin, status, role) "
+                            + "SELECT 'CUST' || n, 'First' || n, 'Last' || n, (6000000000 + n)::text, "
+                            + "'customer' || n || '@example.com', '" + AUTH_PIN + "', "
+                            + "CASE WHEN n % 20 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END, 'USER' "
+                            + "FROM generate_series(1, " + CUSTOMERS + ") AS n");
+                }
+                // Same shape as V2__lookup_indexes.sql
+                statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS uq_bench_customers_active_pphone "
+                        + "ON milkman_bench.customers (pphone) WHERE status = 'ACTIVE'");
+                statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS uq_bench_customers_active_emailid "
+                        + "ON milkman_bench.customers (emailid) WHERE status = 'ACTIVE'");
+                statement.execute("ANALYZE milkman_bench.customers");
+
+                String phone = String.valueOf(6000000000L + 12345);
+                String email = "customer12345@example.com";
+                printPlan(connection, "legacy OR query", LEGACY_SQL, email, phone, AUTH_PIN, AUTH_PIN);
+                printPlan(connection, "phone query", PHONE_SQL, phone, AUTH_PIN);
+                printPlan(connection, "e-mail query", EMAIL_SQL, email, AUTH_PIN);
+            }
+        }
+
+        private static long count(Statement statement) throws SQLException {
+            try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM milkman_bench.customers")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+
+        private static void printPlan(Connection connection, String name, String sql, String... params)
+                throws SQLException {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    explain.setString(i + 1, params[i]);
+                }
+                StringBuilder plan = new StringBuilder("\n--- Plan: ").append(name).append('\n');
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                System.out.print(plan);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void connect(Dataset dataset) throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD);
+        legacy = connection.prepareStatement(LEGACY_SQL);
+        byPhone = connection.prepareStatement(PHONE_SQL);
+        byEmail = connection.prepareStatement(EMAIL_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public String legacyLogin() throws SQLException {
+        int customer = randomCustomer();
+        legacy.setString(1, "customer" + customer + "@example.com");
+        legacy.setString(2, "customer" + customer + "@example.com");
+        legacy.setString(3, AUTH_PIN);
+        legacy.setString(4, AUTH_PIN);
+        return firstCustomerId(legacy);
+    }
+
+    @Benchmark
+    public String phoneLogin() throws SQLException {
+        byPhone.setString(1, String.valueOf(6000000000L + randomCustomer()));
+        byPhone.setString(2, AUTH_PIN);
+        return firstCustomerId(byPhone);
+    }
+
+    @Benchmark
+    public String emailLogin() throws SQLException {
+        byEmail.setString(1, "customer" + randomCustomer() + "@example.com");
+        byEmail.setString(2, AUTH_PIN);
+        return firstCustomerId(byEmail);
+    }
+
+    private static int randomCustomer() {
+        return ThreadLocalRandom.current().nextInt(1, CUSTOMERS + 1);
+    }
+
+    private static String firstCustomerId(PreparedStatement query) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            return rs.next() ? rs.getString(2) : null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.MilkManApplication;
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.model.OrderRegRequest;
+import com.app.milkman.model.OrderRegResponse;
+import com.app.milkman.model.ProductOrdersReq;
+import com.app.milkman.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders per second for 10-line orders through {@link OrderService#createOrder}, on PostgreSQL.
+ *
+ * Each trial boots the application without the web layer. batchSize=50 is the shipped configuration (JDBC
+ * batching plus reWriteBatchedInserts); batchSize=1 turns batching off so the line items go out as single inserts.
+ * The benchmark customer and products are created in the milkman schema if missing, and the orders written by a
+ * trial are deleted when it ends.
+ * <pre>
+ * gradle jmh -PjmhIncludes=OrderCreationBenchmark \
+ *     -PjmhArgs="-jvmArgs -Dmilkman.bench.jdbcUrl=jdbc:postgresql://localhost:5433/milkman"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCreationBenchmark {
+
+    private static final String JDBC_URL = System.getProperty("milkman.bench.jdbcUrl",
+            "jdbc:postgresql://localhost:5433/milkman");
+    private static final String USERNAME = System.getProperty("milkman.bench.username", "postgres");
+    private static final String PASSWORD = System.getProperty("milkman.bench.password", "Welcome@1234");
+
+    private static final String CUSTOMER_ID = "BENCHCUST1";
+    private static final String PIN_CODE = "BENCH0";
+    private static final int LINES = 10;
+
+    @Param({"50", "1"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private OrderService orderService;
+    private OrderRegRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(MilkManApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they take precedence over application.yml
+                .run("--spring.datasource.url=" + JDBC_URL + (batchSize > 1
+                                ? (JDBC_URL.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true" : ""),
+                        "--spring.datasource.username=" + USERNAME,
+                        "--spring.datasource.password=" + PASSWORD,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--milkman.outbox.relay.enabled=false",
+                        "--milkman.schema.verify-indexes=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.app.milkman=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        orderService = context.getBean(OrderService.class);
+
+        jdbcTemplate.update("INSERT INTO milkman.customers (customerid, firstname, lastname, pphone, emailid, pincode, "
+                + "status) SELECT ?, 'Bench', 'Customer', '7999999999', 'bench.customer@example.com', ?, 'ACTIVE' "
+                + "WHERE NOT EXISTS (SELECT 1 FROM milkman.customers WHERE customerid = ?)",
+                CUSTOMER_ID, PIN_CODE, CUSTOMER_ID);
+        List<ProductOrdersReq> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            jdbcTemplate.update("INSERT INTO milkman.products (productid, productname, productprice, status) "
+                    + "VALUES (?, ?, ?, 'ACTIVE') ON CONFLICT (productid) DO NOTHING", "BENCHPROD" + i, "Bench product " + i, 30 + i);
+            ProductOrdersReq line = new ProductOrdersReq();
+            line.setProductId("BENCHPROD" + i);
+            line.setQuantity(1 + i % 3);
+            lines.add(line);
+        }
+        context.getBean(ProductCatalog.class).invalidate();
+
+        request = new OrderRegRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setDeliveryDate(LocalDate.now().plusDays(1));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryFrequency("ONETIME");
+        request.setDeliveryCharge(10.0);
+        request.setProductOrderReqs(lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        String benchOrders = "SELECT orderid FROM milkman.orders WHERE customerid = '" + CUSTOMER_ID + "'";
+        jdbcTemplate.update("DELETE FROM milkman.outbox_events WHERE aggregateid IN (" + benchOrders + ")");
+        jdbcTemplate.update("DELETE FROM milkman.product_orders WHERE orderid IN (" + benchOrders + ")");
+        jdbcTemplate.update("DELETE FROM milkman.orders WHERE customerid = ?", CUSTOMER_ID);
+        // The bench customer's pin code keeps its orders apart in the sales rollups
+        jdbcTemplate.update("DELETE FROM milkman.order_rollup WHERE pincode = ?", PIN_CODE);
+        jdbcTemplate.update("DELETE FROM milkman.sales_rollup WHERE pincode = ?", PIN_CODE);
+        context.close();
+    }
+
+    @Benchmark
+    public OrderRegResponse createTenLineOrder() {
+        return orderService.createOrder(request);
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.entity.Orders;
+import com.app.milkman.entity.ProductOrders;
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.OrderDetails;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one listing page of 50 loaded orders to {@link OrderDetails}, as the order listings do after the
+ * fetch join. The entities are built in memory, so only the mapping is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderDetailsMappingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1", "5"})
+    public int linesPerOrder;
+
+    private List<Orders> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 6, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Orders order = new Orders();
+            order.setOrderId("BENCHORDER" + i);
+            order.setCustomerId("CUST" + i);
+            order.setCustomerName("Bench Customer");
+            order.setPrimaryPhone("9000000000");
+            order.setEmailId("bench.customer@example.com");
+            order.setAddress("1 Dairy Road");
+            order.setPinCode("500001");
+            order.setOrderDateTime(now.minusMinutes(i));
+            order.setDeliveryDate(LocalDate.of(2024, 1, 2));
+            order.setDeliveryTimeSlot("MORNING");
+            order.setDeliveryFrequency("ONETIME");
+            order.setOrderStatus("ORDER PLACED");
+            order.setStatus("ACTIVE");
+            order.setDeliveryCharge(BigDecimal.TEN);
+            order.setOrderTotal(BigDecimal.valueOf(250));
+            order.setCreatedBy("Bench Customer");
+            order.setCreatedTime(now);
+            order.setUpdatedBy("Bench Customer");
+            order.setUpdatedTime(now);
+            List<ProductOrders> lines = new ArrayList<>(linesPerOrder);
+            for (int line = 0; line < linesPerOrder; line++) {
+                Products product = new Products();
+                product.setProductId("BENCHPROD" + line);
+                ProductOrders productOrder = new ProductOrders();
+                productOrder.setProductOrderId(order.getOrderId() + "-" + line);
+                productOrder.setOrders(order);
+                productOrder.setProducts(product);
+                productOrder.setProductName("Product " + line);
+                productOrder.setProductPrice(BigDecimal.valueOf(48));
+                productOrder.setQuantity(2L);
+                productOrder.setStatus("ACTIVE");
+                lines.add(productOrder);
+            }
+            order.setProductOrders(lines);
+            page.add(order);
+        }
+    }
+
+    @Benchmark
+    public List<OrderDetails> mapPage() {
+        return OrderServiceImpl.getOrderDetails(page);
+    }
+}
@@ -0,0 +1,83 @@
+package com.app.milkman.utils;
+
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.model.ProductOrdersReq;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing a cart with {@link OrderPricing} against the two totals it replaced.
+ *
+ * legacyDoubleTotal is the previous creation path (BigDecimal line totals summed as doubles) and legacyDecimalTotal
+ * the previous update path (a BigDecimal reduce). Run with -prof gc to compare allocation per cart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    private static final double DELIVERY_CHARGE = 12.5;
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private Map<String, ProductDetails> products;
+    private List<ProductOrdersReq> cart;
+    private long deliveryChargePaise;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        products = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            BigDecimal price = BigDecimal.valueOf(1_000 + random.nextInt(20_000), 2);
+            String productId = "BENCHPROD" + i;
+            products.put(productId, ProductDetails.builder().productId(productId).productPrice(price)
+                    .pricePaise(OrderPricing.toPaise(price)).build());
+        }
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            ProductOrdersReq line = new ProductOrdersReq();
+            line.setProductId("BENCHPROD" + random.nextInt(50));
+            line.setQuantity(1 + random.nextInt(5));
+            cart.add(line);
+        }
+        deliveryChargePaise = OrderPricing.toPaise(DELIVERY_CHARGE);
+    }
+
+    @Benchmark
+    public long paiseTotal() {
+        return OrderPricing.orderTotal(cart, products, deliveryChargePaise);
+    }
+
+    @Benchmark
+    public BigDecimal paiseTotalAsRupees() {
+        return OrderPricing.toRupees(OrderPricing.orderTotal(cart, products, OrderPricing.toPaise(DELIVERY_CHARGE)));
+    }
+
+    @Benchmark
+    public BigDecimal legacyDoubleTotal() {
+        double total = cart.stream().mapToDouble(line -> products.get(line.getProductId()).getProductPrice()
+                .multiply(BigDecimal.valueOf(line.getQuantity())).doubleValue()).sum() + DELIVERY_CHARGE;
+        return BigDecimal.valueOf(total);
+    }
+
+    @Benchmark
+    public BigDecimal legacyDecimalTotal() {
+        return cart.stream()
+                .map(line -> products.get(line.getProductId()).getProductPrice()
+                        .multiply(BigDecimal.valueOf(line.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .add(BigDecimal.valueOf(DELIVERY_CHARGE));
+    }
+}
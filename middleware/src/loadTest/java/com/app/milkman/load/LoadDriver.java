@@ -0,0 +1,279 @@
+package com.app.milkman.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load driver for comparing platform and virtual thread request handling.
+ *
+ * Runs against an instance started with bootRun (platform threads) or bootRun -PjavaVersion=21 (virtual threads).
+ * For each scenario a fixed number of clients send one request at a time, first for the warm-up and then for the
+ * measured duration; throughput, errors and latency percentiles are printed and, with --out, appended as CSV rows
+ * so runs of both modes end up in one file. The orders scenario registers a customer and places three-line orders
+ * for products from the listing.
+ *
+ * Options: --base-url, --label, --clients, --warmup, --duration (ISO-8601 or seconds), --scenarios, --out
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int clients;
+    private final HttpClient httpClient;
+
+    private List<String> productIds;
+    private String customerId;
+
+    LoadDriver(String baseUrl, int clients) {
+        this.baseUrl = baseUrl;
+        this.clients = clients;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, clients / 4)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String label = options.getOrDefault("label", "run");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "10"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "30"));
+        List<String> scenarios = Arrays.asList(options.getOrDefault("scenarios", "products,orders").split(","));
+
+        LoadDriver driver = new LoadDriver(options.getOrDefault("base-url", "http://localhost:8081/milkman"), clients);
+        driver.prepare(scenarios.contains("orders"));
+        List<Result> results = new ArrayList<>();
+        for (String scenario : scenarios) {
+            Scenario request = switch (scenario) {
+                case "products" -> driver::getProducts;
+                case "orders" -> driver::createOrder;
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            };
+            driver.run(request, warmup);
+            Result result = driver.run(request, duration);
+            result.label = label;
+            result.scenario = scenario;
+            System.out.println(result);
+            results.add(result);
+        }
+        if (options.containsKey("out")) {
+            append(Path.of(options.get("out")), results);
+        }
+        System.exit(0);
+    }
+
+    private void prepare(boolean orders) throws IOException, InterruptedException {
+        JsonNode products = JSON.readTree(send(get("/product/getProducts?page=0&size=50")).body());
+        productIds = new ArrayList<>();
+        products.forEach(product -> {
+            if ("ACTIVE".equals(product.path("status").asText())) {
+                productIds.add(product.get("productId").asText());
+            }
+        });
+        if (orders) {
+            if (productIds.isEmpty()) {
+                throw new IllegalStateException("The orders scenario needs at least one active product");
+            }
+            ObjectNode customer = JSON.createObjectNode()
+                    .put("firstName", "Load")
+                    .put("lastName", "Test")
+                    .put("primaryPhone", String.valueOf(ThreadLocalRandom.current().nextLong(6_000_000_000L, 9_999_999_999L)))
+                    .put("authPin", "1234")
+                    .put("pincode", "LOAD01")
+                    .put("status", "ACTIVE");
+            JsonNode registered = JSON.readTree(send(post("/customer/register", customer)).body());
+            customerId = registered.path("customerId").asText(null);
+            if (customerId == null) {
+                throw new IllegalStateException("Customer registration failed: " + registered);
+            }
+        }
+    }
+
+    private HttpResponse<String> getProducts() throws IOException, InterruptedException {
+        return send(get("/product/getProducts?page=0&size=20"));
+    }
+
+    private HttpResponse<String> createOrder() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ArrayNode lines = JSON.createArrayNode();
+        for (int i = 0; i < 3; i++) {
+            lines.addObject()
+                    .put("productId", productIds.get(random.nextInt(productIds.size())))
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        ObjectNode order = JSON.createObjectNode()
+                .put("customerId", customerId)
+                .put("deliveryDate", LocalDate.now().plusDays(1).toString())
+                .put("deliveryTimeSlot", "MORNING")
+                .put("deliveryFrequency", "ONETIME")
+                .put("deliveryCharge", 10.0);
+        order.set("productOrderReqs", lines);
+        return send(post("/order/create", order));
+    }
+
+    private Result run(Scenario scenario, Duration duration) throws InterruptedException {
+        ExecutorService clientThreads = Executors.newFixedThreadPool(clients);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(clientThreads.submit(() -> {
+                // Latencies in microseconds; the last slot counts failed requests
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = scenario.send().statusCode() == 200;
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    if (!ok) {
+                        errors++;
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = (System.nanoTime() - sent) / 1_000;
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = errors;
+                return result;
+            }));
+        }
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            try {
+                perClient.add(future.get());
+            } catch (Exception e) {
+                throw new IllegalStateException("Load client failed", e);
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        clientThreads.shutdown();
+
+        long errors = perClient.stream().mapToLong(latencies -> latencies[latencies.length - 1]).sum();
+        long[] all = perClient.stream()
+                .flatMapToLong(latencies -> Arrays.stream(latencies, 0, latencies.length - 1))
+                .sorted().toArray();
+        Result result = new Result();
+        result.clients = clients;
+        result.requests = all.length;
+        result.errors = errors;
+        result.throughput = all.length / seconds;
+        result.p50 = percentile(all, 0.50);
+        result.p99 = percentile(all, 0.99);
+        result.max = all.length == 0 ? 0 : all[all.length - 1];
+        return result;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, JsonNode body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static Duration parseDuration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static void append(Path file, List<Result> results) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            List<String> rows = new ArrayList<>();
+            if (!Files.exists(file)) {
+                rows.add("label,scenario,clients,requests,errors,throughput_per_s,p50_us,p99_us,max_us");
+            }
+            results.forEach(result -> rows.add(result.toCsv()));
+            Files.write(file, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+
+    private static class Result {
+        private String label;
+        private String scenario;
+        private int clients;
+        private long requests;
+        private long errors;
+        private double throughput;
+        private long p50;
+        private long p99;
+        private long max;
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%d,%d,%d",
+                    label, scenario, clients, requests, errors, throughput, p50, p99, max);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %-9s clients=%d requests=%d errors=%d throughput=%.1f/s "
+                    + "p50=%.1fms p99=%.1fms max=%.1fms", label, scenario, clients, requests, errors, throughput,
+                    p50 / 1000.0, p99 / 1000.0, max / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.app.milkman.load;
+
+import com.app.milkman.MilkManApplication;
+import com.app.milkman.component.EncryptDecrypt;
+import com.app.milkman.report.SalesRollupReconciler;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.app.milkman.utils.Constants.KEY;
+
+/**
+ * Reproducible HTTP load test: a seeded PostgreSQL, the application in-process and a mixed workload through the REST
+ * API, all on one machine.
+ *
+ * PostgreSQL runs in a Testcontainers container (Docker required) unless --jdbc-url points at an existing database.
+ * The application starts against it on a random port, Flyway creates the schema, and {@link LoadTestSeeder} seeds
+ * 100k customers, 1M orders and 200k subscriptions by default. {@link MixedWorkload} then runs the login, browse,
+ * order create, order list and subscription update scenarios, first for the warm-up and then for the measured
+ * duration. Throughput, errors and HdrHistogram percentiles are printed per scenario; each scenario's full
+ * percentile distribution is written to a .hgrm file (HdrHistogram plotter format, milliseconds) and a summary row
+ * appended to summary.csv, both under --out.
+ *
+ * Options: --jdbc-url, --username, --password, --reuse, --customers, --orders, --subscriptions, --users, --warmup,
+ * --duration (ISO-8601 or seconds), --mix (scenario=weight,...), --label, --out
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (LoadTestDatabase database = LoadTestDatabase.start(options)) {
+            ConfigurableApplicationContext context = startApplication(database);
+            try {
+                new LoadTestSeeder(context.getBean(JdbcTemplate.class), options)
+                        .seed(context.getBean(EncryptDecrypt.class).encrypt(LoadTestSeeder.AUTH_PIN, KEY),
+                                context.getBean(SalesRollupReconciler.class));
+
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + context.getEnvironment().getProperty("server.servlet.context-path", "");
+                MixedWorkload workload = new MixedWorkload(baseUrl, options);
+                System.out.printf("Warming up for %d s with %d users%n", options.warmup.toSeconds(), options.users);
+                workload.run(options.warmup);
+                System.out.printf("Measuring for %d s with %d users%n", options.duration.toSeconds(), options.users);
+                MixedWorkload.Result result = workload.run(options.duration);
+                workload.close();
+
+                print(result, System.out);
+                write(result, options.out);
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestDatabase database) {
+        String url = database.getJdbcUrl();
+        // Command-line arguments, so they take precedence over application.yml
+        return new SpringApplicationBuilder(MilkManApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                        "--spring.datasource.username=" + database.getUsername(),
+                        "--spring.datasource.password=" + database.getPassword(),
+                        // The nightly rollup rebuild would only add noise; the seeder runs it once
+                        "--milkman.report.reconcile.enabled=false",
+                        // Per-request INFO logging to the console would cost more than some of the requests
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.app.milkman=WARN");
+    }
+
+    private static void print(MixedWorkload.Result result, PrintStream out) {
+        out.printf("%n%-20s %9s %7s %9s %9s %9s %9s %9s %9s%n", "scenario (ms)", "requests", "errors", "req/s",
+                "p50", "p90", "p99", "p99.9", "max");
+        result.histograms.forEach((scenario, histogram) -> out.println(row(scenario.getName(), histogram,
+                result.errors.get(scenario), result.seconds)));
+        out.println(row("total", result.total(),
+                result.errors.values().stream().mapToLong(Long::longValue).sum(), result.seconds));
+        result.firstErrors.forEach((scenario, error) ->
+                out.printf("First %s error: %s%n", scenario.getName(), error));
+    }
+
+    private static String row(String name, Histogram histogram, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-20s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f", name,
+                histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void write(MixedWorkload.Result result, Path out) {
+        try {
+            Files.createDirectories(out);
+            for (Map.Entry<Scenario, Histogram> entry : result.histograms.entrySet()) {
+                Path file = out.resolve(result.label + "-" + entry.getKey().getName() + ".hgrm");
+                try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+                    // Recorded in microseconds, written in milliseconds
+                    entry.getValue().outputPercentileDistribution(stream, 1000.0);
+                }
+            }
+            Path summary = out.resolve("summary.csv");
+            List<String> rows = new ArrayList<>();
+            if (!Files.exists(summary)) {
+                rows.add("label,scenario,users,seconds,requests,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,"
+                        + "p999_ms,max_ms");
+            }
+            result.histograms.forEach((scenario, histogram) -> rows.add(csv(result, scenario.getName(), histogram,
+                    result.errors.get(scenario))));
+            rows.add(csv(result, "total", result.total(),
+                    result.errors.values().stream().mapToLong(Long::longValue).sum()));
+            Files.write(summary, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.out.println("Histograms and summary.csv written to " + out.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(MixedWorkload.Result result, String scenario, Histogram histogram, long errors) {
+        return String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", result.label,
+                scenario, result.users, result.seconds, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / result.seconds, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+}
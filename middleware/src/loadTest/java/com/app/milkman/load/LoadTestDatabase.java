@@ -0,0 +1,61 @@
+package com.app.milkman.load;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * The PostgreSQL the load test runs against: a Testcontainers container by default, or the database given with
+ * --jdbc-url. The container runs the image database/Dockerfile builds on, with the schema left to the Flyway
+ * migrations of the application; it is stopped at the end unless --reuse keeps it, seeded data included, for the
+ * next run.
+ */
+class LoadTestDatabase implements AutoCloseable {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("postgres:15-alpine");
+
+    private final PostgreSQLContainer<?> container;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    private LoadTestDatabase(PostgreSQLContainer<?> container, String jdbcUrl, String username, String password) {
+        this.container = container;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static LoadTestDatabase start(LoadTestOptions options) {
+        if (options.jdbcUrl != null) {
+            return new LoadTestDatabase(null, options.jdbcUrl, options.username, options.password);
+        }
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>(IMAGE)
+                .withDatabaseName("milkman")
+                .withReuse(options.reuse)
+                // Room for the seeded tables and indexes in memory, and for the application's connection pool
+                .withCommand("postgres", "-c", "shared_buffers=512MB", "-c", "max_connections=200");
+        System.out.println("Starting " + IMAGE + "...");
+        container.start();
+        return new LoadTestDatabase(container, container.getJdbcUrl(), container.getUsername(),
+                container.getPassword());
+    }
+
+    String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    @Override
+    public void close() {
+        if (container != null && !container.isShouldBeReused()) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.milkman.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}: --option value pairs, every option optional.
+ */
+class LoadTestOptions {
+
+    // Existing PostgreSQL to seed and test against instead of a container (user and password default to postgres)
+    String jdbcUrl;
+    String username;
+    String password;
+    // Keep the container and its seeded data for the next run (needs testcontainers.reuse.enable=true in
+    // ~/.testcontainers.properties)
+    boolean reuse;
+
+    long customers = 100_000;
+    long orders = 1_000_000;
+    long subscriptions = 200_000;
+
+    int users = 50;
+    Duration warmup = Duration.ofSeconds(30);
+    Duration duration = Duration.ofSeconds(120);
+    Map<Scenario, Integer> mix = parseMix("login=5,browse=35,order-create=15,order-list=35,subscription-update=10");
+    String label = "run";
+    Path out = Path.of("build", "load");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + String.join(" ", args));
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+        LoadTestOptions options = new LoadTestOptions();
+        options.jdbcUrl = values.remove("jdbc-url");
+        options.username = values.getOrDefault("username", "postgres");
+        options.password = values.getOrDefault("password", "postgres");
+        values.remove("username");
+        values.remove("password");
+        options.reuse = Boolean.parseBoolean(values.remove("reuse"));
+        if (values.containsKey("customers")) {
+            options.customers = Long.parseLong(values.remove("customers"));
+        }
+        if (values.containsKey("orders")) {
+            options.orders = Long.parseLong(values.remove("orders"));
+        }
+        if (values.containsKey("subscriptions")) {
+            options.subscriptions = Long.parseLong(values.remove("subscriptions"));
+        }
+        if (values.containsKey("users")) {
+            options.users = Integer.parseInt(values.remove("users"));
+        }
+        if (values.containsKey("warmup")) {
+            options.warmup = parseDuration(values.remove("warmup"));
+        }
+        if (values.containsKey("duration")) {
+            options.duration = parseDuration(values.remove("duration"));
+        }
+        if (values.containsKey("mix")) {
+            options.mix = parseMix(values.remove("mix"));
+        }
+        if (values.containsKey("label")) {
+            options.label = values.remove("label");
+        }
+        if (values.containsKey("out")) {
+            options.out = Path.of(values.remove("out"));
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.customers < 1 || options.orders < 1 || options.subscriptions < 1 || options.users < 1) {
+            throw new IllegalArgumentException("Volumes and users must be positive");
+        }
+        return options;
+    }
+
+    private static Duration parseDuration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // Relative weights, e.g. login=5,browse=35; scenarios left out are not run
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight in --mix, got " + entry);
+            }
+            int parsed = Integer.parseInt(weight[1].trim());
+            if (parsed > 0) {
+                mix.put(Scenario.fromName(weight[0].trim()), parsed);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no scenario");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,163 @@
+package com.app.milkman.load;
+
+import com.app.milkman.report.SalesRollupReconciler;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds the load-test volumes with set-based INSERT ... SELECT generate_series statements, so a million orders take
+ * minutes rather than a million round trips.
+ *
+ * Rows are derived from their sequence number g, which lets the workload address them without reading them back:
+ * customer g has the ID LOADCUST0000042, phone 7000000000 + g and pin 1234; order and subscription g belong to
+ * customer 1 + (g - 1) % customers, so every customer has the same share of both. Orders are spread over the last
+ * year and carry two lines from the twenty LOADPROD products. Seeding is skipped when the customers already exist,
+ * which makes reruns against a reused container or database start straight away.
+ */
+class LoadTestSeeder {
+
+    static final int PRODUCTS = 20;
+    static final String AUTH_PIN = "1234";
+    static final long FIRST_PHONE = 7_000_000_000L;
+
+    // Rows per INSERT ... SELECT, small enough to keep each statement's WAL and memory in check
+    private static final int CHUNK = 100_000;
+
+    private static final String PRODUCT_PRICE = "(20 + %s * 2.5)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestOptions options;
+
+    LoadTestSeeder(JdbcTemplate jdbcTemplate, LoadTestOptions options) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.options = options;
+    }
+
+    static String customerId(long g) {
+        return String.format("LOADCUST%07d", g);
+    }
+
+    static String orderId(long g) {
+        return String.format("LOADORD%08d", g);
+    }
+
+    static String subscriptionId(long g) {
+        return String.format("LOADSUB%07d", g);
+    }
+
+    static String productId(int p) {
+        return String.format("LOADPROD%02d", p);
+    }
+
+    static long customerOf(long g, long customers) {
+        return 1 + (g - 1) % customers;
+    }
+
+    void seed(String encryptedPin, SalesRollupReconciler reconciler) {
+        long existing = count("SELECT count(*) FROM milkman.customers WHERE customerid LIKE 'LOADCUST%'");
+        if (existing > 0) {
+            // Chunks are inserted in sequence order, so the last order and subscription show a completed seeding
+            boolean complete = existing == options.customers
+                    && count("SELECT count(*) FROM milkman.orders WHERE orderid = ?", orderId(options.orders)) == 1
+                    && count("SELECT count(*) FROM milkman.subscriptions WHERE subscriptionid = ?",
+                            subscriptionId(options.subscriptions)) == 1;
+            if (!complete) {
+                throw new IllegalStateException("The database holds a different or incomplete load-test seeding; "
+                        + "start from an empty database or rerun with the same volumes");
+            }
+            System.out.printf("Reusing %,d seeded customers and their orders and subscriptions%n", existing);
+            return;
+        }
+        long started = System.nanoTime();
+        seedProducts();
+        chunked("customers", options.customers, (from, to) -> seedCustomers(from, to, encryptedPin));
+        chunked("orders", options.orders, this::seedOrders);
+        chunked("subscriptions", options.subscriptions, this::seedSubscriptions);
+
+        LocalDate today = LocalDate.now();
+        reconciler.reconcile(today.minusDays(366), today);
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Seeded in %.0f s%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    private void seedProducts() {
+        jdbcTemplate.update("INSERT INTO milkman.products (productid, productname, productdescription, productprice, "
+                + "createdby, createdtime, status) "
+                + "SELECT 'LOADPROD' || lpad(p::text, 2, '0'), 'Load product ' || p, 'Seeded by the load test', "
+                + String.format(PRODUCT_PRICE, "p") + ", 'loadtest', now(), 'ACTIVE' "
+                + "FROM generate_series(1, ?) p ON CONFLICT (productid) DO NOTHING", PRODUCTS);
+    }
+
+    private void seedCustomers(long from, long to, String encryptedPin) {
+        jdbcTemplate.update("INSERT INTO milkman.customers (customerid, firstname, lastname, pphone, emailid, "
+                + "auth_pin, address, pincode, createdby, createdtime, status, role) "
+                + "SELECT 'LOADCUST' || lpad(g::text, 7, '0'), 'Load', 'Customer ' || g, (? + g)::text, "
+                + "'load' || g || '@example.com', ?, g || ' Load Street', (500001 + g % 200)::text, 'loadtest', "
+                + "now(), 'ACTIVE', 'USER' "
+                + "FROM generate_series(?, ?) g", FIRST_PHONE, encryptedPin, from, to);
+    }
+
+    private void seedOrders(long from, long to) {
+        String p1 = "(1 + g % " + PRODUCTS + ")";
+        String p2 = "(1 + (g + 7) % " + PRODUCTS + ")";
+        jdbcTemplate.update("INSERT INTO milkman.orders (orderid, customerid, customername, pphone, emailid, "
+                + "address, pincode, orderdatetime, deliverydate, deliverytimeslot, deliveryfrequency, orderstatus, "
+                + "createdby, createdtime, status, deliverycharge, ordertotal) "
+                + "SELECT 'LOADORD' || lpad(g::text, 8, '0'), 'LOADCUST' || lpad(c::text, 7, '0'), "
+                + "'Load Customer ' || c, (? + c)::text, 'load' || c || '@example.com', c || ' Load Street', "
+                + "(500001 + c % 200)::text, t, CAST(t AS date) + 1, 'MORNING', 'ONETIME', 'DELIVERED', "
+                + "'loadtest', t, 'ACTIVE', 10, "
+                + "10 + " + String.format(PRODUCT_PRICE, p1) + " * (1 + g % 3) + " + String.format(PRODUCT_PRICE, p2) + " "
+                + "FROM (SELECT g, 1 + (g - 1) % ? AS c, "
+                + "now() - ((g * 7919) % 525600) * interval '1 minute' AS t FROM generate_series(?, ?) g) s",
+                FIRST_PHONE, options.customers, from, to);
+        jdbcTemplate.update("INSERT INTO milkman.product_orders (product_order_id, orderid, productid, productname, "
+                + "productprice, quantity, createdby, createdtime, status) "
+                + "SELECT 'LOADPO' || lpad(g::text, 8, '0') || '-' || l, 'LOADORD' || lpad(g::text, 8, '0'), "
+                + "'LOADPROD' || lpad(p::text, 2, '0'), 'Load product ' || p, " + String.format(PRODUCT_PRICE, "p")
+                + ", q, 'loadtest', now(), 'ACTIVE' "
+                + "FROM generate_series(?, ?) g, "
+                + "LATERAL (VALUES (1, " + p1 + ", 1 + g % 3), (2, " + p2 + ", 1)) AS line(l, p, q)",
+                from, to);
+    }
+
+    private void seedSubscriptions(long from, long to) {
+        String p = "(1 + g % " + PRODUCTS + ")";
+        jdbcTemplate.update("INSERT INTO milkman.subscriptions (subscriptionid, customerid, customername, pphone, "
+                + "emailid, address, pincode, orderdatetime, deliverystartdate, deliveryenddate, deliverytimeslot, "
+                + "deliveryfrequency, deliverydays, deliverydaysmask, orderstatus, deliverycharge, ordertotal, "
+                + "createdby, createdtime, status) "
+                + "SELECT 'LOADSUB' || lpad(g::text, 7, '0'), 'LOADCUST' || lpad(c::text, 7, '0'), "
+                + "'Load Customer ' || c, (? + c)::text, 'load' || c || '@example.com', c || ' Load Street', "
+                + "(500001 + c % 200)::text, now(), current_date, current_date + 180, 'MORNING', 'DAILY', "
+                + "'Monday, Wednesday, Friday', 21, 'ACTIVE', 10, 10 + " + String.format(PRODUCT_PRICE, p) + ", "
+                + "'loadtest', now(), 'ACTIVE' "
+                + "FROM (SELECT g, 1 + (g - 1) % ? AS c FROM generate_series(?, ?) g) s",
+                FIRST_PHONE, options.customers, from, to);
+        jdbcTemplate.update("INSERT INTO milkman.product_subscriptions (product_subscription_id, subscriptionid, "
+                + "productid, productname, productprice, quantity, createdby, createdtime, status) "
+                + "SELECT 'LOADPS' || lpad(g::text, 7, '0'), 'LOADSUB' || lpad(g::text, 7, '0'), "
+                + "'LOADPROD' || lpad(" + p + "::text, 2, '0'), 'Load product ' || " + p + ", "
+                + String.format(PRODUCT_PRICE, p) + ", 1, 'loadtest', now(), 'ACTIVE' "
+                + "FROM generate_series(?, ?) g", from, to);
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private void chunked(String table, long rows, ChunkInsert insert) {
+        long started = System.nanoTime();
+        for (long from = 1; from <= rows; from += CHUNK) {
+            insert.insert(from, Math.min(rows, from + CHUNK - 1));
+        }
+        System.out.printf("Seeded %,d %s in %.0f s%n", rows, table, (System.nanoTime() - started) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface ChunkInsert {
+        void insert(long from, long to);
+    }
+}
@@ -0,0 +1,286 @@
+package com.app.milkman.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop mixed workload over the seeded data.
+ *
+ * Every virtual user is a thread that logs in as a random seeded customer and then sends one request after
+ * another without think time, picking each scenario at random by its weight in the mix; a login switches the user
+ * to another customer. Latencies of successful requests go to one HdrHistogram recorder per scenario, failures
+ * (non-200 responses, FAILED statuses and I/O errors) to a counter. Sessions survive from the warm-up into the
+ * measured run, so the measured run starts with logged-in users.
+ */
+class MixedWorkload {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // Latencies are recorded in microseconds, up to a minute with three significant digits
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    private static final int PAGE_SIZE = 20;
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final Scenario[] wheel;
+    private final Session[] sessions;
+
+    MixedWorkload(String baseUrl, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, options.users / 4)))
+                .build();
+        // One slot per unit of weight, so a uniform pick follows the mix
+        List<Scenario> slots = new ArrayList<>();
+        options.mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(scenario);
+            }
+        });
+        this.wheel = slots.toArray(new Scenario[0]);
+        this.sessions = new Session[options.users];
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+        Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_LATENCY, 3));
+            errors.put(scenario, new LongAdder());
+        }
+        Map<Scenario, String> firstErrors = new ConcurrentHashMap<>();
+
+        ExecutorService users = Executors.newFixedThreadPool(options.users);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            int user = i;
+            futures.add(users.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = sessions[user] == null ? Scenario.LOGIN : wheel[random.nextInt(wheel.length)];
+                    long sent = System.nanoTime();
+                    String error;
+                    try {
+                        error = execute(scenario, user, random);
+                    } catch (IOException e) {
+                        error = e.toString();
+                    }
+                    long elapsed = (System.nanoTime() - sent) / 1_000;
+                    if (error == null) {
+                        recorders.get(scenario).recordValue(Math.min(elapsed, HIGHEST_LATENCY));
+                    } else {
+                        errors.get(scenario).increment();
+                        firstErrors.putIfAbsent(scenario, error);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Virtual user failed", e);
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        users.shutdown();
+
+        Result result = new Result(options.label, options.users, seconds);
+        for (Scenario scenario : options.mix.keySet()) {
+            result.add(scenario, recorders.get(scenario).getIntervalHistogram(), errors.get(scenario).sum(),
+                    firstErrors.get(scenario));
+        }
+        return result;
+    }
+
+    void close() {
+        httpClient.executor().ifPresent(executor -> ((ExecutorService) executor).shutdown());
+    }
+
+    /**
+     * Sends one request of the scenario for the user.
+     *
+     * @return null on success, otherwise a description of the failure
+     */
+    private String execute(Scenario scenario, int user, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        return switch (scenario) {
+            case LOGIN -> login(user, random);
+            case BROWSE -> check(send(get("/product/getProducts?page=" + random.nextInt(2) + "&size=" + PAGE_SIZE,
+                    null)), false);
+            case ORDER_CREATE -> check(send(post("/order/create", order(sessions[user], random))), true);
+            case ORDER_LIST -> check(send(get("/order/getAllOrders?cursor=&size=" + PAGE_SIZE,
+                    sessions[user].token)), false);
+            case SUBSCRIPTION_UPDATE -> check(send(put("/subscribe/update", subscription(sessions[user], random),
+                    sessions[user].token)), true);
+        };
+    }
+
+    private String login(int user, ThreadLocalRandom random) throws IOException, InterruptedException {
+        long customer = 1 + random.nextLong(options.customers);
+        ObjectNode request = JSON.createObjectNode()
+                .put("emailIdOrPhone", String.valueOf(LoadTestSeeder.FIRST_PHONE + customer))
+                .put("authPin", LoadTestSeeder.AUTH_PIN);
+        HttpResponse<String> response = send(post("/customer/authenticate", request));
+        String error = check(response, true);
+        if (error == null) {
+            JsonNode body = JSON.readTree(response.body());
+            sessions[user] = new Session(customer, body.path("customerId").asText(), body.path("authToken").asText());
+        }
+        return error;
+    }
+
+    private ObjectNode order(Session session, ThreadLocalRandom random) {
+        ObjectNode order = JSON.createObjectNode()
+                .put("customerId", session.customerId)
+                .put("deliveryDate", LocalDate.now().plusDays(1).toString())
+                .put("deliveryTimeSlot", "MORNING")
+                .put("deliveryFrequency", "ONETIME")
+                .put("deliveryCharge", 10.0);
+        order.set("productOrderReqs", lines(1 + random.nextInt(3), random));
+        return order;
+    }
+
+    private ObjectNode subscription(Session session, ThreadLocalRandom random) {
+        // The customer's subscriptions are customer, customer + customers, ...; the few customers without one
+        // (fewer subscriptions than customers) update somebody else's
+        long subscription = session.customer <= options.subscriptions
+                ? session.customer + options.customers * random.nextLong(
+                        (options.subscriptions - session.customer) / options.customers + 1)
+                : 1 + random.nextLong(options.subscriptions);
+        ObjectNode request = JSON.createObjectNode()
+                .put("subscriptionId", LoadTestSeeder.subscriptionId(subscription))
+                .put("customerId", LoadTestSeeder.customerId(
+                        LoadTestSeeder.customerOf(subscription, options.customers)))
+                .put("deliveryStartDate", LocalDate.now().toString())
+                .put("deliveryEndDate", LocalDate.now().plusDays(180).toString())
+                .put("deliveryTimeSlot", random.nextBoolean() ? "MORNING" : "EVENING")
+                .put("deliveryFrequency", "DAILY")
+                .put("orderStatus", "ACTIVE")
+                .put("deliveryCharge", 10.0);
+        request.putArray("deliveryDays").add("Monday").add("Wednesday").add(random.nextBoolean() ? "Friday" : "Saturday");
+        request.set("productOrderReqs", lines(1 + random.nextInt(2), random));
+        return request;
+    }
+
+    private static ArrayNode lines(int count, ThreadLocalRandom random) {
+        ArrayNode lines = JSON.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            lines.addObject()
+                    .put("productId", LoadTestSeeder.productId(1 + random.nextInt(LoadTestSeeder.PRODUCTS)))
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        return lines;
+    }
+
+    // Responses with a status field report failures as FAILED with HTTP 200
+    private static String check(HttpResponse<String> response, boolean hasStatus) throws IOException {
+        if (response.statusCode() != 200) {
+            return "HTTP " + response.statusCode() + ": " + abbreviate(response.body());
+        }
+        if (hasStatus && !"SUCCESS".equals(JSON.readTree(response.body()).path("status").asText())) {
+            return abbreviate(response.body());
+        }
+        return null;
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 300 ? body.substring(0, 300) + "..." : body;
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private HttpRequest post(String path, JsonNode body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, JsonNode body, String token) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Session(long customer, String customerId, String token) {
+    }
+
+    /**
+     * Latency histograms and error counts of one run, per scenario in mix order.
+     */
+    static class Result {
+
+        final String label;
+        final int users;
+        final double seconds;
+        final Map<Scenario, Histogram> histograms = new EnumMap<>(Scenario.class);
+        final Map<Scenario, Long> errors = new EnumMap<>(Scenario.class);
+        final Map<Scenario, String> firstErrors = new EnumMap<>(Scenario.class);
+
+        Result(String label, int users, double seconds) {
+            this.label = label;
+            this.users = users;
+            this.seconds = seconds;
+        }
+
+        void add(Scenario scenario, Histogram histogram, long errorCount, String firstError) {
+            histograms.put(scenario, histogram);
+            errors.put(scenario, errorCount);
+            if (firstError != null) {
+                firstErrors.put(scenario, firstError);
+            }
+        }
+
+        Histogram total() {
+            Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+    }
+}
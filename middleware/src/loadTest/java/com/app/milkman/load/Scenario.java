@@ -0,0 +1,36 @@
+package com.app.milkman.load;
+
+import java.util.Arrays;
+
+/**
+ * The request types of the mixed workload, each timed in its own latency histogram.
+ */
+enum Scenario {
+
+    // POST /customer/authenticate, then continue as the logged-in customer
+    LOGIN("login"),
+    // GET /product/getProducts, one of the first catalog pages
+    BROWSE("browse"),
+    // POST /order/create with one to three lines
+    ORDER_CREATE("order-create"),
+    // GET /order/getAllOrders in keyset mode, the first page of the customer's own orders
+    ORDER_LIST("order-list"),
+    // PUT /subscribe/update of one of the customer's subscriptions
+    SUBSCRIPTION_UPDATE("subscription-update");
+
+    private final String name;
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static Scenario fromName(String name) {
+        return Arrays.stream(values()).filter(scenario -> scenario.name.equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + name + ", expected one of "
+                        + Arrays.stream(values()).map(Scenario::getName).toList()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.milkman.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out sequential customer IDs in CUST### format.
+ *
+ * IDs are reserved from the database sequence in blocks of {@link #BLOCK_SIZE} (pooled hi/lo), so only one
+ * registration in every block touches the database. Every application instance gets disjoint blocks from the
+ * same sequence, so IDs are never duplicated; unused IDs of a block are skipped after a restart.
+ */
+@Slf4j
+@Component
+public class CustomerIdAllocator {
+
+    // Created by the V8 migration
+    static final String SEQUENCE = "milkman.customer_id_seq";
+
+    // Must match INCREMENT BY of the sequence
+    static final int BLOCK_SIZE = 50;
+
+    private static final String CUSTOMER_ID_PREFIX = "CUST";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long limit;
+
+    public String nextCustomerId() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                allocateBlock();
+            }
+            return String.format(CUSTOMER_ID_PREFIX + "%03d", next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void allocateBlock() {
+        Long blockStart = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        next = blockStart;
+        limit = blockStart + BLOCK_SIZE;
+        log.debug("[Customer ID Generation] Reserved customer IDs {} to {}", next, limit - 1);
+    }
+}
@@ -2,35 +2,32 @@ package com.app.milkman.component;
 
 import com.app.milkman.model.EmailRequest;
 import com.app.milkman.model.ParentResponse;
+import com.app.milkman.notification.Notification;
+import com.app.milkman.notification.NotificationChannel;
+import com.app.milkman.notification.NotificationDispatcher;
 import com.app.milkman.utils.Constants;
-import jdk.jfr.Unsigned;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EmailComponent {
 
     @Autowired
-    private JavaMailSender mailSender;
-    @Value("${spring.mail.username}")
-    private String sender;
+    private NotificationDispatcher notificationDispatcher;
 
+    /**
+     * Queues an e-mail for asynchronous delivery; the message is sent by the notification dispatcher
+     */
     public ParentResponse sendEmail(EmailRequest emailRequest) {
+        boolean accepted = notificationDispatcher.submit(Notification.builder()
+                .channel(NotificationChannel.EMAIL)
+                .recipient(emailRequest.getRecipient())
+                .subject(emailRequest.getSubject())
+                .body(emailRequest.getMsgBody()).build());
 
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        EmailRequest mail = new EmailRequest();
-        simpleMailMessage.setFrom(sender);
-        simpleMailMessage.setTo(emailRequest.getRecipient());
-        simpleMailMessage.setText(emailRequest.getMsgBody());
-        simpleMailMessage.setSubject(emailRequest.getSubject());
-
-        mailSender.send(simpleMailMessage);
         ParentResponse response = new ParentResponse();
-        response.setStatusCode(Constants.SUCCESS_CODE);
-        response.setStatus(Constants.SUCCESS);
+        response.setStatusCode(accepted ? Constants.SUCCESS_CODE : Constants.SERVICE_UNAVAILABLE_CODE);
+        response.setStatus(accepted ? Constants.SUCCESS : Constants.FAILED);
         return response;
     }
 
@@ -4,44 +4,49 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 
+/**
+ * AES encryption of short secrets (auth PINs, provider credentials).
+ *
+ * The key derived from each secret is computed once and kept together with a small pool of Cipher instances
+ * already initialised with it. A Cipher is not thread-safe, so every call borrows one exclusively and hands it
+ * back afterwards; there is no shared mutable static state.
+ */
 @Component
 @Slf4j
 public class EncryptDecrypt {
 
-    private static SecretKeySpec secretKey;
-    private static byte[] key;
     private static final String ALGORITHM = "AES";
 
-    public void prepareSecreteKey(String myKey) {
-        MessageDigest sha = null;
-        try {
-            log.debug("Preparing key...{}", myKey);
-            key = myKey.getBytes(StandardCharsets.UTF_8);
-            sha = MessageDigest.getInstance("SHA-1");
-            key = sha.digest(key);
-            key = Arrays.copyOf(key, 16);
-            secretKey = new SecretKeySpec(key, ALGORITHM);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Error while preparing key...{}", myKey);
-        }
+    // Idle ciphers kept per secret and mode; extra instances created under a burst are simply dropped
+    private static final int MAX_IDLE_CIPHERS = 32;
+
+    private final ConcurrentMap<String, KeyCiphers> keyCiphers = new ConcurrentHashMap<>();
+
+    public SecretKeySpec prepareSecreteKey(String myKey) {
+        return keyCiphers(myKey).secretKey;
     }
 
     public String encrypt(String strToEncrypt, String secret) {
         String encryptedKey = null;
         try {
             log.debug("Encrypting key...{}", strToEncrypt);
-            prepareSecreteKey(secret);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            encryptedKey = Base64.getEncoder().encodeToString(cipher.doFinal(strToEncrypt.getBytes("UTF-8")));
+            KeyCiphers ciphers = keyCiphers(secret);
+            Cipher cipher = ciphers.borrow(Cipher.ENCRYPT_MODE);
+            encryptedKey = Base64.getEncoder().encodeToString(cipher.doFinal(strToEncrypt.getBytes(StandardCharsets.UTF_8)));
+            ciphers.release(Cipher.ENCRYPT_MODE, cipher);
         } catch (Exception e) {
             log.error("Error while Encrypting key...{}", strToEncrypt);
         }
@@ -52,13 +57,60 @@ public class EncryptDecrypt {
         String decryptedKey = null;
         try {
             log.debug("Decrypting key...{}", strToDecrypt);
-            prepareSecreteKey(secret);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            decryptedKey = new String(cipher.doFinal(Base64.getDecoder().decode(strToDecrypt)));
+            KeyCiphers ciphers = keyCiphers(secret);
+            Cipher cipher = ciphers.borrow(Cipher.DECRYPT_MODE);
+            decryptedKey = new String(cipher.doFinal(Base64.getDecoder().decode(strToDecrypt)), StandardCharsets.UTF_8);
+            ciphers.release(Cipher.DECRYPT_MODE, cipher);
         } catch (Exception e) {
             log.error("Error while Decrypting key...{}", strToDecrypt);
         }
         return decryptedKey;
     }
+
+    private KeyCiphers keyCiphers(String secret) {
+        return keyCiphers.computeIfAbsent(secret, KeyCiphers::new);
+    }
+
+    /**
+     * Derived key of one secret plus its idle encrypt and decrypt ciphers
+     */
+    private static final class KeyCiphers {
+
+        private final SecretKeySpec secretKey;
+        private final BlockingQueue<Cipher> encryptCiphers = new ArrayBlockingQueue<>(MAX_IDLE_CIPHERS);
+        private final BlockingQueue<Cipher> decryptCiphers = new ArrayBlockingQueue<>(MAX_IDLE_CIPHERS);
+
+        KeyCiphers(String secret) {
+            this.secretKey = deriveKey(secret);
+        }
+
+        Cipher borrow(int mode) throws GeneralSecurityException {
+            Cipher cipher = idle(mode).poll();
+            if (cipher == null) {
+                cipher = Cipher.getInstance(ALGORITHM);
+                cipher.init(mode, secretKey);
+            }
+            return cipher;
+        }
+
+        /**
+         * Only ciphers whose doFinal completed are returned; doFinal leaves them ready for the next call
+         */
+        void release(int mode, Cipher cipher) {
+            idle(mode).offer(cipher);
+        }
+
+        private BlockingQueue<Cipher> idle(int mode) {
+            return mode == Cipher.ENCRYPT_MODE ? encryptCiphers : decryptCiphers;
+        }
+
+        private static SecretKeySpec deriveKey(String secret) {
+            try {
+                byte[] key = MessageDigest.getInstance("SHA-1").digest(secret.getBytes(StandardCharsets.UTF_8));
+                return new SecretKeySpec(Arrays.copyOf(key, 16), ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+    }
 }
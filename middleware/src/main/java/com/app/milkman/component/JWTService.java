@@ -1,6 +1,8 @@
 package com.app.milkman.component;
 
+import com.app.milkman.model.TokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -23,6 +25,28 @@ public class JWTService {
     // Refresh token valid for 7 days
     private static final long REFRESH_TOKEN_VALIDITY = 1000 * 60 * 60 * 24 * 7;
 
+    // Keys and parsers are immutable and thread-safe, so they are built once and shared by all requests
+    private final SecretKey signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private final SecretKey refreshSignKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(REFRESH_SECRET));
+    private final JwtParser parser = Jwts.parser().verifyWith(signKey).build();
+    private final JwtParser refreshParser = Jwts.parser().verifyWith(refreshSignKey).build();
+
+    /**
+     * Verifies the access token once and returns all of its claims
+     *
+     * @param token signed access token
+     * @return subject (phone number), role, type and expiry of the token
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return TokenClaims.builder()
+                .phoneNo(claims.getSubject())
+                .role(claims.get("role", String.class))
+                .type(claims.get("type", String.class))
+                .expiration(claims.getExpiration())
+                .build();
+    }
+
     public String extractPhoneNo(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -50,40 +74,25 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith((SecretKey) getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     private Claims extractAllClaimsFromRefreshToken(String token) {
-        return Jwts
-                .parser()
-                .verifyWith((SecretKey) getRefreshSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return refreshParser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
-    private Boolean isRefreshTokenExpired(String token) {
-        Date expiration = extractClaimFromRefreshToken(token, Claims::getExpiration);
-        return expiration.before(new Date());
+    private Boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Boolean validateToken(String token, String phoneNumber) {
-        final String phNo = extractPhoneNo(token);
-        return (phNo.equals(phoneNumber) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(phoneNumber) && !isExpired(claims));
     }
     
     public Boolean validateRefreshToken(String token, String phoneNumber) {
-        final String phNo = extractPhoneNoFromRefreshToken(token);
-        return (phNo.equals(phoneNumber) && !isRefreshTokenExpired(token));
+        final Claims claims = extractAllClaimsFromRefreshToken(token);
+        return (claims.getSubject().equals(phoneNumber) && !isExpired(claims));
     }
 
     public String GenerateToken(String phoneNumber, String role) {
@@ -105,7 +114,7 @@ public class JWTService {
                 .subject(phoneNumber)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + validity))
-                .signWith(getSignKey()).compact();
+                .signWith(signKey).compact();
     }
     
     private String createRefreshToken(Map<String, Object> claims, String phoneNumber) {
@@ -114,16 +123,6 @@ public class JWTService {
                 .subject(phoneNumber)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_VALIDITY))
-                .signWith(getRefreshSignKey()).compact();
-    }
-
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
-    private SecretKey getRefreshSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(REFRESH_SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+                .signWith(refreshSignKey).compact();
     }
 }
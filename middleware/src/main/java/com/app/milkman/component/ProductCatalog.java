@@ -0,0 +1,196 @@
+package com.app.milkman.component;
+
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.repository.ProductsRepository;
+import com.app.milkman.utils.OrderPricing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process snapshot of the product catalog.
+ *
+ * The catalog is small and only changes through the admin product endpoints, so all products are read once into an
+ * immutable array of pre-built {@link ProductDetails} (ordered by product ID) plus an ID index, and served from
+ * memory until a write invalidates it. Every invalidation bumps the catalog version; the next read rebuilds the
+ * snapshot, and a rebuild that raced with a newer invalidation is never published.
+ *
+ * The shared ProductDetails instances must be treated as read-only by callers.
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    @Autowired
+    private ProductsRepository productsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    // A lock rather than synchronized: the rebuild queries the database, which would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Counter hits;
+    private Counter misses;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("product.catalog.lookups").tag("result", "hit")
+                .description("Catalog reads served from the in-memory snapshot").register(meterRegistry);
+        misses = Counter.builder("product.catalog.lookups").tag("result", "miss")
+                .description("Catalog reads that had to rebuild the snapshot").register(meterRegistry);
+        rebuildTimer = Timer.builder("product.catalog.rebuild")
+                .description("Time to load the catalog from the database").register(meterRegistry);
+        Gauge.builder("product.catalog.version", version, AtomicLong::get)
+                .description("Current catalog version").register(meterRegistry);
+    }
+
+    /**
+     * @return all products, ordered by product ID
+     */
+    public List<ProductDetails> getProducts() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot().products));
+    }
+
+    /**
+     * @return the products between offset (inclusive) and offset + size, ordered by product ID
+     */
+    public List<ProductDetails> getProducts(long offset, int size) {
+        ProductDetails[] products = snapshot().products;
+        int from = (int) Math.min(offset, products.length);
+        int to = (int) Math.min((long) from + size, products.length);
+        return Collections.unmodifiableList(Arrays.asList(products).subList(from, to));
+    }
+
+    /**
+     * @return the requested products by ID; IDs not in the catalog are absent from the map
+     */
+    public Map<String, ProductDetails> getProducts(Collection<String> productIds) {
+        Map<String, ProductDetails> byId = snapshot().byId;
+        Map<String, ProductDetails> products = new HashMap<>();
+        productIds.forEach(productId -> {
+            ProductDetails product = byId.get(productId);
+            if (product != null) {
+                products.put(productId, product);
+            }
+        });
+        return products;
+    }
+
+    /**
+     * Changes whenever the catalog content may have changed
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Drops the snapshot after a product write. Inside a transaction this happens once the transaction commits, so
+     * a concurrent rebuild can never capture the uncommitted state as current.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion();
+                }
+            });
+        } else {
+            bumpVersion();
+        }
+    }
+
+    private void bumpVersion() {
+        long newVersion = version.incrementAndGet();
+        log.info("[Product Catalog] Invalidated, now at version {}", newVersion);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version.get()) {
+            hits.increment();
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            long expectedVersion = version.get();
+            if (current != null && current.version == expectedVersion) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            Snapshot rebuilt = rebuildTimer.record(() -> load(expectedVersion));
+            // An invalidation during the load means the rows read may already be stale: serve them to this
+            // caller only and let the next read rebuild
+            if (version.get() == expectedVersion) {
+                snapshot = rebuilt;
+            }
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot load(long catalogVersion) {
+        List<Products> products = productsRepository.findAll(Sort.by("productId"));
+        ProductDetails[] details = products.stream().map(ProductCatalog::toDetails).toArray(ProductDetails[]::new);
+        log.info("[Product Catalog] Loaded {} products at version {}", details.length, catalogVersion);
+        return new Snapshot(catalogVersion, details);
+    }
+
+    public static ProductDetails toDetails(Products product) {
+        return ProductDetails.builder().
+                productId(product.getProductId())
+                .productName(product.getProductName())
+                .productPrice(product.getProductPrice())
+                .pricePaise(OrderPricing.toPaise(product.getProductPrice()))
+                .productDescription(product.getProductDescription())
+                .status(product.getStatus())
+                .createdBy(product.getCreatedBy())
+                .createdTime(product.getCreatedTime())
+                .updatedBy(product.getUpdatedBy())
+                .updatedTime(product.getUpdatedTime()).build();
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final ProductDetails[] products;
+        private final Map<String, ProductDetails> byId;
+
+        Snapshot(long version, ProductDetails[] products) {
+            this.version = version;
+            this.products = products;
+            Map<String, ProductDetails> index = new HashMap<>(products.length * 2);
+            for (ProductDetails product : products) {
+                index.put(product.getProductId(), product);
+            }
+            this.byId = Collections.unmodifiableMap(index);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.app.milkman.component;
+
+import com.app.milkman.model.ProductDetails;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized product listing responses, keyed by page, size and sort.
+ *
+ * The listing only changes when the product catalog does, so each page is serialized to JSON and gzip-compressed
+ * once per catalog version and then written out as-is. Every entry carries a strong ETag built from a digest of
+ * its JSON, so the tag stays valid across restarts and instances (the catalog version is per process and starts
+ * over at each); the gzip variant has its own ETag, as required for a different content encoding.
+ * Cache statistics are published as the "productResponses" cache metrics.
+ */
+@Slf4j
+@Component
+public class ProductResponseCache {
+
+    static final String GZIP_ETAG_SUFFIX = "-gz";
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.product.response-cache.max-size:256}")
+    private long maxSize;
+
+    private Cache<String, CachedResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productResponses");
+    }
+
+    /**
+     * Returns the serialized listing for a page, loading and serializing it only if the catalog changed since
+     * it was last cached
+     *
+     * @param pageable requested page
+     * @param loader   reads the products of that page
+     * @return the cached response for the current catalog version
+     */
+    public CachedResponse get(Pageable pageable, Supplier<List<ProductDetails>> loader) {
+        String key = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        CachedResponse cached = cache.getIfPresent(key);
+        long version = productCatalog.getVersion();
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+        // The version is read before loading, so a write that lands during the load leaves this entry stale and
+        // the next request reloads it
+        CachedResponse response = serialize(version, loader.get());
+        cache.put(key, response);
+        log.debug("[Product Response Cache] Cached page {} at catalog version {} ({} bytes, {} gzipped)",
+                key, version, response.json.length, response.gzip.length);
+        return response;
+    }
+
+    private CachedResponse serialize(long version, List<ProductDetails> products) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new CachedResponse(version, etag, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product listing", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Getter
+    public static final class CachedResponse {
+
+        private final long version;
+        private final String etag;
+        private final String gzipEtag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        CachedResponse(long version, String etag, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.etag = etag;
+            this.gzipEtag = etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        /**
+         * @return true if an If-None-Match header names either variant of this response
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                // If-None-Match uses weak comparison
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.util.Arrays;
 public class RoleAuthorizationInterceptor implements HandlerInterceptor {
 
     @Autowired
-    private JWTService jwtService;
+    private TokenClaimsCache tokenClaimsCache;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -51,8 +51,8 @@ public class RoleAuthorizationInterceptor implements HandlerInterceptor {
         String token = authHeader.substring(7);
         
         try {
-            // Extract role from token
-            String userRole = jwtService.extractRole(token);
+            // Extract role from token (verified once, then served from the claims cache)
+            String userRole = tokenClaimsCache.getClaims(token).getRole();
             
             if (userRole == null) {
                 userRole = "USER"; // Default to USER if no role in token
@@ -2,28 +2,33 @@ package com.app.milkman.component;
 
 import com.app.milkman.model.ParentResponse;
 import com.app.milkman.model.SMSRequest;
+import com.app.milkman.notification.Notification;
+import com.app.milkman.notification.NotificationChannel;
+import com.app.milkman.notification.NotificationDispatcher;
 import com.app.milkman.utils.Constants;
-import com.twilio.Twilio;
-import com.twilio.type.PhoneNumber;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import com.twilio.rest.api.v2010.account.Message;
 
 @Slf4j
 @Component
 public class SMSComponent {
     @Autowired
-    EncryptDecrypt encryptDecrypt;
+    NotificationDispatcher notificationDispatcher;
 
+    /**
+     * Queues an SMS for asynchronous delivery; the message is sent by the notification dispatcher
+     */
     public ParentResponse sendSMS(SMSRequest smsRequest) {
         log.debug("SMS service invoked for!!! {}", smsRequest);
-        Twilio.init(encryptDecrypt.decrypt(Constants.SMS_SID, Constants.KEY), encryptDecrypt.decrypt(Constants.SMS_TOKEN, Constants.KEY));
-        Message.creator(new PhoneNumber(smsRequest.getToNumber()), new PhoneNumber(Constants.SMS_NUMBER), smsRequest.getTextMessage()).create();
+        boolean accepted = notificationDispatcher.submit(Notification.builder()
+                .channel(NotificationChannel.SMS)
+                .recipient(smsRequest.getToNumber())
+                .body(smsRequest.getTextMessage()).build());
 
         ParentResponse response = new ParentResponse();
-        response.setStatus(Constants.SUCCESS);
-        response.setStatusCode(Constants.SUCCESS_CODE);
+        response.setStatus(accepted ? Constants.SUCCESS : Constants.FAILED);
+        response.setStatusCode(accepted ? Constants.SUCCESS_CODE : Constants.SERVICE_UNAVAILABLE_CODE);
         return response;
     }
 }
@@ -0,0 +1,105 @@
+package com.app.milkman.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup check that the lookup indexes created by the db/migration scripts are present.
+ *
+ * Missing indexes do not stop the application; each one is logged as a warning so a database that was not
+ * migrated (or had an index dropped by hand) is noticed before the hot queries start scanning whole tables.
+ */
+@Slf4j
+@Component
+public class SchemaIndexVerifier {
+
+    static final String SCHEMA = "milkman";
+
+    // Table -> indexes it must carry, as created by the db/migration scripts
+    static final Map<String, List<String>> EXPECTED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        EXPECTED_INDEXES.put("customers", List.of("uq_customers_active_pphone", "uq_customers_active_emailid",
+                "idx_customers_customerid"));
+        EXPECTED_INDEXES.put("orders", List.of("idx_orders_orderdatetime", "idx_orders_customerid_orderdatetime"));
+        EXPECTED_INDEXES.put("subscriptions", List.of("idx_subscriptions_orderdatetime",
+                "idx_subscriptions_customerid_orderdatetime", "idx_subscriptions_active_deliverydaysmask"));
+        EXPECTED_INDEXES.put("product_orders", List.of("idx_product_orders_orderid"));
+        EXPECTED_INDEXES.put("product_subscriptions", List.of("idx_product_subscriptions_subscriptionid"));
+        EXPECTED_INDEXES.put("outbox_events", List.of("idx_outbox_events_pending",
+                "idx_outbox_events_pending_aggregateid"));
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${milkman.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<String> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                log.info("[Schema Check] All {} expected indexes are present",
+                        EXPECTED_INDEXES.values().stream().mapToInt(List::size).sum());
+            }
+            missing.forEach(index -> log.warn("[Schema Check] Missing index: {}", index));
+        } catch (SQLException e) {
+            log.warn("[Schema Check] Could not read index metadata: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return missing indexes as "table.index", in the order of {@link #EXPECTED_INDEXES}
+     */
+    List<String> findMissingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : EXPECTED_INDEXES.entrySet()) {
+                Set<String> present = indexNames(metaData, table.getKey());
+                table.getValue().stream()
+                        .filter(index -> !present.contains(index))
+                        .forEach(index -> missing.add(table.getKey() + "." + index));
+            }
+        }
+        return missing;
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        // Unquoted identifiers are stored lower case by PostgreSQL but upper case by some other databases
+        boolean upperCase = metaData.storesUpperCaseIdentifiers();
+        String schema = upperCase ? SCHEMA.toUpperCase() : SCHEMA;
+        try (ResultSet indexes = metaData.getIndexInfo(null, schema, upperCase ? table.toUpperCase() : table,
+                false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase());
+                }
+            }
+        }
+        return names;
+    }
+}
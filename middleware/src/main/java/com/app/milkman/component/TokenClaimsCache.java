@@ -0,0 +1,92 @@
+package com.app.milkman.component;
+
+import com.app.milkman.model.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of verified access token claims, keyed by a SHA-256 digest of the token.
+ *
+ * A token is verified and parsed once and then served from memory until its own expiry, at which point the entry
+ * is evicted. Tokens that fail verification are never cached. Hit, miss and eviction counts are published as the
+ * "jwtClaims" cache metrics.
+ */
+@Component
+public class TokenClaimsCache {
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.jwt.claims-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, TokenClaims> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtClaims");
+    }
+
+    /**
+     * Returns the claims of a valid access token, verifying it only on the first request
+     *
+     * @param token signed access token (without the "Bearer " prefix)
+     * @return verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public TokenClaims getClaims(String token) {
+        return cache.get(digest(token), key -> jwtService.parseToken(token));
+    }
+
+    /**
+     * Expires each entry at the "exp" claim of its token
+     */
+    private static class TokenExpiry implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String digest, TokenClaims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.milkman.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that pin their carrier thread.
+ *
+ * A virtual thread that blocks inside a synchronized block or a native frame cannot unmount, so it holds one of
+ * the few carrier threads for as long as it waits. The JDK emits a jdk.VirtualThreadPinned JFR event for every
+ * pin longer than the threshold; this component streams those events in-process, records them in the
+ * jvm.threads.virtual.pinned timer and logs the stack of each distinct pinning site once. Only active with
+ * spring.threads.virtual.enabled, and only on Java 21+, where the event exists.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Stack frames logged per pinning site, and distinct sites logged before only the timer keeps counting
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_SITES = 100;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.threads.pinning.threshold:20ms}")
+    private Duration threshold;
+
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private Timer pinned;
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("[Virtual Threads] Virtual threads need Java 21, running on Java {}; pinning is not monitored",
+                    Runtime.version().feature());
+            return;
+        }
+        pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("[Virtual Threads] Monitoring carrier thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String site = frames.stream().limit(LOGGED_FRAMES)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining());
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            log.warn("[Virtual Threads] Carrier thread pinned for {} ms{}", event.getDuration().toMillis(), site);
+        }
+    }
+}
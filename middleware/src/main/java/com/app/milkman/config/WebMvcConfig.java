@@ -1,6 +1,8 @@
 package com.app.milkman.config;
 
 import com.app.milkman.component.RoleAuthorizationInterceptor;
+import com.app.milkman.metrics.RequestDbMetricsInterceptor;
+import com.app.milkman.metrics.SqlBudgetInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -12,8 +14,22 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private RoleAuthorizationInterceptor roleAuthorizationInterceptor;
 
+    @Autowired
+    private RequestDbMetricsInterceptor requestDbMetricsInterceptor;
+
+    @Autowired
+    private SqlBudgetInterceptor sqlBudgetInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // First, so its afterCompletion also runs for requests the authorization check rejects
+        registry.addInterceptor(requestDbMetricsInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/actuator/**");
+        // Second, so its afterCompletion runs while the request's database stats are still open
+        registry.addInterceptor(sqlBudgetInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/actuator/**");
         registry.addInterceptor(roleAuthorizationInterceptor)
                 .addPathPatterns("/**")
                 .excludePathPatterns(
@@ -2,6 +2,7 @@ package com.app.milkman.controller;
 
 import com.app.milkman.component.RequireRole;
 import com.app.milkman.entity.Customers;
+import com.app.milkman.metrics.SqlBudget;
 import com.app.milkman.model.CustomerAuthRequest;
 import com.app.milkman.model.CustomerAuthResponse;
 import com.app.milkman.model.CustomerRegRequest;
@@ -37,6 +38,7 @@ public class CustomerController {
         return customerService.registerCustomer(custReg);
     }
 
+    @SqlBudget(statements = 3)
     @PostMapping("/authenticate")
     public CustomerAuthResponse authenticate(@RequestBody CustomerAuthRequest authRequest) {
         log.info("[Authentication Request] Authentication endpoint invoked for user: {}", 
@@ -62,6 +64,7 @@ public class CustomerController {
         return customers;
     }
 
+    @SqlBudget(statements = 3)
     @GetMapping("/{customerId}")
     public Customers getCustomerById(@PathVariable String customerId) {
         log.info("[Customer View] Fetching customer details for ID: {}", customerId);
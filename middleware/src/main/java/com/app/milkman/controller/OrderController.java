@@ -1,15 +1,28 @@
 package com.app.milkman.controller;
 
-import com.app.milkman.component.JWTService;
+import com.app.milkman.component.RequireRole;
+import com.app.milkman.component.TokenClaimsCache;
+import com.app.milkman.metrics.SqlBudget;
+import com.app.milkman.model.CursorPage;
 import com.app.milkman.model.OrderDetails;
+import com.app.milkman.model.OrderImportFormat;
+import com.app.milkman.model.OrderImportResponse;
 import com.app.milkman.model.OrderRegRequest;
 import com.app.milkman.model.OrderRegResponse;
+import com.app.milkman.model.TokenClaims;
+import com.app.milkman.service.OrderImportService;
 import com.app.milkman.service.OrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,12 +30,18 @@ import java.util.List;
 @RequestMapping("/order")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private OrderService orderService;
     
     @Autowired
-    private JWTService jwtService;
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private TokenClaimsCache tokenClaimsCache;
 
+    @SqlBudget(statements = 10)
     @PostMapping("/create")
     public OrderRegResponse createOrder(@RequestBody OrderRegRequest orderReq) {
         log.info("[Order Creation Request] Order creation endpoint invoked for customer: {}", 
@@ -31,25 +50,69 @@ public class OrderController {
         return orderService.createOrder(orderReq);
     }
 
+    /**
+     * Creates orders in bulk from a CSV (text/csv) or NDJSON (application/x-ndjson) body, one order line per row.
+     *
+     * The body is streamed rather than bound, so large files are never held in memory. The response reports the
+     * outcome of every row; rows of orders that were not imported carry the reason.
+     */
+    @RequireRole({"ADMIN"})
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public OrderImportResponse importOrders(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) throws IOException {
+        OrderImportFormat format = OrderImportFormat.fromContentType(contentType);
+        log.info("[Order Import Request] Bulk order import endpoint invoked with {} body", format);
+
+        return orderImportService.importOrders(body, format);
+    }
+
+    /**
+     * Lists orders page by page.
+     *
+     * Without a cursor parameter this is the offset mode driven by page/size/sort. With one (empty for the first
+     * page) it switches to keyset mode: newest orders first, page size from the size parameter, and the token for
+     * the following page returned in the X-Next-Cursor header (absent on the last page).
+     */
+    @SqlBudget(statements = 5)
     @GetMapping("/getAllOrders")
-    public List<OrderDetails> getAllOrders(@RequestHeader("Authorization") String authHeader,
-                                          Pageable pageable) {
-        String token = authHeader.substring(7);
-        String role = jwtService.extractRole(token);
-        String phoneNo = jwtService.extractPhoneNo(token);
+    public ResponseEntity<List<OrderDetails>> getAllOrders(@RequestHeader("Authorization") String authHeader,
+                                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                                           Pageable pageable) {
+        TokenClaims claims = tokenClaimsCache.getClaims(authHeader.substring(7));
+        String role = claims.getRole();
+        String phoneNo = claims.getPhoneNo();
         
         log.info("[Order List Request] Get all orders endpoint invoked by role: {} (Page: {}, Size: {})",
                  role, pageable.getPageNumber(), pageable.getPageSize());
         
+        boolean admin = "ADMIN".equalsIgnoreCase(role);
+        if (cursor != null) {
+            CursorPage<OrderDetails> page;
+            try {
+                page = admin
+                        ? orderService.getAllOrders(cursor, pageable.getPageSize())
+                        : orderService.getAllOrdersByPhone(phoneNo, cursor, pageable.getPageSize());
+            } catch (IllegalArgumentException e) {
+                log.warn("[Order List Request] Rejected invalid cursor: {}", cursor);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getContent());
+        }
+
         // If role is ADMIN, return all orders; otherwise return only customer's orders
-        if ("ADMIN".equalsIgnoreCase(role)) {
-            return orderService.getAllOrders(pageable);
+        if (admin) {
+            return ResponseEntity.ok(orderService.getAllOrders(pageable));
         } else {
             log.info("[Order List Request] Filtering orders for customer: {}", phoneNo);
-            return orderService.getAllOrdersByPhone(phoneNo, pageable);
+            return ResponseEntity.ok(orderService.getAllOrdersByPhone(phoneNo, pageable));
         }
     }
 
+    @SqlBudget(statements = 5)
     @GetMapping("/getAllOrders/{customerId}")
     public List<OrderDetails> getAllOrdersByCustomerId(@PathVariable("customerId") String customerId,
                                                        Pageable pageable) {
@@ -65,6 +128,7 @@ public class OrderController {
         orderService.deleteOrder(orderId);
     }
     
+    @SqlBudget(statements = 10)
     @PutMapping("/update")
     public OrderRegResponse updateOrder(@RequestBody OrderRegRequest orderReq,
                                        @RequestHeader("Authorization") String authHeader) {
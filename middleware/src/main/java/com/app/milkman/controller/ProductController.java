@@ -1,17 +1,21 @@
 package com.app.milkman.controller;
 
+import com.app.milkman.component.ProductResponseCache;
 import com.app.milkman.component.RequireRole;
-import com.app.milkman.model.ProductDetails;
+import com.app.milkman.metrics.SqlBudget;
 import com.app.milkman.model.ProductRegRequest;
 import com.app.milkman.model.ProductRegResponse;
 import com.app.milkman.service.ProductService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RequestMapping("/product")
 @Slf4j
 @RestController
@@ -20,6 +24,9 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
     @RequireRole({"ADMIN"})
     @PostMapping("/register")
     public ProductRegResponse registerProduct(@RequestBody ProductRegRequest productReg) {
@@ -38,11 +45,62 @@ public class ProductController {
         return productService.updateProduct(productReg);
     }
 
+    /**
+     * Product listing served from pre-serialized bytes. Clients that send the ETag of their copy back in
+     * If-None-Match get a 304 until the catalog changes; clients accepting gzip get the precompressed variant.
+     */
+    @SqlBudget(statements = 3)
     @GetMapping("/getProducts")
-    public List<ProductDetails> getAllProducts(Pageable pageable) {
+    public ResponseEntity<byte[]> getAllProducts(Pageable pageable,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("[Product List Request] Get all products endpoint invoked (Page: {}, Size: {})",
                  pageable.getPageNumber(), pageable.getPageSize());
-        
-        return productService.getAllProducts(pageable);
+
+        ProductResponseCache.CachedResponse response =
+                productResponseCache.get(pageable, () -> productService.getAllProducts(pageable));
+        boolean gzip = acceptsGzip(acceptEncoding);
+        boolean notModified = response.matches(ifNoneMatch);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(gzip ? response.getGzipEtag() : response.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            log.debug("[Product List Request] Catalog unchanged, returning 304");
+            return builder.build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(gzip ? response.getGzip() : response.getJson());
+    }
+
+    /**
+     * True if Accept-Encoding lists gzip (or x-gzip) without refusing it through q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equalsIgnoreCase("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
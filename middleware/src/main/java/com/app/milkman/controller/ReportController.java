@@ -0,0 +1,102 @@
+package com.app.milkman.controller;
+
+import com.app.milkman.component.RequireRole;
+import com.app.milkman.model.PinCodeSales;
+import com.app.milkman.model.ProductSales;
+import com.app.milkman.model.SalesReconcileResponse;
+import com.app.milkman.model.SalesReport;
+import com.app.milkman.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales reports over a range of order dates, both ends included. Without parameters the range is the last 30
+ * days up to today.
+ */
+@RestController
+@Slf4j
+@RequestMapping("/report")
+public class ReportController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    @Autowired
+    private ReportService reportService;
+
+    /**
+     * Orders, revenue and litres per day and for the whole range
+     */
+    @RequireRole({"ADMIN"})
+    @GetMapping("/sales")
+    public SalesReport getSales(@RequestParam(value = "from", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam(value = "to", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = endOf(to);
+        LocalDate start = startOf(from, end);
+        log.info("[Sales Report Request] Sales endpoint invoked for {} to {}", start, end);
+
+        return reportService.getSales(start, end);
+    }
+
+    @RequireRole({"ADMIN"})
+    @GetMapping("/products")
+    public List<ProductSales> getProductSales(@RequestParam(value = "from", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(value = "to", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = endOf(to);
+        LocalDate start = startOf(from, end);
+        log.info("[Sales Report Request] Product sales endpoint invoked for {} to {}", start, end);
+
+        return reportService.getProductSales(start, end);
+    }
+
+    @RequireRole({"ADMIN"})
+    @GetMapping("/pincodes")
+    public List<PinCodeSales> getPinCodeSales(@RequestParam(value = "from", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(value = "to", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = endOf(to);
+        LocalDate start = startOf(from, end);
+        log.info("[Sales Report Request] Pin code sales endpoint invoked for {} to {}", start, end);
+
+        return reportService.getPinCodeSales(start, end);
+    }
+
+    /**
+     * Rebuilds the rollups of the range from the orders, as the nightly job does for the last days
+     */
+    @RequireRole({"ADMIN"})
+    @PostMapping("/reconcile")
+    public SalesReconcileResponse reconcile(@RequestParam(value = "from", required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(value = "to", required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = endOf(to);
+        LocalDate start = startOf(from, end);
+        log.info("[Sales Reconcile Request] Reconcile endpoint invoked for {} to {}", start, end);
+
+        return reportService.reconcile(start, end);
+    }
+
+    private static LocalDate endOf(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+
+    private static LocalDate startOf(LocalDate from, LocalDate end) {
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1L);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return start;
+    }
+}
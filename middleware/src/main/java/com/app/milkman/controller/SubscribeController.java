@@ -1,14 +1,22 @@
 package com.app.milkman.controller;
 
-import com.app.milkman.component.JWTService;
+import com.app.milkman.component.RequireRole;
+import com.app.milkman.component.TokenClaimsCache;
+import com.app.milkman.metrics.SqlBudget;
 import com.app.milkman.model.*;
+import com.app.milkman.service.DeliveryManifestService;
 import com.app.milkman.service.OrderService;
 import com.app.milkman.service.SubscribeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,8 +28,12 @@ public class SubscribeController {
     private SubscribeService subscribeService;
 
     @Autowired
-    private JWTService jwtService;
+    private DeliveryManifestService deliveryManifestService;
 
+    @Autowired
+    private TokenClaimsCache tokenClaimsCache;
+
+    @SqlBudget(statements = 8)
     @PostMapping("/create")
     public SubscribeResponse createOrder(@RequestBody SubscribeRequest subscribeRequest) {
         log.info("[Subscription Creation Request] Subscription endpoint invoked for customer: {}", 
@@ -30,17 +42,41 @@ public class SubscribeController {
         return subscribeService.subscribe(subscribeRequest);
     }
 
+    /**
+     * Lists subscriptions page by page; see {@link OrderController#getAllOrders} for the offset and cursor modes
+     */
+    @SqlBudget(statements = 5)
     @GetMapping("/getAllSubscriptions")
-    public List<SubscriptionDetails> getAllOrders(@RequestHeader("Authorization") String authHeader, Pageable pageable) {
-        String token = authHeader.substring(7);
-        String role = jwtService.extractRole(token);
-        String phoneNo = jwtService.extractPhoneNo(token);
+    public ResponseEntity<List<SubscriptionDetails>> getAllOrders(@RequestHeader("Authorization") String authHeader,
+                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                  Pageable pageable) {
+        TokenClaims claims = tokenClaimsCache.getClaims(authHeader.substring(7));
+        String role = claims.getRole();
+        String phoneNo = claims.getPhoneNo();
         
         log.info("[Subscription List Request] Get all subscriptions endpoint invoked (Role: {}, Page: {}, Size: {})",
                  role, pageable.getPageNumber(), pageable.getPageSize());
         
+        boolean admin = "ADMIN".equalsIgnoreCase(role);
+        if (cursor != null) {
+            CursorPage<SubscriptionDetails> page;
+            try {
+                page = admin
+                        ? subscribeService.getAllOrders(cursor, pageable.getPageSize())
+                        : subscribeService.getAllSubscriptionsByPhone(phoneNo, cursor, pageable.getPageSize());
+            } catch (IllegalArgumentException e) {
+                log.warn("[Subscription List Request] Rejected invalid cursor: {}", cursor);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(OrderController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getContent());
+        }
+
         List<SubscriptionDetails> subscriptions;
-        if ("ADMIN".equalsIgnoreCase(role)) {
+        if (admin) {
             subscriptions = subscribeService.getAllOrders(pageable);
         } else {
             subscriptions = subscribeService.getAllSubscriptionsByPhone(phoneNo, pageable);
@@ -50,9 +86,10 @@ public class SubscribeController {
             log.info("[Subscription List Response] Retrieved {} subscriptions for role: {}", 
                      subscriptions.size(), role);
         }
-        return subscriptions;
+        return ResponseEntity.ok(subscriptions);
     }
 
+    @SqlBudget(statements = 5)
     @GetMapping("/getAllSubscriptions/{customerId}")
     public List<SubscriptionDetails> getAllOrdersByCustomerId(@PathVariable("customerId") String customerId,
                                                               Pageable pageable) {
@@ -62,6 +99,21 @@ public class SubscribeController {
         return subscribeService.getAllSubscriptionsByCustomerId(customerId, pageable);
     }
 
+    /**
+     * Products to load per pin code and time slot for the subscription deliveries of a date (tomorrow by default)
+     */
+    @RequireRole({"ADMIN"})
+    @SqlBudget(statements = 3)
+    @GetMapping("/manifest")
+    public DeliveryManifest getManifest(@RequestParam(value = "date", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate deliveryDate = date != null ? date : LocalDate.now().plusDays(1);
+        log.info("[Delivery Manifest Request] Manifest endpoint invoked for {}", deliveryDate);
+
+        return deliveryManifestService.getManifest(deliveryDate);
+    }
+
+    @SqlBudget(statements = 8)
     @PutMapping("/update")
     public SubscribeResponse updateSubscription(@RequestBody SubscribeRequest subscribeRequest,
                                                 @RequestHeader("Authorization") String authHeader) {
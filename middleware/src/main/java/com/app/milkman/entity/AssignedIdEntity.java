@@ -0,0 +1,32 @@
+package com.app.milkman.entity;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Base for entities whose String ID is assigned by the application (a UUID) rather than by the database.
+ *
+ * Spring Data considers an entity with a non-null ID to be existing, so save() would merge it and select the
+ * row first. Tracking whether the entity was loaded or persisted lets save() insert new rows directly, which also
+ * keeps their inserts eligible for JDBC batching.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<String> {
+
+    @Transient
+    private transient boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.app.milkman.entity;
+
+import lombok.Data;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Notification that could not be delivered within the configured number of attempts
+ */
+@Data
+@Entity
+@Table(name = "notification_dead_letters", schema = "milkman")
+public class NotificationDeadLetter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "channel", nullable = false)
+    private String channel;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "body", length = 4000)
+    private String body;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lasterror", length = 1000)
+    private String lastError;
+
+    @Column(name = "createdtime", nullable = false)
+    private LocalDateTime createdTime;
+}
@@ -0,0 +1,49 @@
+package com.app.milkman.entity;
+
+import lombok.Data;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders of one sales day and pin code, kept next to {@link SalesRollup} so order counts and totals including
+ * delivery charges do not have to be derived from the per-product rows
+ */
+@Data
+@Entity
+@IdClass(OrderRollup.Key.class)
+@Table(name = "order_rollup", schema = "milkman")
+public class OrderRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Date part of the order's orderdatetime
+    @Id
+    @Column(name = "salesdate", nullable = false)
+    private LocalDate salesDate;
+
+    // Empty for orders without a pin code
+    @Id
+    @Column(name = "pincode", nullable = false)
+    private String pinCode;
+
+    @Column(name = "ordercount", nullable = false)
+    private long orderCount;
+
+    @Column(name = "ordertotal", nullable = false)
+    private BigDecimal orderTotal;
+
+    @Column(name = "deliverycharge", nullable = false)
+    private BigDecimal deliveryCharge;
+
+    @Data
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate salesDate;
+        private String pinCode;
+    }
+}
@@ -1,6 +1,7 @@
 package com.app.milkman.entity;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -13,9 +14,14 @@ import java.util.List;
  * $table.getTableComment()
  */
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
-@Table(name = "orders", schema = "milkman")
-public class Orders implements Serializable {
+@Table(name = "orders", schema = "milkman", indexes = {
+        // Keyset listings: newest first, optionally within one customer
+        @Index(name = "idx_orders_orderdatetime", columnList = "orderdatetime DESC, orderid DESC"),
+        @Index(name = "idx_orders_customerid_orderdatetime", columnList = "customerid, orderdatetime DESC, orderid DESC")
+})
+public class Orders extends AssignedIdEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -83,4 +89,8 @@ public class Orders implements Serializable {
     @OneToMany(mappedBy = "orders", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
     private List<ProductOrders> productOrders;
 
+    @Override
+    public String getId() {
+        return orderId;
+    }
 }
@@ -0,0 +1,57 @@
+package com.app.milkman.entity;
+
+import com.app.milkman.outbox.OutboxEventType;
+import lombok.Data;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Order or subscription event recorded in the same transaction as the change it describes, waiting to be relayed
+ * to the in-process listeners
+ */
+@Data
+@Entity
+@Table(name = "outbox_events", schema = "milkman")
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String PENDING = "PENDING";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "eventtype", nullable = false)
+    private OutboxEventType eventType;
+
+    // Order or subscription ID
+    @Column(name = "aggregateid", nullable = false)
+    private String aggregateId;
+
+    // JSON, one entry per order or subscription line, so unbounded
+    @Column(name = "payload", columnDefinition = "text")
+    private String payload;
+
+    // PENDING until delivered (the row is then deleted), FAILED once all attempts are used up
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lasterror", length = 1000)
+    private String lastError;
+
+    @Column(name = "createdtime", nullable = false)
+    private LocalDateTime createdTime;
+
+    // Not relayed before this time; pushed back after a failed delivery
+    @Column(name = "availabletime", nullable = false)
+    private LocalDateTime availableTime;
+}
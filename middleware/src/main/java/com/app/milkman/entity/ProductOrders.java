@@ -1,6 +1,7 @@
 package com.app.milkman.entity;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -11,9 +12,10 @@ import java.time.LocalDateTime;
  * $table.getTableComment()
  */
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
 @Table(name = "product_orders", schema = "milkman")
-public class ProductOrders implements Serializable {
+public class ProductOrders extends AssignedIdEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -53,4 +55,8 @@ public class ProductOrders implements Serializable {
     @Column(name = "status")
     private String status;
 
+    @Override
+    public String getId() {
+        return productOrderId;
+    }
 }
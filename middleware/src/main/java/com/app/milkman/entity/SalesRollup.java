@@ -0,0 +1,56 @@
+package com.app.milkman.entity;
+
+import lombok.Data;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order lines of one sales day, product and pin code, added up as orders are placed, updated and deleted and
+ * rebuilt by the nightly reconcile job
+ */
+@Data
+@Entity
+@IdClass(SalesRollup.Key.class)
+@Table(name = "sales_rollup", schema = "milkman")
+public class SalesRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Date part of the order's orderdatetime
+    @Id
+    @Column(name = "salesdate", nullable = false)
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "productid", nullable = false)
+    private String productId;
+
+    // Empty for orders without a pin code
+    @Id
+    @Column(name = "pincode", nullable = false)
+    private String pinCode;
+
+    // Orders with at least one line of the product
+    @Column(name = "ordercount", nullable = false)
+    private long orderCount;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    // Sum of line price times quantity
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Data
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate salesDate;
+        private String productId;
+        private String pinCode;
+    }
+}
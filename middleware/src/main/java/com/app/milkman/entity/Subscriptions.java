@@ -1,6 +1,7 @@
 package com.app.milkman.entity;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -13,9 +14,14 @@ import java.util.List;
  * $table.getTableComment()
  */
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Entity
-@Table(name = "subscriptions", schema = "milkman")
-public class Subscriptions implements Serializable {
+@Table(name = "subscriptions", schema = "milkman", indexes = {
+        // Keyset listings: newest first, optionally within one customer
+        @Index(name = "idx_subscriptions_orderdatetime", columnList = "orderdatetime DESC, subscriptionid DESC"),
+        @Index(name = "idx_subscriptions_customerid_orderdatetime", columnList = "customerid, orderdatetime DESC, subscriptionid DESC")
+})
+public class Subscriptions extends AssignedIdEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -62,6 +68,10 @@ public class Subscriptions implements Serializable {
     @Column(name = "deliverydays")
     private String deliveryDays;
 
+    // deliveryDays as a DeliveryDays bitmask, kept in sync by the service layer
+    @Column(name = "deliverydaysmask", nullable = false)
+    private Short deliveryDaysMask;
+
     @Column(name = "orderstatus")
     private String orderStatus;
 
@@ -88,4 +98,8 @@ public class Subscriptions implements Serializable {
     @OneToMany(mappedBy = "subscriptions", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
     private List<ProductSubscriptions> productSubscriptions;
 
+    @Override
+    public String getId() {
+        return subscriptionId;
+    }
 }
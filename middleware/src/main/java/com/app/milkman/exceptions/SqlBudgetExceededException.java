@@ -0,0 +1,11 @@
+package com.app.milkman.exceptions;
+
+/**
+ * A request prepared more SQL statements than the @SqlBudget of its handler, with milkman.http.sql-budget.strict on.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
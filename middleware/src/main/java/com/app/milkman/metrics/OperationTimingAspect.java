@@ -0,0 +1,83 @@
+package com.app.milkman.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observes every service and repository call.
+ *
+ * Public methods of the service implementations become milkman.service observations, calls through the Spring Data
+ * repositories and JdbcTemplate milkman.repository observations, both tagged with class and method. Micrometer's
+ * default handler turns each into a timer with an error tag (percentile histograms are enabled in application.yml)
+ * and a .active long task timer. Time in repository calls also adds up to the DB time of the current request, see
+ * {@link RequestDbStats}.
+ */
+@Aspect
+@Component
+public class OperationTimingAspect {
+
+    static final String SERVICE = "milkman.service";
+    static final String REPOSITORY = "milkman.repository";
+
+    private static final String REPOSITORY_PACKAGE = "com.app.milkman.repository.";
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // Repository interface name per Spring Data proxy class
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.app.milkman.service.impl.*.*(..))")
+    public Object observeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(SERVICE, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "|| execution(* org.springframework.jdbc.core.JdbcOperations+.*(..))")
+    public Object observeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats == null) {
+            return observe(REPOSITORY, repositoryName(joinPoint.getTarget()), joinPoint);
+        }
+        stats.enterDbCall();
+        long started = System.nanoTime();
+        try {
+            return observe(REPOSITORY, repositoryName(joinPoint.getTarget()), joinPoint);
+        } finally {
+            stats.exitDbCall(System.nanoTime() - started);
+        }
+    }
+
+    private Object observe(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .lowCardinalityKeyValue("class", className)
+                .lowCardinalityKeyValue("method", joinPoint.getSignature().getName())
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // Inherited methods such as save are declared on CrudRepository, so the name comes from the proxy's interfaces
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> Arrays.stream(type.getInterfaces())
+                .filter(candidate -> candidate.getName().startsWith(REPOSITORY_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(type.getSimpleName()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.milkman.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the database work of every request, tagged like http.server.requests (method and URI pattern):
+ * milkman.http.db.statements, the SQL statements it sent, and milkman.http.db.time, the time it spent
+ * in repository and JdbcTemplate calls. Their ratio to http.server.requests is the request's DB-time share.
+ */
+@Component
+public class RequestDbMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDbStats.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestDbStats stats = RequestDbStats.end();
+        if (stats == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("milkman.http.db.statements")
+                .description("SQL statements prepared per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("milkman.http.db.time")
+                .description("Time per HTTP request spent in repository and JdbcTemplate calls")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The response completes on another thread; drop this thread's stats rather than leak them
+        RequestDbStats.end();
+    }
+}
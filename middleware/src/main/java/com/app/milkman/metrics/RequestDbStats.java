@@ -0,0 +1,68 @@
+package com.app.milkman.metrics;
+
+/**
+ * Database work of the HTTP request running on the current thread: SQL statements sent (see
+ * {@link StatementCountingDataSource}) and time spent in repository and JdbcTemplate calls.
+ *
+ * {@link RequestDbMetricsInterceptor} opens the stats before the handler and records them after completion, and
+ * {@link SqlBudgetInterceptor} checks them against the handler's budget; outside a request (scheduled jobs, the
+ * outbox relay) there are none and nothing is collected.
+ */
+public final class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos = System.nanoTime();
+    private int statements;
+    private long dbTimeNanos;
+    // Nesting of timed database calls, so a repository method calling another one is counted once
+    private int depth;
+
+    private RequestDbStats() {
+    }
+
+    static RequestDbStats begin() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestDbStats end() {
+        RequestDbStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * @return the stats of the current request, or null outside a request
+     */
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void enterDbCall() {
+        depth++;
+    }
+
+    void exitDbCall(long elapsedNanos) {
+        if (--depth == 0) {
+            dbTimeNanos += elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.milkman.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements one request to the handler may prepare, whatever the size of the data it reads; a budget
+ * that only holds for small pages hides an N+1. On a controller class it applies to every handler without its own.
+ * Checked by {@link SqlBudgetInterceptor}.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    int statements();
+}
@@ -0,0 +1,116 @@
+package com.app.milkman.metrics;
+
+import com.app.milkman.exceptions.SqlBudgetExceededException;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow-request and N+1 detector.
+ *
+ * After each request it adds the request's SQL statement count and DB time (see {@link RequestDbStats}) to its
+ * http.server.requests observation, so traces carry them. Requests that prepared more statements than their
+ * handler's {@link SqlBudget}, or than milkman.http.sql-budget.default-statements without one, are logged and
+ * counted in milkman.http.sql.budget.exceeded; requests slower than milkman.http.slow-request-threshold in
+ * milkman.http.slow.requests. With milkman.http.sql-budget.strict (the test profile) a handler exceeding its
+ * annotated budget fails with {@link SqlBudgetExceededException} instead, so integration tests catch new N+1s;
+ * {@link SqlBudgetResponseBuffer} keeps the response uncommitted until then, so real HTTP clients see the failure.
+ *
+ * Must be registered after {@link RequestDbMetricsInterceptor}, whose afterCompletion ends the stats.
+ */
+@Slf4j
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.http.sql-budget.default-statements:100}")
+    private int defaultStatements;
+
+    @Value("${milkman.http.sql-budget.strict:false}")
+    private boolean strict;
+
+    @Value("${milkman.http.slow-request-threshold:1s}")
+    private Duration slowRequestThreshold;
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // The response body is written by now (to SqlBudgetResponseBuffer in strict mode, so it is not yet
+        // committed), so this is the request's final count
+        RequestDbStats stats = RequestDbStats.current();
+        SqlBudget budget = budget(handler);
+        if (strict && stats != null && budget != null && stats.getStatements() > budget.statements()) {
+            throw new SqlBudgetExceededException(String.format("%s %s prepared %d SQL statements, its @SqlBudget "
+                    + "allows %d", request.getMethod(), uri(request), stats.getStatements(), budget.statements()));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats == null) {
+            return;
+        }
+        long dbTimeMs = TimeUnit.NANOSECONDS.toMillis(stats.getDbTimeNanos());
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context
+                .addHighCardinalityKeyValue(KeyValue.of("db.statements", String.valueOf(stats.getStatements())))
+                .addHighCardinalityKeyValue(KeyValue.of("db.time.ms", String.valueOf(dbTimeMs))));
+
+        SqlBudget budget = budget(handler);
+        int allowed = budget != null ? budget.statements() : defaultStatements;
+        if (stats.getStatements() > allowed) {
+            log.warn("[SQL Budget] {} {} prepared {} SQL statements, budget {} ({} ms in the database)",
+                    request.getMethod(), uri(request), stats.getStatements(), allowed, dbTimeMs);
+            counter("milkman.http.sql.budget.exceeded", "HTTP requests that prepared more SQL statements than "
+                    + "their budget", request).increment();
+        }
+        long elapsed = stats.getElapsedNanos();
+        if (elapsed > slowRequestThreshold.toNanos()) {
+            log.warn("[Slow Request] {} {} took {} ms, {} SQL statements, {} ms in the database",
+                    request.getMethod(), uri(request), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    stats.getStatements(), dbTimeMs);
+            counter("milkman.http.slow.requests", "HTTP requests slower than the slow-request threshold", request)
+                    .increment();
+        }
+    }
+
+    private static SqlBudget budget(Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return null;
+        }
+        SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+        return budget != null ? budget
+                : AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), SqlBudget.class);
+    }
+
+    private Counter counter(String name, String description, HttpServletRequest request) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri(request))
+                .register(meterRegistry);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.milkman.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Holds response bodies back until the handler has completed, with milkman.http.sql-budget.strict on.
+ *
+ * A @ResponseBody is written before {@link SqlBudgetInterceptor} sees the final statement count, so without the
+ * buffer the response is already committed and a client outside MockMvc (TestRestTemplate, the automation tests)
+ * still gets the full 200. Buffered, the over-budget failure reaches the container and becomes a 500. Whole
+ * responses are held in memory, so this is for test environments only.
+ */
+@Component
+@ConditionalOnProperty(name = "milkman.http.sql-budget.strict", havingValue = "true")
+public class SqlBudgetResponseBuffer extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // An async dispatch continues the response wrapped on the initial dispatch
+        ContentCachingResponseWrapper buffered =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (buffered == null) {
+            buffered = new ContentCachingResponseWrapper(response);
+        }
+        chain.doFilter(request, buffered);
+        // Not reached when the budget check threw, so the buffered body is dropped with the error
+        if (!isAsyncStarted(request)) {
+            buffered.copyBodyToResponse();
+        }
+    }
+}
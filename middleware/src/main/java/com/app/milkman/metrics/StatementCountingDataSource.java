@@ -0,0 +1,85 @@
+package com.app.milkman.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts the SQL statements the current request sends (see {@link RequestDbStats}), through Hibernate, JdbcTemplate
+ * or plain JDBC alike.
+ *
+ * Wraps every DataSource bean, so all connections handed out pass through it. A prepared or callable statement
+ * counts once when it is prepared, so a JDBC batch counts once; a plain Statement counts once per execution.
+ */
+@Component
+public class StatementCountingDataSource implements BeanPostProcessor {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private static void statementSent() {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Set<String> countedMethods) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (countedMethods.contains(method.getName())) {
+                        statementSent();
+                    }
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                        return proxy(Statement.class, statement, EXECUTE_METHODS);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, obtainTargetDataSource().getConnection(), PREPARE_METHODS);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password),
+                    PREPARE_METHODS);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CursorPage<T> {
+
+    private List<T> content;
+    // Null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class DeliveryManifest {
+
+    private LocalDate deliveryDate;
+    // Subscriptions with a delivery on that date
+    private long subscriptions;
+    // One entry per pin code and time slot, sorted by both
+    private List<DeliveryManifestGroup> groups;
+}
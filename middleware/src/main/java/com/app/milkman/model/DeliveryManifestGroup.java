@@ -0,0 +1,17 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DeliveryManifestGroup {
+
+    private String pinCode;
+    private String deliveryTimeSlot;
+    private long subscriptions;
+    // Total quantity per product, sorted by product ID
+    private List<DeliveryManifestItem> products;
+}
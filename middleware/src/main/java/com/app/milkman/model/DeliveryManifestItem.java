@@ -0,0 +1,13 @@
+package com.app.milkman.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeliveryManifestItem {
+
+    private String productId;
+    private String productName;
+    private long quantity;
+}
@@ -0,0 +1,30 @@
+package com.app.milkman.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Body formats accepted by the bulk order import
+ */
+public enum OrderImportFormat {
+
+    // Header row with the OrderImportRow field names, then one order line per row
+    CSV("text/csv"),
+    // One OrderImportRow JSON object per line
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    OrderImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public static OrderImportFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (OrderImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
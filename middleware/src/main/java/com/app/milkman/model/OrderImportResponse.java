@@ -0,0 +1,16 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class OrderImportResponse extends ParentResponse {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private long ordersCreated;
+    private List<OrderImportRowResult> results;
+}
@@ -0,0 +1,27 @@
+package com.app.milkman.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+/**
+ * One order line of a bulk import, as read from a CSV row or an NDJSON object.
+ *
+ * Values are kept as text so that a malformed cell is reported against its row instead of failing the whole import.
+ * Consecutive rows with the same orderRef make up one order; a row without an orderRef is an order on its own.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"orderRef", "customerId", "productId", "quantity", "deliveryDate", "deliveryTimeSlot",
+        "deliveryFrequency", "deliveryCharge"})
+public class OrderImportRow {
+
+    private String orderRef;
+    private String customerId;
+    private String productId;
+    private String quantity;
+    private String deliveryDate;
+    private String deliveryTimeSlot;
+    private String deliveryFrequency;
+    private String deliveryCharge;
+}
@@ -0,0 +1,19 @@
+package com.app.milkman.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderImportRowResult {
+
+    // 1-based position of the row in the input, not counting the CSV header
+    private long row;
+    private String orderRef;
+    // Set when the row was imported
+    private String orderId;
+    private String status;
+    private String errorMsg;
+}
@@ -0,0 +1,18 @@
+package com.app.milkman.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class PinCodeSales {
+
+    // Empty for orders without a pin code
+    private String pinCode;
+    private long orders;
+    // Order totals, delivery charges included
+    private BigDecimal revenue;
+    private long litres;
+}
@@ -1,5 +1,6 @@
 package com.app.milkman.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 
@@ -19,4 +20,7 @@ public class ProductDetails {
     private String updatedBy;
     private LocalDateTime updatedTime;
     private String status;
+    // Price in paise for OrderPricing, computed once when the catalog snapshot is built
+    @JsonIgnore
+    private long pricePaise;
 }
@@ -0,0 +1,19 @@
+package com.app.milkman.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class ProductSales {
+
+    private String productId;
+    private String productName;
+    // Orders with at least one line of the product
+    private long orders;
+    private long litres;
+    // Line price times quantity, without delivery charges
+    private BigDecimal revenue;
+}
@@ -0,0 +1,15 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class SalesReconcileResponse extends ParentResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int rollupRows;
+}
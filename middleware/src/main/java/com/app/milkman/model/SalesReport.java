@@ -0,0 +1,23 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class SalesReport {
+
+    private LocalDate from;
+    private LocalDate to;
+    private long orders;
+    // Order totals, delivery charges included
+    private BigDecimal revenue;
+    private BigDecimal deliveryCharges;
+    private long litres;
+    // Days with at least one order, oldest first
+    private List<SalesReportDay> days;
+}
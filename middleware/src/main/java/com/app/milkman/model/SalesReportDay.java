@@ -0,0 +1,18 @@
+package com.app.milkman.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class SalesReportDay {
+
+    private LocalDate date;
+    private long orders;
+    private BigDecimal revenue;
+    private BigDecimal deliveryCharges;
+    private long litres;
+}
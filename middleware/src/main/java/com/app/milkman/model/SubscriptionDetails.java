@@ -1,15 +1,18 @@
 package com.app.milkman.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class SubscriptionDetails {
 
     private String subscriptionId;
@@ -35,4 +38,20 @@ public class SubscriptionDetails {
     private BigDecimal deliveryCharge;
     private BigDecimal orderTotal;
     private List<SubscriptionProductDetails> subscriptionProductDetails;
+
+    /**
+     * Projection constructor used by the subscription listing queries; product lines are attached afterwards
+     */
+    public SubscriptionDetails(String subscriptionId, String customerId, String customerName, String primaryPhone,
+                               String emailId, String address, String pinCode, String landmark,
+                               LocalDateTime orderDateTime, LocalDate deliveryStartDate, LocalDate deliveryEndDate,
+                               String deliveryDays, String deliveryTimeSlot, String deliveryFrequency,
+                               String orderStatus, String createdBy, LocalDateTime createdTime, String updatedBy,
+                               LocalDateTime updatedTime, String status, BigDecimal deliveryCharge,
+                               BigDecimal orderTotal) {
+        this(subscriptionId, customerId, customerName, primaryPhone, emailId, address, pinCode, landmark,
+                orderDateTime, deliveryStartDate, deliveryEndDate, deliveryDays, deliveryTimeSlot, deliveryFrequency,
+                orderStatus, createdBy, createdTime, updatedBy, updatedTime, status, deliveryCharge, orderTotal,
+                new ArrayList<>());
+    }
 }
@@ -1,5 +1,6 @@
 package com.app.milkman.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class SubscriptionProductDetails {
 
     private String productSubscriptionId;
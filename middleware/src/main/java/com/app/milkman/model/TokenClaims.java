@@ -0,0 +1,16 @@
+package com.app.milkman.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+
+@Value
+@Builder
+public class TokenClaims {
+
+    String phoneNo;
+    String role;
+    String type;
+    Date expiration;
+}
@@ -0,0 +1,13 @@
+package com.app.milkman.notification;
+
+import lombok.Value;
+
+/**
+ * A notification a transport could not deliver, with the reason
+ */
+@Value
+public class FailedNotification {
+
+    Notification notification;
+    Exception error;
+}
@@ -0,0 +1,22 @@
+package com.app.milkman.notification;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A message waiting to be delivered by the {@link NotificationDispatcher}
+ */
+@Data
+@Builder
+public class Notification {
+
+    private NotificationChannel channel;
+    // Phone number for SMS, e-mail address for EMAIL
+    private String recipient;
+    // E-mail only
+    private String subject;
+    private String body;
+    // Delivery attempts made so far
+    private int attempts;
+    private String lastError;
+}
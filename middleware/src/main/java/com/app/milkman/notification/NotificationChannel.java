@@ -0,0 +1,6 @@
+package com.app.milkman.notification;
+
+public enum NotificationChannel {
+    SMS,
+    EMAIL
+}
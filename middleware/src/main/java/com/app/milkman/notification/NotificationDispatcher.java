@@ -0,0 +1,310 @@
+package com.app.milkman.notification;
+
+import com.app.milkman.entity.NotificationDeadLetter;
+import com.app.milkman.repository.NotificationDeadLetterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous delivery of SMS and e-mail notifications.
+ *
+ * Each channel has a bounded queue drained by its own dispatcher thread, which groups waiting notifications into
+ * batches of up to batch-size and hands every batch to the channel's {@link NotificationTransport} on a worker
+ * thread. Workers are virtual threads when spring.threads.virtual.enabled is set (Java 21+) and a fixed pool of
+ * platform threads otherwise; either way at most "workers" batches are in flight per channel, so a slow gateway
+ * backs up into the queue rather than into unbounded threads.
+ *
+ * Failed notifications are retried with exponential backoff. After max-attempts they are written to the
+ * notification_dead_letters table. Submissions are rejected, never blocked, when a queue is full.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    @Autowired
+    private List<NotificationTransport> transports;
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.notification.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${milkman.notification.batch-size:20}")
+    private int batchSize;
+
+    @Value("${milkman.notification.workers:4}")
+    private int workers;
+
+    @Value("${milkman.notification.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${milkman.notification.initial-backoff:2s}")
+    private Duration initialBackoff;
+
+    @Value("${milkman.notification.max-backoff:1m}")
+    private Duration maxBackoff;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<NotificationChannel, ChannelWorker> channels = new EnumMap<>(NotificationChannel.class);
+
+    private Executor workerExecutor;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notification-");
+            executor.setVirtualThreads(true);
+            workerExecutor = executor;
+        } else {
+            workerExecutor = Executors.newFixedThreadPool(workers * NotificationChannel.values().length,
+                    daemonThreads("notification-worker-"));
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("notification-retry-"));
+
+        running = true;
+        for (NotificationTransport transport : transports) {
+            if (channels.containsKey(transport.getChannel())) {
+                throw new IllegalStateException("More than one notification transport for " + transport.getChannel());
+            }
+            ChannelWorker worker = new ChannelWorker(transport);
+            channels.put(transport.getChannel(), worker);
+            worker.start();
+        }
+        log.info("[Notification] Dispatcher started for {} on {} threads", channels.keySet(),
+                virtualThreads ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (ChannelWorker worker : channels.values()) {
+            worker.thread.interrupt();
+            worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            if (!worker.queue.isEmpty()) {
+                log.warn("[Notification] {} {} notifications were still queued at shutdown",
+                        worker.queue.size(), worker.transport.getChannel());
+            }
+        }
+        if (workerExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Queues a notification for delivery and returns immediately
+     *
+     * @return false if the notification was rejected because its channel's queue is full or has no transport
+     */
+    public boolean submit(Notification notification) {
+        ChannelWorker worker = channels.get(notification.getChannel());
+        if (worker == null) {
+            log.warn("[Notification] No transport for channel {}, dropping notification to {}",
+                    notification.getChannel(), notification.getRecipient());
+            return false;
+        }
+        if (!worker.queue.offer(notification)) {
+            worker.rejected.increment();
+            log.warn("[Notification] {} queue is full, rejecting notification to {}",
+                    notification.getChannel(), notification.getRecipient());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return notifications waiting in a channel's queue, excluding batches in flight and pending retries
+     */
+    public int getQueueSize(NotificationChannel channel) {
+        ChannelWorker worker = channels.get(channel);
+        return worker == null ? 0 : worker.queue.size();
+    }
+
+    /**
+     * @return whether a channel's dispatcher thread still takes batches from its queue
+     */
+    boolean isDispatching(NotificationChannel channel) {
+        ChannelWorker worker = channels.get(channel);
+        return worker != null && worker.thread.isAlive();
+    }
+
+    Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+
+    private void retryOrDeadLetter(ChannelWorker worker, Notification notification, Exception error) {
+        notification.setLastError(error.getMessage());
+        worker.failed.increment();
+        if (notification.getAttempts() >= maxAttempts || !running) {
+            deadLetter(worker, notification);
+            return;
+        }
+        Duration delay = backoff(notification.getAttempts());
+        log.debug("[Notification] Retrying {} notification to {} in {} (attempt {} failed: {})",
+                notification.getChannel(), notification.getRecipient(), delay, notification.getAttempts(),
+                error.getMessage());
+        retryScheduler.schedule(() -> {
+            if (!worker.queue.offer(notification)) {
+                deadLetter(worker, notification);
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(ChannelWorker worker, Notification notification) {
+        log.error("[Notification] Giving up on {} notification to {} after {} attempts: {}",
+                notification.getChannel(), notification.getRecipient(), notification.getAttempts(),
+                notification.getLastError());
+        try {
+            NotificationDeadLetter deadLetter = new NotificationDeadLetter();
+            deadLetter.setChannel(notification.getChannel().name());
+            deadLetter.setRecipient(notification.getRecipient());
+            deadLetter.setSubject(notification.getSubject());
+            deadLetter.setBody(truncate(notification.getBody(), 4000));
+            deadLetter.setAttempts(notification.getAttempts());
+            deadLetter.setLastError(truncate(notification.getLastError(), 1000));
+            deadLetter.setCreatedTime(LocalDateTime.now());
+            deadLetterRepository.save(deadLetter);
+            worker.deadLettered.increment();
+        } catch (RuntimeException e) {
+            log.error("[Notification] Could not store dead letter for {}: {}", notification.getRecipient(),
+                    e.getMessage(), e);
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queue, dispatcher thread and meters of one channel
+     */
+    private final class ChannelWorker implements Runnable {
+
+        private final NotificationTransport transport;
+        private final BlockingQueue<Notification> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Semaphore inFlight = new Semaphore(workers);
+        private final Thread thread;
+        private final Counter sent;
+        private final Counter failed;
+        private final Counter deadLettered;
+        private final Counter rejected;
+        private final Timer batchTimer;
+
+        ChannelWorker(NotificationTransport transport) {
+            this.transport = transport;
+            String channel = transport.getChannel().name();
+            this.thread = new Thread(this, "notification-" + channel.toLowerCase() + "-dispatcher");
+            this.thread.setDaemon(true);
+            this.sent = counter("notification.sent", channel, "Notifications delivered");
+            this.failed = counter("notification.failed", channel, "Failed delivery attempts");
+            this.deadLettered = counter("notification.dead_lettered", channel,
+                    "Notifications given up on after all attempts");
+            this.rejected = counter("notification.rejected", channel, "Notifications rejected by a full queue");
+            this.batchTimer = Timer.builder("notification.batch").tag("channel", channel)
+                    .description("Time to hand one batch to the transport").register(meterRegistry);
+            Gauge.builder("notification.queue.size", queue, BlockingQueue::size).tag("channel", channel)
+                    .description("Notifications waiting to be sent").register(meterRegistry);
+        }
+
+        private Counter counter(String name, String channel, String description) {
+            return Counter.builder(name).tag("channel", channel).description(description).register(meterRegistry);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    // A free worker first, then the batch: interrupted while waiting (stop() at shutdown), the
+                    // dispatcher holds no notifications, so none are lost and stop() counts them all as queued
+                    inFlight.acquire();
+                    List<Notification> batch = new ArrayList<>(batchSize);
+                    try {
+                        batch.add(queue.take());
+                    } catch (InterruptedException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                    queue.drainTo(batch, batchSize - 1);
+                    try {
+                        workerExecutor.execute(() -> {
+                            try {
+                                deliver(batch);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        inFlight.release();
+                        batch.forEach(notification -> retryOrDeadLetter(this, notification, e));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void deliver(List<Notification> batch) {
+            batch.forEach(notification -> notification.setAttempts(notification.getAttempts() + 1));
+            List<FailedNotification> failures;
+            try {
+                failures = batchTimer.record(() -> transport.send(batch));
+            } catch (RuntimeException e) {
+                log.warn("[Notification] {} transport failed for a batch of {}: {}", transport.getChannel(),
+                        batch.size(), e.getMessage());
+                failures = batch.stream().map(notification -> new FailedNotification(notification, e)).toList();
+            }
+            sent.increment(batch.size() - failures.size());
+            failures.forEach(failure -> retryOrDeadLetter(this, failure.getNotification(), failure.getError()));
+        }
+    }
+}
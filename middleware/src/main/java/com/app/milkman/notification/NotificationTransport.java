@@ -0,0 +1,22 @@
+package com.app.milkman.notification;
+
+import java.util.List;
+
+/**
+ * Delivers notifications of one channel to the outside world.
+ *
+ * Transports receive whole batches so they can reuse a connection or client across messages. Exactly one
+ * transport bean must exist per channel; tests replace the real ones with local fakes.
+ */
+public interface NotificationTransport {
+
+    NotificationChannel getChannel();
+
+    /**
+     * Delivers a batch of notifications
+     *
+     * @param batch notifications of this transport's channel
+     * @return the notifications that were not delivered; empty if the whole batch went out
+     */
+    List<FailedNotification> send(List<Notification> batch);
+}
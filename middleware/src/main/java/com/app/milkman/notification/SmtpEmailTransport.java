@@ -0,0 +1,68 @@
+package com.app.milkman.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends e-mail through the configured SMTP server. A batch is handed to the mail sender in one call, which
+ * delivers all of its messages over a single SMTP connection.
+ */
+@Slf4j
+@Component
+public class SmtpEmailTransport implements NotificationTransport {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String sender;
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public List<FailedNotification> send(List<Notification> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(sender);
+            message.setTo(notification.getRecipient());
+            message.setSubject(notification.getSubject());
+            message.setText(notification.getBody());
+            messages[i] = message;
+        }
+
+        List<FailedNotification> failed = new ArrayList<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Connected, but some messages were rejected; only those are retried
+            e.getFailedMessages().forEach((message, error) -> {
+                for (int i = 0; i < messages.length; i++) {
+                    if (messages[i] == message) {
+                        failed.add(new FailedNotification(batch.get(i), error));
+                    }
+                }
+            });
+            if (failed.isEmpty()) {
+                batch.forEach(notification -> failed.add(new FailedNotification(notification, e)));
+            }
+        } catch (MailException e) {
+            log.warn("[Notification] SMTP delivery of {} e-mails failed: {}", batch.size(), e.getMessage());
+            batch.forEach(notification -> failed.add(new FailedNotification(notification, e)));
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.milkman.notification;
+
+import com.app.milkman.component.EncryptDecrypt;
+import com.app.milkman.utils.Constants;
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends SMS through Twilio. The credentials are decrypted and the Twilio client initialised once, on first use,
+ * instead of for every message.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "milkman.notification.sms.transport", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsTransport implements NotificationTransport {
+
+    @Autowired
+    private EncryptDecrypt encryptDecrypt;
+
+    private volatile boolean initialized;
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    public List<FailedNotification> send(List<Notification> batch) {
+        initialize();
+        PhoneNumber from = new PhoneNumber(Constants.SMS_NUMBER);
+        List<FailedNotification> failed = new ArrayList<>();
+        for (Notification notification : batch) {
+            try {
+                Message.creator(new PhoneNumber(notification.getRecipient()), from, notification.getBody()).create();
+            } catch (RuntimeException e) {
+                failed.add(new FailedNotification(notification, e));
+            }
+        }
+        return failed;
+    }
+
+    private void initialize() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    Twilio.init(encryptDecrypt.decrypt(Constants.SMS_SID, Constants.KEY),
+                            encryptDecrypt.decrypt(Constants.SMS_TOKEN, Constants.KEY));
+                    initialized = true;
+                    log.info("[Notification] Twilio client initialised");
+                }
+            }
+        }
+    }
+}
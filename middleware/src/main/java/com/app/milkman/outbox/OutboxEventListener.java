@@ -0,0 +1,21 @@
+package com.app.milkman.outbox;
+
+import com.app.milkman.entity.OutboxEvent;
+
+/**
+ * In-process consumer of order and subscription events.
+ *
+ * Delivery is at-least-once: if any listener throws, the event is retried later and every listener sees it again,
+ * so implementations must tolerate duplicates (for example by keying their work on the aggregate ID).
+ */
+public interface OutboxEventListener {
+
+    /**
+     * Called for every relayed event. The events of one aggregate arrive in the order they were written, also across
+     * retries: while one is waiting to be retried, the later ones wait behind it. Once an event is marked FAILED the
+     * later ones go ahead without it. Events of different aggregates have no order.
+     *
+     * @throws RuntimeException to have the event retried with backoff
+     */
+    void onEvent(OutboxEvent event);
+}
@@ -0,0 +1,10 @@
+package com.app.milkman.outbox;
+
+public enum OutboxEventType {
+    ORDER_PLACED,
+    ORDER_UPDATED,
+    ORDER_DELETED,
+    SUBSCRIPTION_CREATED,
+    SUBSCRIPTION_UPDATED,
+    SUBSCRIPTION_DELETED
+}
@@ -0,0 +1,77 @@
+package com.app.milkman.outbox;
+
+import com.app.milkman.entity.OutboxEvent;
+import com.app.milkman.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records order and subscription events in the outbox table.
+ *
+ * Must be called inside the transaction that writes the order or subscription, so the event is committed (or
+ * rolled back) together with it; the request thread only pays for the one insert. {@link OutboxRelay} delivers
+ * the events to the listeners afterwards.
+ */
+@Component
+public class OutboxPublisher {
+
+    private static final ObjectMapper PAYLOAD_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(OutboxEventType eventType, String aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        event.setPayload(toJson(payload));
+        event.setStatus(OutboxEvent.PENDING);
+        event.setAttempts(0);
+        event.setCreatedTime(LocalDateTime.now());
+        event.setAvailableTime(event.getCreatedTime());
+        return outboxEventRepository.save(event);
+    }
+
+    /**
+     * Records one event per aggregate with a single batched insert, for bulk writes that bypass the entity manager
+     *
+     * @param payloads event payloads keyed by aggregate ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(OutboxEventType eventType, Map<String, Map<String, Object>> payloads) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        payloads.forEach((aggregateId, payload) -> rows.add(new Object[]{
+                eventType.name(), aggregateId, toJson(payload), OutboxEvent.PENDING, now, now}));
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.outbox_events (eventtype, aggregateid, payload, status, attempts, "
+                + "createdtime, availabletime) VALUES (?, ?, ?, ?, 0, ?, ?)", rows);
+    }
+
+    private static String toJson(Map<String, Object> payload) {
+        try {
+            return PAYLOAD_MAPPER.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
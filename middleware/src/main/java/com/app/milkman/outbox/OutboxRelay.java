@@ -0,0 +1,158 @@
+package com.app.milkman.outbox;
+
+import com.app.milkman.entity.OutboxEvent;
+import com.app.milkman.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background delivery of outbox events to the {@link OutboxEventListener}s.
+ *
+ * Each poll locks a batch of due events with SKIP LOCKED, hands them to the listeners in ID order and deletes the
+ * delivered ones, all in one transaction; further batches follow while the previous one was full. Several
+ * instances can poll the same table without delivering an event twice at the same time. An event whose listener
+ * throws is retried with exponential backoff, holding back the later events of its aggregate, and marked FAILED
+ * after max-attempts. If the relay dies after
+ * calling the listeners but before committing, the events are delivered again (at-least-once).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired(required = false)
+    private List<OutboxEventListener> listeners = List.of();
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${milkman.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${milkman.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${milkman.outbox.initial-backoff:5s}")
+    private Duration initialBackoff;
+
+    @Value("${milkman.outbox.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter delivered;
+    private Counter retried;
+    private Counter failed;
+    private Timer lag;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        delivered = Counter.builder("outbox.events").tag("result", "delivered")
+                .description("Outbox events delivered to all listeners").register(meterRegistry);
+        retried = Counter.builder("outbox.events").tag("result", "retried")
+                .description("Outbox deliveries that failed and were rescheduled").register(meterRegistry);
+        failed = Counter.builder("outbox.events").tag("result", "failed")
+                .description("Outbox events given up on after all attempts").register(meterRegistry);
+        lag = Timer.builder("outbox.event.lag")
+                .description("Time from writing an event to delivering it").register(meterRegistry);
+        batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, deliver and clear one batch").register(meterRegistry);
+        log.info("[Outbox] Relay {} with {} listener(s)", enabled ? "enabled" : "disabled", listeners.size());
+    }
+
+    @Scheduled(fixedDelayString = "${milkman.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("[Outbox] Relay poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delivers one batch of due events
+     *
+     * @return the number of events taken from the outbox, whether or not their delivery succeeded
+     */
+    public int relayBatch() {
+        Integer relayed = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.lockDueEvents(now, PageRequest.ofSize(batchSize));
+            List<OutboxEvent> deliveredEvents = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                if (deliver(event, now)) {
+                    deliveredEvents.add(event);
+                }
+            }
+            outboxEventRepository.deleteAllInBatch(deliveredEvents);
+            if (!events.isEmpty()) {
+                log.debug("[Outbox] Relayed {} events, {} delivered", events.size(), deliveredEvents.size());
+            }
+            return events.size();
+        }));
+        return relayed == null ? 0 : relayed;
+    }
+
+    private boolean deliver(OutboxEvent event, LocalDateTime now) {
+        try {
+            for (OutboxEventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+            delivered.increment();
+            lag.record(Duration.between(event.getCreatedTime(), LocalDateTime.now()));
+            return true;
+        } catch (RuntimeException e) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(e.getMessage() == null ? e.getClass().getName()
+                    : e.getMessage().substring(0, Math.min(e.getMessage().length(), 1000)));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxEvent.FAILED);
+                failed.increment();
+                log.error("[Outbox] Giving up on {} event {} for {} after {} attempts: {}", event.getEventType(),
+                        event.getId(), event.getAggregateId(), event.getAttempts(), event.getLastError());
+            } else {
+                event.setAvailableTime(now.plus(backoff(event.getAttempts())));
+                retried.increment();
+                log.warn("[Outbox] Delivery of {} event {} failed (attempt {}), retrying at {}: {}",
+                        event.getEventType(), event.getId(), event.getAttempts(), event.getAvailableTime(),
+                        event.getLastError());
+            }
+            return false;
+        }
+    }
+
+    Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.app.milkman.report;
+
+import com.app.milkman.entity.Orders;
+import com.app.milkman.entity.ProductOrders;
+import lombok.Getter;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Changes one transaction makes to the sales rollups.
+ *
+ * Orders are added when they are placed and removed when they are deleted; an update removes the order as it was
+ * and adds it as it is now. Changes to the same day, pin code and product are combined, and the entries are kept
+ * in key order so that concurrent writers lock rollup rows in the same order.
+ */
+public class SalesDelta {
+
+    private static final Comparator<OrderKey> ORDER_KEY_ORDER = Comparator.comparing(OrderKey::getSalesDate)
+            .thenComparing(OrderKey::getPinCode);
+    private static final Comparator<ProductKey> PRODUCT_KEY_ORDER = Comparator.comparing(ProductKey::getSalesDate)
+            .thenComparing(ProductKey::getProductId)
+            .thenComparing(ProductKey::getPinCode);
+
+    @Getter
+    private final Map<OrderKey, Totals> orders = new TreeMap<>(ORDER_KEY_ORDER);
+    @Getter
+    private final Map<ProductKey, Totals> products = new TreeMap<>(PRODUCT_KEY_ORDER);
+
+    public void add(Orders order, Collection<ProductOrders> lines) {
+        apply(1, order, lines);
+    }
+
+    /**
+     * Removes an order as it is now; call it before the order or its lines are changed
+     */
+    public void subtract(Orders order, Collection<ProductOrders> lines) {
+        apply(-1, order, lines);
+    }
+
+    private void apply(int sign, Orders order, Collection<ProductOrders> lines) {
+        // Legacy orders without a date belong to no sales day; the backfill and the reconciler leave them out too
+        if (order.getOrderDateTime() == null) {
+            return;
+        }
+        OrderSales sales = order(sign, order.getOrderDateTime(), order.getPinCode(), order.getOrderTotal(),
+                order.getDeliveryCharge());
+        if (lines != null) {
+            lines.stream()
+                    .filter(line -> line.getProducts() != null)
+                    .forEach(line -> sales.line(line.getProducts().getProductId(), line.getQuantity(),
+                            line.getProductPrice()));
+        }
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) one order; its lines are then passed to the returned {@link OrderSales}
+     */
+    public OrderSales order(int sign, LocalDateTime orderDateTime, String pinCode, BigDecimal orderTotal,
+                            BigDecimal deliveryCharge) {
+        LocalDate salesDate = orderDateTime.toLocalDate();
+        String pin = pinCode == null ? "" : pinCode;
+        orders.computeIfAbsent(new OrderKey(salesDate, pin), key -> new Totals())
+                .addOrder(sign, orderTotal, deliveryCharge);
+        return new OrderSales(sign, salesDate, pin);
+    }
+
+    /**
+     * Lines of one order; the order is counted once per product however many lines carry it
+     */
+    public class OrderSales {
+
+        private final int sign;
+        private final LocalDate salesDate;
+        private final String pinCode;
+        private final Set<String> productIds = new HashSet<>();
+
+        private OrderSales(int sign, LocalDate salesDate, String pinCode) {
+            this.sign = sign;
+            this.salesDate = salesDate;
+            this.pinCode = pinCode;
+        }
+
+        public OrderSales line(String productId, long quantity, BigDecimal price) {
+            Totals totals = products.computeIfAbsent(new ProductKey(salesDate, productId, pinCode), key -> new Totals());
+            totals.addLine(sign, productIds.add(productId), quantity, price.multiply(BigDecimal.valueOf(quantity)));
+            return this;
+        }
+    }
+
+    @Value
+    public static class OrderKey {
+        LocalDate salesDate;
+        String pinCode;
+    }
+
+    @Value
+    public static class ProductKey {
+        LocalDate salesDate;
+        String productId;
+        String pinCode;
+    }
+
+    /**
+     * Order count, quantity and amounts; for an order entry the amount is the order total, for a product entry the
+     * line revenue
+     */
+    @Getter
+    public static class Totals {
+
+        private long orderCount;
+        private long quantity;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal deliveryCharge = BigDecimal.ZERO;
+
+        private void addOrder(int sign, BigDecimal orderTotal, BigDecimal deliveryCharge) {
+            // Null amounts count as zero, as in the SQL sums the rollups are rebuilt from
+            orderTotal = orderTotal == null ? BigDecimal.ZERO : orderTotal;
+            deliveryCharge = deliveryCharge == null ? BigDecimal.ZERO : deliveryCharge;
+            orderCount += sign;
+            amount = sign < 0 ? amount.subtract(orderTotal) : amount.add(orderTotal);
+            this.deliveryCharge = sign < 0 ? this.deliveryCharge.subtract(deliveryCharge)
+                    : this.deliveryCharge.add(deliveryCharge);
+        }
+
+        private void addLine(int sign, boolean firstLineOfOrder, long quantity, BigDecimal revenue) {
+            if (firstLineOfOrder) {
+                orderCount += sign;
+            }
+            this.quantity += sign * quantity;
+            amount = sign < 0 ? amount.subtract(revenue) : amount.add(revenue);
+        }
+
+        boolean isZero() {
+            return orderCount == 0 && quantity == 0 && amount.signum() == 0 && deliveryCharge.signum() == 0;
+        }
+    }
+}
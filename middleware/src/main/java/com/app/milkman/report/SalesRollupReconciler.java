@@ -0,0 +1,119 @@
+package com.app.milkman.report;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Rebuilds the sales rollups of a date range from orders and product_orders.
+ *
+ * The incremental updates keep the rollups exact as long as every order change goes through the services; the
+ * nightly run repairs anything written around them (manual SQL, restores). On PostgreSQL the rollup tables are
+ * locked against writers for the rebuild, so an order placed meanwhile is either counted by the rebuild or adds
+ * its delta after it, never both or neither.
+ */
+@Slf4j
+@Component
+public class SalesRollupReconciler {
+
+    private static final String DELETE_ORDER_ROLLUP = "DELETE FROM milkman.order_rollup WHERE salesdate BETWEEN ? AND ?";
+
+    private static final String DELETE_SALES_ROLLUP = "DELETE FROM milkman.sales_rollup WHERE salesdate BETWEEN ? AND ?";
+
+    // Range conditions on orderdatetime rather than on its date, so idx_orders_orderdatetime is used
+    private static final String REBUILD_ORDER_ROLLUP = "INSERT INTO milkman.order_rollup (salesdate, pincode, "
+            + "ordercount, ordertotal, deliverycharge) "
+            + "SELECT CAST(o.orderdatetime AS DATE), COALESCE(o.pincode, ''), COUNT(*), "
+            + "COALESCE(SUM(o.ordertotal), 0), COALESCE(SUM(o.deliverycharge), 0) "
+            + "FROM milkman.orders o WHERE o.orderdatetime >= ? AND o.orderdatetime < ? "
+            + "GROUP BY CAST(o.orderdatetime AS DATE), COALESCE(o.pincode, '')";
+
+    private static final String REBUILD_SALES_ROLLUP = "INSERT INTO milkman.sales_rollup (salesdate, productid, "
+            + "pincode, ordercount, quantity, revenue) "
+            + "SELECT CAST(o.orderdatetime AS DATE), po.productid, COALESCE(o.pincode, ''), "
+            + "COUNT(DISTINCT o.orderid), "
+            + "COALESCE(SUM(po.quantity), 0), COALESCE(SUM(po.productprice * po.quantity), 0) "
+            + "FROM milkman.orders o JOIN milkman.product_orders po ON po.orderid = o.orderid "
+            + "WHERE o.orderdatetime >= ? AND o.orderdatetime < ? AND po.productid IS NOT NULL "
+            + "GROUP BY CAST(o.orderdatetime AS DATE), po.productid, COALESCE(o.pincode, '')";
+
+    // Conflicts with the row locks of writers and with itself, not with readers
+    private static final String LOCK_ROLLUPS = "LOCK TABLE milkman.order_rollup, milkman.sales_rollup "
+            + "IN SHARE ROW EXCLUSIVE MODE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.report.reconcile.enabled:true}")
+    private boolean enabled;
+
+    // Days rebuilt by the nightly run, today included
+    @Value("${milkman.report.reconcile.days:7}")
+    private int days;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer reconcileTimer;
+    private boolean postgres;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        reconcileTimer = Timer.builder("sales.rollup.reconcile")
+                .description("Time to rebuild the sales rollups of a date range").register(meterRegistry);
+        postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    @Scheduled(cron = "${milkman.report.reconcile.cron:0 30 2 * * *}")
+    public void reconcileRecentDays() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            reconcile(today.minusDays(days - 1L), today);
+        } catch (RuntimeException e) {
+            log.error("[Sales Rollup] Nightly reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replaces the rollup rows of the sales days from..to (inclusive) with totals computed from the orders
+     *
+     * @return the number of rollup rows written
+     */
+    public int reconcile(LocalDate from, LocalDate to) {
+        log.info("[Sales Rollup] Rebuilding rollups from {} to {}", from, to);
+        Integer rows = reconcileTimer.record(() -> transactionTemplate.execute(status -> {
+            if (postgres) {
+                jdbcTemplate.execute(LOCK_ROLLUPS);
+            }
+            jdbcTemplate.update(DELETE_ORDER_ROLLUP, from, to);
+            jdbcTemplate.update(DELETE_SALES_ROLLUP, from, to);
+            Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+            return jdbcTemplate.update(REBUILD_ORDER_ROLLUP, start, end)
+                    + jdbcTemplate.update(REBUILD_SALES_ROLLUP, start, end);
+        }));
+        log.info("[Sales Rollup] Rebuilt {} rollup rows from {} to {}", rows, from, to);
+        return rows == null ? 0 : rows;
+    }
+}
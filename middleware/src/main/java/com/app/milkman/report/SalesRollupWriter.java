@@ -0,0 +1,102 @@
+package com.app.milkman.report;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds {@link SalesDelta}s to the order_rollup and sales_rollup tables.
+ *
+ * Deltas are written in the transaction of the order change itself, so the rollups never show an order that was
+ * rolled back. Each entry is an upsert that adds to the existing row: INSERT ... ON CONFLICT DO UPDATE on
+ * PostgreSQL, which also handles two transactions creating the same row at once, and MERGE elsewhere (H2 in tests).
+ */
+@Slf4j
+@Component
+public class SalesRollupWriter {
+
+    private static final String UPSERT_ORDER_ROLLUP = "INSERT INTO milkman.order_rollup AS r (salesdate, pincode, "
+            + "ordercount, ordertotal, deliverycharge) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (salesdate, pincode) DO UPDATE SET ordercount = r.ordercount + EXCLUDED.ordercount, "
+            + "ordertotal = r.ordertotal + EXCLUDED.ordertotal, "
+            + "deliverycharge = r.deliverycharge + EXCLUDED.deliverycharge";
+
+    private static final String MERGE_ORDER_ROLLUP = "MERGE INTO milkman.order_rollup r USING (VALUES (CAST(? AS DATE), "
+            + "CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS NUMERIC), CAST(? AS NUMERIC))) "
+            + "v (salesdate, pincode, ordercount, ordertotal, deliverycharge) "
+            + "ON r.salesdate = v.salesdate AND r.pincode = v.pincode "
+            + "WHEN MATCHED THEN UPDATE SET ordercount = r.ordercount + v.ordercount, "
+            + "ordertotal = r.ordertotal + v.ordertotal, deliverycharge = r.deliverycharge + v.deliverycharge "
+            + "WHEN NOT MATCHED THEN INSERT (salesdate, pincode, ordercount, ordertotal, deliverycharge) "
+            + "VALUES (v.salesdate, v.pincode, v.ordercount, v.ordertotal, v.deliverycharge)";
+
+    private static final String UPSERT_SALES_ROLLUP = "INSERT INTO milkman.sales_rollup AS r (salesdate, productid, "
+            + "pincode, ordercount, quantity, revenue) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (salesdate, productid, pincode) DO UPDATE SET ordercount = r.ordercount + EXCLUDED.ordercount, "
+            + "quantity = r.quantity + EXCLUDED.quantity, revenue = r.revenue + EXCLUDED.revenue";
+
+    private static final String MERGE_SALES_ROLLUP = "MERGE INTO milkman.sales_rollup r USING (VALUES (CAST(? AS DATE), "
+            + "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS NUMERIC))) "
+            + "v (salesdate, productid, pincode, ordercount, quantity, revenue) "
+            + "ON r.salesdate = v.salesdate AND r.productid = v.productid AND r.pincode = v.pincode "
+            + "WHEN MATCHED THEN UPDATE SET ordercount = r.ordercount + v.ordercount, "
+            + "quantity = r.quantity + v.quantity, revenue = r.revenue + v.revenue "
+            + "WHEN NOT MATCHED THEN INSERT (salesdate, productid, pincode, ordercount, quantity, revenue) "
+            + "VALUES (v.salesdate, v.productid, v.pincode, v.ordercount, v.quantity, v.revenue)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String orderRollupSql;
+    private String salesRollupSql;
+
+    @PostConstruct
+    void init() {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        orderRollupSql = postgres ? UPSERT_ORDER_ROLLUP : MERGE_ORDER_ROLLUP;
+        salesRollupSql = postgres ? UPSERT_SALES_ROLLUP : MERGE_SALES_ROLLUP;
+    }
+
+    /**
+     * Adds the delta to the rollups, in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(SalesDelta delta) {
+        List<Map.Entry<SalesDelta.OrderKey, SalesDelta.Totals>> orders = delta.getOrders().entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+        List<Map.Entry<SalesDelta.ProductKey, SalesDelta.Totals>> products = delta.getProducts().entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+        if (!orders.isEmpty()) {
+            jdbcTemplate.batchUpdate(orderRollupSql, orders, orders.size(), (ps, entry) -> {
+                ps.setObject(1, entry.getKey().getSalesDate(), Types.DATE);
+                ps.setString(2, entry.getKey().getPinCode());
+                ps.setLong(3, entry.getValue().getOrderCount());
+                ps.setBigDecimal(4, entry.getValue().getAmount());
+                ps.setBigDecimal(5, entry.getValue().getDeliveryCharge());
+            });
+        }
+        if (!products.isEmpty()) {
+            jdbcTemplate.batchUpdate(salesRollupSql, products, products.size(), (ps, entry) -> {
+                ps.setObject(1, entry.getKey().getSalesDate(), Types.DATE);
+                ps.setString(2, entry.getKey().getProductId());
+                ps.setString(3, entry.getKey().getPinCode());
+                ps.setLong(4, entry.getValue().getOrderCount());
+                ps.setLong(5, entry.getValue().getQuantity());
+                ps.setBigDecimal(6, entry.getValue().getAmount());
+            });
+        }
+        log.debug("[Sales Rollup] Applied {} order and {} product rollup changes", orders.size(), products.size());
+    }
+}
@@ -10,10 +10,14 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface CustomersRepository extends JpaRepository<Customers, Void>, JpaSpecificationExecutor<Customers> {
+public interface CustomersRepository extends JpaRepository<Customers, Long>, JpaSpecificationExecutor<Customers> {
 
-    @Query("SELECT c FROM Customers c WHERE (c.emailId = :email OR c.primaryPhone = :phone) AND (c.authPin = :authPin OR :authPin = '') AND c.status = 'ACTIVE'")
-    List<Customers> getCustomersByEmailIdOrPrimaryPhoneAndAuthPin(@Param("email") String emailId, @Param("phone") String phone, @Param("authPin") String authPin);
+    // Login lookups: one column each, so the partial unique indexes on active phone / e-mail are used
+    @Query("SELECT c FROM Customers c WHERE c.primaryPhone = :phone AND c.authPin = :authPin AND c.status = 'ACTIVE'")
+    List<Customers> findActiveByPrimaryPhoneAndAuthPin(@Param("phone") String phone, @Param("authPin") String authPin);
+
+    @Query("SELECT c FROM Customers c WHERE c.emailId = :email AND c.authPin = :authPin AND c.status = 'ACTIVE'")
+    List<Customers> findActiveByEmailIdAndAuthPin(@Param("email") String emailId, @Param("authPin") String authPin);
 
     @Query("SELECT c FROM Customers c WHERE (c.emailId = :email OR c.primaryPhone = :phone) AND c.status = 'ACTIVE'")
     List<Customers> findByEmailOrPhone(@Param("email") String email, @Param("phone") String phone);
@@ -0,0 +1,13 @@
+package com.app.milkman.repository;
+
+import com.app.milkman.entity.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+
+    List<NotificationDeadLetter> findByChannel(String channel);
+}
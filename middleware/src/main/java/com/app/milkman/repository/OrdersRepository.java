@@ -1,12 +1,88 @@
 package com.app.milkman.repository;
 
 import com.app.milkman.entity.Orders;
+import com.app.milkman.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface OrdersRepository extends JpaRepository<Orders, String>, JpaSpecificationExecutor<Orders> {
 
     Page<Orders> findByCustomerId(String customerId, Pageable pageable);
+
+    // Order listing reads a page of IDs first (no count query), then fetches those orders with their lines
+    @Query("SELECT o.orderId FROM Orders o")
+    List<String> findOrderIds(Pageable pageable);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.customerId = :customerId")
+    List<String> findOrderIdsByCustomerId(@Param("customerId") String customerId, Pageable pageable);
+
+    // Keyset listing, newest first, then the legacy orders without a date (see PageCursor); the limit comes from
+    // the Pageable and no count query is issued
+    @Query("SELECT o.orderId FROM Orders o WHERE o.orderDateTime IS NOT NULL "
+            + "ORDER BY o.orderDateTime DESC, o.orderId DESC")
+    List<String> findFirstOrderIds(Pageable limit);
+
+    // Written as a range plus a tie-breaker so the (orderdatetime, orderid) index bounds the scan
+    @Query("SELECT o.orderId FROM Orders o WHERE o.orderDateTime <= :orderDateTime "
+            + "AND (o.orderDateTime < :orderDateTime OR o.orderId < :orderId) "
+            + "ORDER BY o.orderDateTime DESC, o.orderId DESC")
+    List<String> findOrderIdsBefore(@Param("orderDateTime") LocalDateTime orderDateTime,
+                                    @Param("orderId") String orderId, Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.orderDateTime IS NULL ORDER BY o.orderId DESC")
+    List<String> findFirstUndatedOrderIds(Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.orderDateTime IS NULL AND o.orderId < :orderId "
+            + "ORDER BY o.orderId DESC")
+    List<String> findUndatedOrderIdsBefore(@Param("orderId") String orderId, Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.customerId = :customerId AND o.orderDateTime IS NOT NULL "
+            + "ORDER BY o.orderDateTime DESC, o.orderId DESC")
+    List<String> findFirstOrderIdsByCustomerId(@Param("customerId") String customerId, Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.customerId = :customerId "
+            + "AND o.orderDateTime <= :orderDateTime "
+            + "AND (o.orderDateTime < :orderDateTime OR o.orderId < :orderId) "
+            + "ORDER BY o.orderDateTime DESC, o.orderId DESC")
+    List<String> findOrderIdsByCustomerIdBefore(@Param("customerId") String customerId,
+                                                @Param("orderDateTime") LocalDateTime orderDateTime,
+                                                @Param("orderId") String orderId, Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.customerId = :customerId AND o.orderDateTime IS NULL "
+            + "ORDER BY o.orderId DESC")
+    List<String> findFirstUndatedOrderIdsByCustomerId(@Param("customerId") String customerId, Pageable limit);
+
+    @Query("SELECT o.orderId FROM Orders o WHERE o.customerId = :customerId AND o.orderDateTime IS NULL "
+            + "AND o.orderId < :orderId ORDER BY o.orderId DESC")
+    List<String> findUndatedOrderIdsByCustomerIdBefore(@Param("customerId") String customerId,
+                                                       @Param("orderId") String orderId, Pageable limit);
+
+    /**
+     * Up to limit order IDs after a keyset position (null for the first page), in {@link PageCursor} order
+     */
+    default List<String> findOrderIdsAfter(PageCursor position, int limit) {
+        return PageCursor.rowsAfter(position, limit, this::findFirstOrderIds,
+                (after, page) -> findOrderIdsBefore(after.getOrderDateTime(), after.getId(), page),
+                this::findFirstUndatedOrderIds, this::findUndatedOrderIdsBefore);
+    }
+
+    default List<String> findOrderIdsByCustomerIdAfter(String customerId, PageCursor position, int limit) {
+        return PageCursor.rowsAfter(position, limit,
+                page -> findFirstOrderIdsByCustomerId(customerId, page),
+                (after, page) -> findOrderIdsByCustomerIdBefore(customerId, after.getOrderDateTime(), after.getId(),
+                        page),
+                page -> findFirstUndatedOrderIdsByCustomerId(customerId, page),
+                (orderId, page) -> findUndatedOrderIdsByCustomerIdBefore(customerId, orderId, page));
+    }
+
+    @Query("SELECT DISTINCT o FROM Orders o LEFT JOIN FETCH o.productOrders po LEFT JOIN FETCH po.products WHERE o.orderId IN :orderIds")
+    List<Orders> findWithProductOrdersByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
 }
\ No newline at end of file
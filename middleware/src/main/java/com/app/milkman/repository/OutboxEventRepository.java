@@ -0,0 +1,34 @@
+package com.app.milkman.repository;
+
+import com.app.milkman.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events that are due for delivery. A lock timeout of -2 makes Hibernate add SKIP LOCKED, so
+     * concurrent relays each get a disjoint batch instead of waiting for one another. An event waits while an
+     * earlier one of its aggregate is still pending (in backoff, or locked by another relay), so each aggregate's
+     * events are delivered in write order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.availableTime <= :now AND NOT EXISTS ("
+            + "SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId AND p.status = 'PENDING' "
+            + "AND p.id < e.id) ORDER BY e.id")
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(String status);
+}
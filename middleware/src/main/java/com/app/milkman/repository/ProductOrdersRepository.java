@@ -3,6 +3,6 @@ package com.app.milkman.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface ProductOrdersRepository extends JpaRepository<com.app.milkman.entity.ProductOrders, Void>, JpaSpecificationExecutor<com.app.milkman.entity.ProductOrders> {
+public interface ProductOrdersRepository extends JpaRepository<com.app.milkman.entity.ProductOrders, String>, JpaSpecificationExecutor<com.app.milkman.entity.ProductOrders> {
 
 }
\ No newline at end of file
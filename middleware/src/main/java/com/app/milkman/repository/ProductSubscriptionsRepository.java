@@ -1,9 +1,20 @@
 package com.app.milkman.repository;
 
 import com.app.milkman.entity.ProductSubscriptions;
+import com.app.milkman.model.SubscriptionProductDetails;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductSubscriptionsRepository extends JpaRepository<ProductSubscriptions, Void>, JpaSpecificationExecutor<ProductSubscriptions> {
+import java.util.Collection;
+import java.util.List;
 
+public interface ProductSubscriptionsRepository extends JpaRepository<ProductSubscriptions, String>, JpaSpecificationExecutor<ProductSubscriptions> {
+
+    @Query("SELECT new com.app.milkman.model.SubscriptionProductDetails(ps.productSubscriptionId, "
+            + "ps.subscriptions.subscriptionId, ps.products.productId, ps.productName, ps.productPrice, ps.quantity, "
+            + "ps.createdBy, ps.createdTime, ps.updatedBy, ps.updatedTime, ps.status) "
+            + "FROM ProductSubscriptions ps WHERE ps.subscriptions.subscriptionId IN :subscriptionIds")
+    List<SubscriptionProductDetails> findProductDetailsBySubscriptionIdIn(@Param("subscriptionIds") Collection<String> subscriptionIds);
 }
\ No newline at end of file
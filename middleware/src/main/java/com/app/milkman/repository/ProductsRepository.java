@@ -6,7 +6,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductsRepository extends JpaRepository<Products, Void>, JpaSpecificationExecutor<Products> {
+public interface ProductsRepository extends JpaRepository<Products, String>, JpaSpecificationExecutor<Products> {
 
     Products findByProductId(String productId);
 }
\ No newline at end of file
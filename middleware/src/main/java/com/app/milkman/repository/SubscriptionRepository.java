@@ -1,12 +1,131 @@
 package com.app.milkman.repository;
 
 import com.app.milkman.entity.Subscriptions;
+import com.app.milkman.model.SubscriptionDetails;
+import com.app.milkman.utils.DeliveryDays;
+import com.app.milkman.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static com.app.milkman.utils.Constants.ACTIVE;
 
 public interface SubscriptionRepository extends JpaRepository<Subscriptions, String>, JpaSpecificationExecutor<Subscriptions> {
 
+    String SUBSCRIPTION_DETAILS = "SELECT new com.app.milkman.model.SubscriptionDetails(s.subscriptionId, s.customerId, "
+            + "s.customerName, s.primaryPhone, s.emailId, s.address, s.pinCode, s.landmark, s.orderDateTime, "
+            + "s.deliveryStartDate, s.deliveryEndDate, s.deliveryDays, s.deliveryTimeSlot, s.deliveryFrequency, "
+            + "s.orderStatus, s.createdBy, s.createdTime, s.updatedBy, s.updatedTime, s.status, s.deliveryCharge, "
+            + "s.orderTotal) FROM Subscriptions s";
+
     Page<Subscriptions> findByCustomerId(String customerId, Pageable pageable);
-}
\ No newline at end of file
+
+    // Subscription listing reads API DTOs straight from the result set (no entities, no count query)
+    @Query(SUBSCRIPTION_DETAILS)
+    List<SubscriptionDetails> findSubscriptionDetails(Pageable pageable);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.customerId = :customerId")
+    List<SubscriptionDetails> findSubscriptionDetailsByCustomerId(@Param("customerId") String customerId, Pageable pageable);
+
+    // Keyset listing, newest first, then the legacy subscriptions without a date (see PageCursor); the limit comes
+    // from the Pageable and no count query is issued
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.orderDateTime IS NOT NULL"
+            + " ORDER BY s.orderDateTime DESC, s.subscriptionId DESC")
+    List<SubscriptionDetails> findFirstSubscriptionDetails(Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.orderDateTime <= :orderDateTime"
+            + " AND (s.orderDateTime < :orderDateTime OR s.subscriptionId < :subscriptionId)"
+            + " ORDER BY s.orderDateTime DESC, s.subscriptionId DESC")
+    List<SubscriptionDetails> findSubscriptionDetailsBefore(@Param("orderDateTime") LocalDateTime orderDateTime,
+                                                            @Param("subscriptionId") String subscriptionId,
+                                                            Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.orderDateTime IS NULL ORDER BY s.subscriptionId DESC")
+    List<SubscriptionDetails> findFirstUndatedSubscriptionDetails(Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.orderDateTime IS NULL AND s.subscriptionId < :subscriptionId"
+            + " ORDER BY s.subscriptionId DESC")
+    List<SubscriptionDetails> findUndatedSubscriptionDetailsBefore(@Param("subscriptionId") String subscriptionId,
+                                                                   Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.customerId = :customerId AND s.orderDateTime IS NOT NULL"
+            + " ORDER BY s.orderDateTime DESC, s.subscriptionId DESC")
+    List<SubscriptionDetails> findFirstSubscriptionDetailsByCustomerId(@Param("customerId") String customerId,
+                                                                       Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.customerId = :customerId"
+            + " AND s.orderDateTime <= :orderDateTime"
+            + " AND (s.orderDateTime < :orderDateTime OR s.subscriptionId < :subscriptionId)"
+            + " ORDER BY s.orderDateTime DESC, s.subscriptionId DESC")
+    List<SubscriptionDetails> findSubscriptionDetailsByCustomerIdBefore(@Param("customerId") String customerId,
+                                                                        @Param("orderDateTime") LocalDateTime orderDateTime,
+                                                                        @Param("subscriptionId") String subscriptionId,
+                                                                        Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.customerId = :customerId AND s.orderDateTime IS NULL"
+            + " ORDER BY s.subscriptionId DESC")
+    List<SubscriptionDetails> findFirstUndatedSubscriptionDetailsByCustomerId(@Param("customerId") String customerId,
+                                                                              Pageable limit);
+
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.customerId = :customerId AND s.orderDateTime IS NULL"
+            + " AND s.subscriptionId < :subscriptionId ORDER BY s.subscriptionId DESC")
+    List<SubscriptionDetails> findUndatedSubscriptionDetailsByCustomerIdBefore(@Param("customerId") String customerId,
+                                                                               @Param("subscriptionId") String subscriptionId,
+                                                                               Pageable limit);
+
+    /**
+     * Up to limit subscriptions after a keyset position (null for the first page), in {@link PageCursor} order
+     */
+    default List<SubscriptionDetails> findSubscriptionDetailsAfter(PageCursor position, int limit) {
+        return PageCursor.rowsAfter(position, limit, this::findFirstSubscriptionDetails,
+                (after, page) -> findSubscriptionDetailsBefore(after.getOrderDateTime(), after.getId(), page),
+                this::findFirstUndatedSubscriptionDetails, this::findUndatedSubscriptionDetailsBefore);
+    }
+
+    default List<SubscriptionDetails> findSubscriptionDetailsByCustomerIdAfter(String customerId, PageCursor position,
+                                                                               int limit) {
+        return PageCursor.rowsAfter(position, limit,
+                page -> findFirstSubscriptionDetailsByCustomerId(customerId, page),
+                (after, page) -> findSubscriptionDetailsByCustomerIdBefore(customerId, after.getOrderDateTime(),
+                        after.getId(), page),
+                page -> findFirstUndatedSubscriptionDetailsByCustomerId(customerId, page),
+                (subscriptionId, page) -> findUndatedSubscriptionDetailsByCustomerIdBefore(customerId, subscriptionId,
+                        page));
+    }
+
+    // Day-of-week filters take every mask that contains the day (DeliveryDays.masksIncluding), so they can be
+    // answered from idx_subscriptions_active_deliverydaysmask instead of parsing deliveryDays row by row
+    @Query(SUBSCRIPTION_DETAILS + " WHERE s.status = :status AND s.deliveryDaysMask IN :masks"
+            + " ORDER BY s.subscriptionId")
+    List<SubscriptionDetails> findSubscriptionDetailsByDeliveryDaysMaskIn(@Param("status") String status,
+                                                                          @Param("masks") Collection<Short> masks,
+                                                                          Pageable pageable);
+
+    @Query("SELECT count(s) FROM Subscriptions s WHERE s.status = :status AND s.deliveryDaysMask IN :masks"
+            + " AND s.deliveryStartDate <= :date AND (s.deliveryEndDate IS NULL OR s.deliveryEndDate >= :date)")
+    long countByDeliveryDaysMaskInOn(@Param("status") String status, @Param("masks") Collection<Short> masks,
+                                     @Param("date") LocalDate date);
+
+    /**
+     * Active subscriptions delivered on a day of the week, whatever their date range
+     */
+    default List<SubscriptionDetails> findActiveSubscriptionDetailsByDeliveryDay(DayOfWeek day, Pageable pageable) {
+        return findSubscriptionDetailsByDeliveryDaysMaskIn(ACTIVE, DeliveryDays.masksIncluding(day), pageable);
+    }
+
+    /**
+     * Active subscriptions whose date range covers the date and whose delivery days include its day of the week
+     */
+    default long countActiveByDeliveryDate(LocalDate date) {
+        return countByDeliveryDaysMaskInOn(ACTIVE, DeliveryDays.masksIncluding(date.getDayOfWeek()), date);
+    }
+}
@@ -0,0 +1,10 @@
+package com.app.milkman.service;
+
+import com.app.milkman.model.DeliveryManifest;
+
+import java.time.LocalDate;
+
+public interface DeliveryManifestService {
+
+    DeliveryManifest getManifest(LocalDate deliveryDate);
+}
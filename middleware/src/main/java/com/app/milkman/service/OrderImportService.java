@@ -0,0 +1,12 @@
+package com.app.milkman.service;
+
+import com.app.milkman.model.OrderImportFormat;
+import com.app.milkman.model.OrderImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface OrderImportService {
+
+    OrderImportResponse importOrders(InputStream body, OrderImportFormat format) throws IOException;
+}
@@ -1,5 +1,6 @@
 package com.app.milkman.service;
 
+import com.app.milkman.model.CursorPage;
 import com.app.milkman.model.OrderDetails;
 import com.app.milkman.model.OrderRegRequest;
 import com.app.milkman.model.OrderRegResponse;
@@ -17,6 +18,10 @@ public interface OrderService {
     List<OrderDetails> getAllOrdersByCustomerId(String customerId, Pageable pageable);
     
     List<OrderDetails> getAllOrdersByPhone(String phoneNo, Pageable pageable);
+
+    CursorPage<OrderDetails> getAllOrders(String cursor, int size);
+
+    CursorPage<OrderDetails> getAllOrdersByPhone(String phoneNo, String cursor, int size);
     
     void deleteOrder(String orderId);
     
@@ -0,0 +1,20 @@
+package com.app.milkman.service;
+
+import com.app.milkman.model.PinCodeSales;
+import com.app.milkman.model.ProductSales;
+import com.app.milkman.model.SalesReconcileResponse;
+import com.app.milkman.model.SalesReport;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportService {
+
+    SalesReport getSales(LocalDate from, LocalDate to);
+
+    List<ProductSales> getProductSales(LocalDate from, LocalDate to);
+
+    List<PinCodeSales> getPinCodeSales(LocalDate from, LocalDate to);
+
+    SalesReconcileResponse reconcile(LocalDate from, LocalDate to);
+}
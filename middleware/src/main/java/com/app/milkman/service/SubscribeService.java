@@ -12,6 +12,8 @@ public interface SubscribeService {
     List<SubscriptionDetails> getAllOrders(Pageable pageable);
     List<SubscriptionDetails> getAllSubscriptionsByCustomerId(String customerId, Pageable pageable);
     List<SubscriptionDetails> getAllSubscriptionsByPhone(String phoneNo, Pageable pageable);
+    CursorPage<SubscriptionDetails> getAllOrders(String cursor, int size);
+    CursorPage<SubscriptionDetails> getAllSubscriptionsByPhone(String phoneNo, String cursor, int size);
     SubscribeResponse updateSubscription(SubscribeRequest subscribeRequest);
     void deleteSubscription(String subscriptionId);
 }
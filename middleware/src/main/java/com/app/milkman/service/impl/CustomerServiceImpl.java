@@ -1,5 +1,6 @@
 package com.app.milkman.service.impl;
 
+import com.app.milkman.component.CustomerIdAllocator;
 import com.app.milkman.component.JWTService;
 import com.app.milkman.entity.Customers;
 import com.app.milkman.model.CustomerAuthRequest;
@@ -35,6 +36,8 @@ public class CustomerServiceImpl implements CustomerService {
     private JWTService jwtService;
     @Autowired
     private EncryptDecrypt encryptDecrypt;
+    @Autowired
+    private CustomerIdAllocator customerIdAllocator;
 
     @Override
     public CustomerRegResponse registerCustomer(CustomerRegRequest custRequest) {
@@ -82,7 +85,7 @@ public class CustomerServiceImpl implements CustomerService {
         }
         
         // Generate customer ID (CUST### format)
-        String customerId = generateCustomerId();
+        String customerId = customerIdAllocator.nextCustomerId();
         
         Customers customers = new Customers();
         customers.setCustomerId(customerId);
@@ -122,10 +125,11 @@ public class CustomerServiceImpl implements CustomerService {
     public CustomerAuthResponse authenticate(CustomerAuthRequest authRequest) {
         log.info("[Authentication] Login attempt for user: {}", authRequest.getEmailIdOrPhone());
         
-        List<Customers> customers = customersRepository.getCustomersByEmailIdOrPrimaryPhoneAndAuthPin(
-                authRequest.getEmailIdOrPhone(), 
-                authRequest.getEmailIdOrPhone(), 
-                encryptDecrypt.encrypt(authRequest.getAuthPin(), KEY));
+        String identifier = authRequest.getEmailIdOrPhone() == null ? "" : authRequest.getEmailIdOrPhone();
+        String authPin = encryptDecrypt.encrypt(authRequest.getAuthPin(), KEY);
+        List<Customers> customers = isEmailId(identifier)
+                ? customersRepository.findActiveByEmailIdAndAuthPin(identifier, authPin)
+                : customersRepository.findActiveByPrimaryPhoneAndAuthPin(identifier, authPin);
         
         CustomerAuthResponse response = CustomerAuthResponse.builder().build();
         
@@ -152,6 +156,13 @@ public class CustomerServiceImpl implements CustomerService {
         return response;
     }
     
+    /**
+     * Login accepts a phone number or an e-mail address in the same field; only e-mail addresses contain '@'
+     */
+    private static boolean isEmailId(String identifier) {
+        return identifier.indexOf('@') >= 0;
+    }
+
     @Override
     public RefreshTokenResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
         log.info("[Token Refresh] Processing token refresh request");
@@ -200,47 +211,4 @@ public class CustomerServiceImpl implements CustomerService {
                     .build();
         }
     }
-    
-    /**
-     * Generate sequential customer ID in CUST### format
-     */
-    private String generateCustomerId() {
-        try {
-            // Get the latest customer ID
-            List<Customers> allCustomers = customersRepository.findAll();
-            
-            // If no customers exist, start with CUST001
-            if (allCustomers == null || allCustomers.isEmpty()) {
-                return "CUST001";
-            }
-            
-            // Find the highest customer number
-            int maxNumber = 0;
-            for (Customers customer : allCustomers) {
-                String customerId = customer.getCustomerId();
-                // Skip admin accounts and invalid formats
-                if (customerId != null && customerId.startsWith("CUST")) {
-                    try {
-                        String numberPart = customerId.substring(4); // Remove "CUST"
-                        int number = Integer.parseInt(numberPart);
-                        if (number > maxNumber) {
-                            maxNumber = number;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip invalid formats
-                        log.warn("[Customer ID Generation] Skipping invalid customer ID format: {}", customerId);
-                    }
-                }
-            }
-            
-            // Generate next ID
-            int nextNumber = maxNumber + 1;
-            return String.format("CUST%03d", nextNumber);
-            
-        } catch (Exception e) {
-            log.error("[Customer ID Generation] Error generating customer ID: {}", e.getMessage(), e);
-            // Fallback to timestamp-based ID if generation fails
-            return "CUST" + System.currentTimeMillis() % 100000;
-        }
-    }
 }
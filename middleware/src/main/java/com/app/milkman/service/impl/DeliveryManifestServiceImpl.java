@@ -0,0 +1,204 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.model.DeliveryManifest;
+import com.app.milkman.model.DeliveryManifestGroup;
+import com.app.milkman.model.DeliveryManifestItem;
+import com.app.milkman.service.DeliveryManifestService;
+import com.app.milkman.utils.DeliveryDays;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.app.milkman.utils.Constants.*;
+
+/**
+ * Builds the delivery manifest for a date: what each van carries, per pin code and time slot.
+ *
+ * Only subscriptions active on the date are read, with their product lines, as one forward-only result set
+ * fetched in chunks; the day of the week is filtered in the query through the deliverydaysmask column. Each
+ * subscription is checked as its first line arrives and its quantities are added to its group, so memory grows
+ * with the number of pin codes, slots and products rather than with the number of subscriptions.
+ */
+@Slf4j
+@Service
+public class DeliveryManifestServiceImpl implements DeliveryManifestService {
+
+    // Lines of one subscription arrive together, so a subscription is evaluated once. The day of the week is
+    // matched against every deliverydaysmask that contains it (DeliveryDays.masksIncluding).
+    private static final String ACTIVE_SUBSCRIPTION_LINES = "SELECT s.subscriptionid, s.pincode, s.deliverytimeslot, "
+            + "s.deliveryfrequency, s.deliverystartdate, ps.productid, ps.productname, ps.quantity "
+            + "FROM milkman.subscriptions s "
+            + "JOIN milkman.product_subscriptions ps ON ps.subscriptionid = s.subscriptionid "
+            + "WHERE s.status = ? AND s.deliverystartdate <= ? "
+            + "AND (s.deliveryenddate IS NULL OR s.deliveryenddate >= ?) "
+            + "AND s.deliverydaysmask IN (" + String.join(", ", Collections.nCopies(64, "?")) + ") "
+            + "ORDER BY s.subscriptionid";
+
+    private static final Comparator<DeliveryManifestGroup> GROUP_ORDER = Comparator
+            .comparing(DeliveryManifestGroup::getPinCode, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(DeliveryManifestGroup::getDeliveryTimeSlot, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<DeliveryManifestItem> ITEM_ORDER = Comparator
+            .comparing(DeliveryManifestItem::getProductId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.subscription.manifest.fetch-size:1000}")
+    private int fetchSize;
+
+    private Timer manifestTimer;
+
+    @PostConstruct
+    void init() {
+        manifestTimer = Timer.builder("subscription.manifest")
+                .description("Time to build the delivery manifest for a date").register(meterRegistry);
+    }
+
+    @Override
+    // A transaction lets the PostgreSQL driver fetch the result set in chunks instead of all at once
+    @Transactional(readOnly = true)
+    public DeliveryManifest getManifest(LocalDate deliveryDate) {
+        log.info("[Delivery Manifest] Building manifest for {}", deliveryDate);
+        long started = System.nanoTime();
+
+        ManifestBuilder builder = new ManifestBuilder(deliveryDate);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ACTIVE_SUBSCRIPTION_LINES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, ACTIVE);
+            statement.setObject(2, deliveryDate, Types.DATE);
+            statement.setObject(3, deliveryDate, Types.DATE);
+            int index = 4;
+            for (short mask : DeliveryDays.masksIncluding(deliveryDate.getDayOfWeek())) {
+                statement.setShort(index++, mask);
+            }
+            return statement;
+        }, builder);
+
+        DeliveryManifest manifest = builder.build();
+        long elapsed = System.nanoTime() - started;
+        manifestTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("[Delivery Manifest] {} of {} active subscriptions deliver on {} in {} groups ({} ms)",
+                manifest.getSubscriptions(), builder.activeSubscriptions, deliveryDate, manifest.getGroups().size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return manifest;
+    }
+
+    /**
+     * @return true if a subscription that is active on the date and delivers on its day of the week has a delivery
+     * that day
+     */
+    static boolean deliversOn(LocalDate date, String deliveryFrequency, LocalDate deliveryStartDate) {
+        return !ALTERNATE_DAYS.equalsIgnoreCase(deliveryFrequency)
+                || ChronoUnit.DAYS.between(deliveryStartDate, date) % 2 == 0;
+    }
+
+    /**
+     * Aggregates the streamed subscription lines into manifest groups
+     */
+    private static class ManifestBuilder implements RowCallbackHandler {
+
+        private final LocalDate deliveryDate;
+        private final Map<String, GroupTotals> groups = new HashMap<>();
+
+        private String subscriptionId;
+        // Group of the current subscription, null if it has no delivery on the date
+        private GroupTotals current;
+        private long activeSubscriptions;
+        private long deliveringSubscriptions;
+
+        ManifestBuilder(LocalDate deliveryDate) {
+            this.deliveryDate = deliveryDate;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String id = rs.getString(1);
+            if (!id.equals(subscriptionId)) {
+                subscriptionId = id;
+                activeSubscriptions++;
+                current = null;
+                if (deliversOn(deliveryDate, rs.getString(4), rs.getObject(5, LocalDate.class))) {
+                    String pinCode = rs.getString(2);
+                    String timeSlot = rs.getString(3);
+                    current = groups.computeIfAbsent(pinCode + '\u0000' + timeSlot,
+                            key -> new GroupTotals(pinCode, timeSlot));
+                    current.subscriptions++;
+                    deliveringSubscriptions++;
+                }
+            }
+            if (current != null) {
+                current.add(rs.getString(6), rs.getString(7), rs.getLong(8));
+            }
+        }
+
+        DeliveryManifest build() {
+            List<DeliveryManifestGroup> manifestGroups = groups.values().stream()
+                    .map(GroupTotals::toGroup)
+                    .sorted(GROUP_ORDER)
+                    .toList();
+            return DeliveryManifest.builder()
+                    .deliveryDate(deliveryDate)
+                    .subscriptions(deliveringSubscriptions)
+                    .groups(manifestGroups)
+                    .build();
+        }
+
+    }
+
+    private static class GroupTotals {
+
+        private final String pinCode;
+        private final String deliveryTimeSlot;
+        private final Map<String, DeliveryManifestItem> products = new HashMap<>();
+        private long subscriptions;
+
+        GroupTotals(String pinCode, String deliveryTimeSlot) {
+            this.pinCode = pinCode;
+            this.deliveryTimeSlot = deliveryTimeSlot;
+        }
+
+        void add(String productId, String productName, long quantity) {
+            DeliveryManifestItem item = products.get(productId);
+            if (item == null) {
+                products.put(productId, new DeliveryManifestItem(productId, productName, quantity));
+            } else {
+                item.setQuantity(item.getQuantity() + quantity);
+            }
+        }
+
+        DeliveryManifestGroup toGroup() {
+            return DeliveryManifestGroup.builder()
+                    .pinCode(pinCode)
+                    .deliveryTimeSlot(deliveryTimeSlot)
+                    .subscriptions(subscriptions)
+                    .products(products.values().stream().sorted(ITEM_ORDER).toList())
+                    .build();
+        }
+    }
+}
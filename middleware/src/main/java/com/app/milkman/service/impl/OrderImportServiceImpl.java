@@ -0,0 +1,518 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Customers;
+import com.app.milkman.model.OrderImportFormat;
+import com.app.milkman.model.OrderImportResponse;
+import com.app.milkman.model.OrderImportRow;
+import com.app.milkman.model.OrderImportRowResult;
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.outbox.OutboxEventType;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.report.SalesDelta;
+import com.app.milkman.report.SalesRollupWriter;
+import com.app.milkman.service.OrderImportService;
+import com.app.milkman.utils.OrderPricing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.app.milkman.utils.Constants.*;
+
+/**
+ * Bulk order import from CSV or NDJSON.
+ *
+ * The body is read one row at a time through a Jackson {@link MappingIterator}, so only the current batch of order
+ * lines and the per-row results are held in memory. Customers and products are resolved from maps built once per
+ * import: one query for the customers, the catalog snapshot for the products. Complete orders are buffered until
+ * they reach the configured number of lines and are then written with JDBC batch inserts, together with their
+ * ORDER_PLACED outbox events and sales rollup changes, in one transaction per batch. A batch that fails to save
+ * only rejects its own rows.
+ */
+@Slf4j
+@Service
+public class OrderImportServiceImpl implements OrderImportService {
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(OrderImportRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private static final ObjectReader NDJSON_READER = JsonMapper.builder().build().readerFor(OrderImportRow.class);
+
+    private static final String INSERT_ORDER = "INSERT INTO milkman.orders (orderid, customerid, customername, pphone, "
+            + "emailid, address, pincode, landmark, orderdatetime, deliverydate, deliverytimeslot, deliveryfrequency, "
+            + "orderstatus, createdby, createdtime, updatedby, updatedtime, status, deliverycharge, ordertotal) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER_LINE = "INSERT INTO milkman.product_orders (product_order_id, orderid, "
+            + "productid, productname, productprice, quantity, createdby, createdtime, updatedby, updatedtime, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private SalesRollupWriter salesRollupWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${milkman.order.import.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter importedRows;
+    private Counter failedRows;
+    private Timer importTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        importedRows = Counter.builder("order.import.rows").tag("result", "imported")
+                .description("Bulk import rows saved as order lines").register(meterRegistry);
+        failedRows = Counter.builder("order.import.rows").tag("result", "failed")
+                .description("Bulk import rows rejected or not saved").register(meterRegistry);
+        importTimer = Timer.builder("order.import")
+                .description("Time to read and save one bulk order import").register(meterRegistry);
+    }
+
+    @Override
+    public OrderImportResponse importOrders(InputStream body, OrderImportFormat format) throws IOException {
+        log.info("[Order Import] Starting {} import with batches of {} lines", format, batchSize);
+        long started = System.nanoTime();
+
+        ImportRun run = new ImportRun(loadCustomers(), productCatalog.getProducts().stream()
+                .collect(Collectors.toMap(ProductDetails::getProductId, product -> product)));
+        ObjectReader reader = format == OrderImportFormat.CSV ? CSV_READER : NDJSON_READER;
+        try (MappingIterator<OrderImportRow> rows = reader.readValues(body)) {
+            while (true) {
+                OrderImportRow row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resynchronise reliably, so nothing after a malformed row is read
+                    run.abort(e);
+                    break;
+                }
+                run.add(row);
+            }
+        }
+        run.finish();
+
+        importTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        importedRows.increment(run.rowsImported);
+        failedRows.increment(run.rowsFailed);
+        log.info("[Order Import] Read {} rows: {} imported into {} orders, {} failed",
+                run.rowsRead, run.rowsImported, run.ordersCreated, run.rowsFailed);
+
+        OrderImportResponse response = OrderImportResponse.builder()
+                .rowsRead(run.rowsRead)
+                .rowsImported(run.rowsImported)
+                .rowsFailed(run.rowsFailed)
+                .ordersCreated(run.ordersCreated)
+                .results(run.results)
+                .build();
+        if (run.rowsFailed == 0) {
+            response.setStatus(SUCCESS);
+            response.setStatusCode(SUCCESS_CODE);
+        } else {
+            response.setStatus(FAILED);
+            response.setStatusCode("400");
+            response.setErrorMsg(run.rowsFailed + " of " + run.results.size() + " rows were not imported");
+        }
+        return response;
+    }
+
+    /**
+     * Loads the order-relevant details of every customer in one query, keyed by customer ID
+     */
+    private Map<String, Customers> loadCustomers() {
+        Map<String, Customers> customers = new HashMap<>();
+        jdbcTemplate.query("SELECT customerid, firstname, lastname, pphone, emailid, address, pincode, landmark "
+                + "FROM milkman.customers WHERE customerid IS NOT NULL", (RowCallbackHandler) rs -> {
+            Customers customer = new Customers();
+            customer.setCustomerId(rs.getString("customerid"));
+            customer.setFirstName(rs.getString("firstname"));
+            customer.setLastName(rs.getString("lastname"));
+            customer.setPrimaryPhone(rs.getString("pphone"));
+            customer.setEmailId(rs.getString("emailid"));
+            customer.setAddress(rs.getString("address"));
+            customer.setPinCode(rs.getString("pincode"));
+            customer.setLandmark(rs.getString("landmark"));
+            customers.putIfAbsent(customer.getCustomerId(), customer);
+        });
+        log.debug("[Order Import] Loaded {} customers", customers.size());
+        return customers;
+    }
+
+    /**
+     * State of one import: the order being read, the batch waiting to be saved and the per-row results
+     */
+    private class ImportRun {
+
+        private final Map<String, Customers> customers;
+        private final Map<String, ProductDetails> products;
+        private final List<OrderImportRowResult> results = new ArrayList<>();
+
+        private final List<ImportLine> currentOrder = new ArrayList<>();
+        private String currentRef;
+        private final List<ImportOrder> batch = new ArrayList<>();
+        private int batchLines;
+
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsFailed;
+        private long ordersCreated;
+
+        ImportRun(Map<String, Customers> customers, Map<String, ProductDetails> products) {
+            this.customers = customers;
+            this.products = products;
+        }
+
+        void add(OrderImportRow row) {
+            rowsRead++;
+            String ref = trimToNull(row.getOrderRef());
+            if (!currentOrder.isEmpty() && (ref == null || !ref.equals(currentRef))) {
+                closeOrder();
+            }
+            OrderImportRowResult result = OrderImportRowResult.builder().row(rowsRead).orderRef(ref).build();
+            results.add(result);
+            currentOrder.add(new ImportLine(row, result));
+            currentRef = ref;
+            if (ref == null) {
+                closeOrder();
+            }
+        }
+
+        void abort(JsonProcessingException e) {
+            log.warn("[Order Import] Stopped at unreadable row {}: {}", rowsRead + 1, e.getOriginalMessage());
+            // The rest of the current order may sit after the unreadable row
+            for (ImportLine line : currentOrder) {
+                fail(line.result, "Order not imported: the input could not be read past row " + rowsRead);
+            }
+            currentOrder.clear();
+            OrderImportRowResult unreadable = OrderImportRowResult.builder().row(rowsRead + 1).build();
+            results.add(unreadable);
+            fail(unreadable, "Malformed input: " + e.getOriginalMessage());
+        }
+
+        void finish() {
+            closeOrder();
+            saveBatch();
+        }
+
+        private void closeOrder() {
+            if (currentOrder.isEmpty()) {
+                return;
+            }
+            ImportOrder order = validate(currentOrder);
+            currentOrder.clear();
+            if (order != null) {
+                batch.add(order);
+                batchLines += order.lines.size();
+                if (batchLines >= batchSize) {
+                    saveBatch();
+                }
+            }
+        }
+
+        /**
+         * Checks every line of an order; the order is only kept if all of them are valid. Customer, delivery and
+         * charge columns are taken from the first line.
+         */
+        private ImportOrder validate(List<ImportLine> lines) {
+            OrderImportRow first = lines.get(0).row;
+            String customerId = trimToNull(first.getCustomerId());
+            Customers customer = customerId == null ? null : customers.get(customerId);
+
+            ImportOrder order = new ImportOrder();
+            List<String> errors = new ArrayList<>(lines.size());
+            if (customer == null) {
+                errors.add("Unknown customer ID: " + customerId);
+            } else {
+                order.customer = customer;
+                order.deliveryTimeSlot = trimToNull(first.getDeliveryTimeSlot());
+                order.deliveryFrequency = trimToNull(first.getDeliveryFrequency());
+                try {
+                    String date = trimToNull(first.getDeliveryDate());
+                    order.deliveryDate = date == null ? null : LocalDate.parse(date);
+                } catch (DateTimeParseException e) {
+                    errors.add("Invalid delivery date: " + first.getDeliveryDate());
+                }
+                order.deliveryCharge = parseAmount(first.getDeliveryCharge());
+                if (order.deliveryCharge == null) {
+                    errors.add("Invalid delivery charge: " + first.getDeliveryCharge());
+                }
+            }
+            if (!errors.isEmpty()) {
+                failAll(lines, String.join("; ", errors));
+                return null;
+            }
+
+            boolean valid = true;
+            order.orderId = UUID.randomUUID().toString();
+            // Priced like an order placed through the API
+            long orderTotalPaise = OrderPricing.toPaise(order.deliveryCharge);
+            order.deliveryCharge = OrderPricing.toRupees(orderTotalPaise);
+            for (ImportLine line : lines) {
+                String error = null;
+                String lineCustomerId = trimToNull(line.row.getCustomerId());
+                String productId = trimToNull(line.row.getProductId());
+                line.product = productId == null ? null : products.get(productId);
+                line.quantity = parseQuantity(line.row.getQuantity());
+                if (lineCustomerId != null && !lineCustomerId.equals(customerId)) {
+                    error = "Customer ID " + lineCustomerId + " differs from the first line of the order";
+                } else if (line.product == null) {
+                    error = "Unknown product ID: " + productId;
+                } else if (line.quantity <= 0) {
+                    error = "Invalid quantity: " + line.row.getQuantity();
+                }
+                if (error != null) {
+                    fail(line.result, error);
+                    valid = false;
+                } else {
+                    line.productOrderId = UUID.randomUUID().toString();
+                    line.price = OrderPricing.toRupees(line.product.getPricePaise());
+                    orderTotalPaise = Math.addExact(orderTotalPaise,
+                            OrderPricing.lineTotal(line.product.getPricePaise(), line.quantity));
+                }
+            }
+            if (!valid) {
+                for (ImportLine line : lines) {
+                    if (line.result.getStatus() == null) {
+                        fail(line.result, "Order not imported: another line of the order is invalid");
+                    }
+                }
+                return null;
+            }
+            order.orderTotal = OrderPricing.toRupees(orderTotalPaise);
+            order.lines = new ArrayList<>(lines);
+            return order;
+        }
+
+        private void saveBatch() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                for (ImportOrder order : batch) {
+                    for (ImportLine line : order.lines) {
+                        line.result.setOrderId(order.orderId);
+                        line.result.setStatus(SUCCESS);
+                    }
+                    rowsImported += order.lines.size();
+                    ordersCreated++;
+                }
+                log.debug("[Order Import] Saved {} orders with {} lines", batch.size(), batchLines);
+            } catch (DataAccessException | TransactionException e) {
+                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.error("[Order Import] Could not save a batch of {} orders: {}", batch.size(), cause, e);
+                for (ImportOrder order : batch) {
+                    failAll(order.lines, "Could not save order: " + cause);
+                }
+            }
+            batch.clear();
+            batchLines = 0;
+        }
+
+        private void failAll(List<ImportLine> lines, String error) {
+            lines.forEach(line -> fail(line.result, error));
+        }
+
+        private void fail(OrderImportRowResult result, String error) {
+            result.setStatus(FAILED);
+            result.setErrorMsg(error);
+            rowsFailed++;
+        }
+    }
+
+    private void insert(List<ImportOrder> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orders, batchSize, (ps, order) -> {
+            Customers customer = order.customer;
+            String customerName = customer.getFirstName() + " " + customer.getLastName();
+            ps.setString(1, order.orderId);
+            ps.setString(2, customer.getCustomerId());
+            ps.setString(3, customerName);
+            ps.setString(4, customer.getPrimaryPhone());
+            ps.setString(5, customer.getEmailId());
+            ps.setString(6, customer.getAddress());
+            ps.setString(7, customer.getPinCode());
+            ps.setString(8, customer.getLandmark());
+            ps.setObject(9, now, Types.TIMESTAMP);
+            ps.setObject(10, order.deliveryDate, Types.DATE);
+            ps.setString(11, order.deliveryTimeSlot);
+            ps.setString(12, order.deliveryFrequency);
+            ps.setString(13, ORDER_PLACED);
+            ps.setString(14, customerName);
+            ps.setObject(15, now, Types.TIMESTAMP);
+            ps.setString(16, customerName);
+            ps.setObject(17, now, Types.TIMESTAMP);
+            ps.setString(18, ACTIVE);
+            ps.setBigDecimal(19, order.deliveryCharge);
+            ps.setBigDecimal(20, order.orderTotal);
+        });
+
+        List<ImportLine> lines = new ArrayList<>();
+        Map<String, Map<String, Object>> events = new LinkedHashMap<>();
+        SalesDelta salesDelta = new SalesDelta();
+        for (ImportOrder order : orders) {
+            SalesDelta.OrderSales sales = salesDelta.order(1, now, order.customer.getPinCode(), order.orderTotal,
+                    order.deliveryCharge);
+            for (ImportLine line : order.lines) {
+                line.order = order;
+                lines.add(line);
+                sales.line(line.product.getProductId(), line.quantity, line.price);
+            }
+            events.put(order.orderId, orderPlacedPayload(order));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_LINE, lines, batchSize, (ps, line) -> {
+            String customerName = line.order.customer.getFirstName() + " " + line.order.customer.getLastName();
+            ps.setString(1, line.productOrderId);
+            ps.setString(2, line.order.orderId);
+            ps.setString(3, line.product.getProductId());
+            ps.setString(4, line.product.getProductName());
+            ps.setBigDecimal(5, line.price);
+            ps.setLong(6, line.quantity);
+            ps.setString(7, customerName);
+            ps.setObject(8, now, Types.TIMESTAMP);
+            ps.setString(9, customerName);
+            ps.setObject(10, now, Types.TIMESTAMP);
+            ps.setString(11, ACTIVE);
+        });
+        outboxPublisher.publishAll(OutboxEventType.ORDER_PLACED, events);
+        salesRollupWriter.apply(salesDelta);
+    }
+
+    /**
+     * Same event payload as an order placed through the API
+     */
+    private static Map<String, Object> orderPlacedPayload(ImportOrder order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.orderId);
+        payload.put("customerId", order.customer.getCustomerId());
+        payload.put("deliveryDate", order.deliveryDate);
+        payload.put("deliveryTimeSlot", order.deliveryTimeSlot);
+        payload.put("deliveryFrequency", order.deliveryFrequency);
+        payload.put("orderTotal", order.orderTotal);
+        payload.put("lines", order.lines.stream()
+                .map(line -> Map.of("productId", line.product.getProductId(), "quantity", (long) line.quantity))
+                .collect(Collectors.toList()));
+        return payload;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * @return the quantity, or 0 if it is missing or not a whole number
+     */
+    private static int parseQuantity(String value) {
+        String quantity = trimToNull(value);
+        if (quantity == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(quantity);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return the amount, zero when blank, or null if it is negative or not a number
+     */
+    private static BigDecimal parseAmount(String value) {
+        String amount = trimToNull(value);
+        if (amount == null) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            BigDecimal parsed = new BigDecimal(amount);
+            return parsed.signum() < 0 ? null : parsed;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class ImportOrder {
+        private String orderId;
+        private Customers customer;
+        private LocalDate deliveryDate;
+        private String deliveryTimeSlot;
+        private String deliveryFrequency;
+        private BigDecimal deliveryCharge;
+        private BigDecimal orderTotal;
+        private List<ImportLine> lines;
+    }
+
+    private static class ImportLine {
+        private final OrderImportRow row;
+        private final OrderImportRowResult result;
+        private ImportOrder order;
+        private ProductDetails product;
+        private int quantity;
+        private BigDecimal price;
+        private String productOrderId;
+
+        ImportLine(OrderImportRow row, OrderImportRowResult result) {
+            this.row = row;
+            this.result = result;
+        }
+    }
+}
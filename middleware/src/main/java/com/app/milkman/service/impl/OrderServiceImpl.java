@@ -1,18 +1,23 @@
 package com.app.milkman.service.impl;
 
+import com.app.milkman.component.ProductCatalog;
 import com.app.milkman.entity.Customers;
 import com.app.milkman.entity.Orders;
 import com.app.milkman.entity.ProductOrders;
-import com.app.milkman.entity.Products;
 import com.app.milkman.model.*;
+import com.app.milkman.outbox.OutboxEventType;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.report.SalesDelta;
+import com.app.milkman.report.SalesRollupWriter;
 import com.app.milkman.repository.CustomersRepository;
 import com.app.milkman.repository.OrdersRepository;
 import com.app.milkman.repository.ProductOrdersRepository;
 import com.app.milkman.repository.ProductsRepository;
 import com.app.milkman.service.OrderService;
+import com.app.milkman.utils.OrderPricing;
+import com.app.milkman.utils.PageCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,8 +25,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.app.milkman.utils.Constants.*;
@@ -39,15 +50,33 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private ProductsRepository productsRepository;
 
+    @Autowired
+    private ProductCatalog productCatalog;
+
     @Autowired
     private ProductOrdersRepository productOrdersRepository;
 
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private SalesRollupWriter salesRollupWriter;
+
     @Override
+    @Transactional
     public OrderRegResponse createOrder(OrderRegRequest orderRegRequest) {
         log.info("[Order Creation] Creating order for customer ID: {}", orderRegRequest.getCustomerId());
 
         Customers customers = customersRepository.findByCustomerId(orderRegRequest.getCustomerId());
 
+        // Resolve every product on the order with a single lookup
+        Map<String, ProductDetails> products = getProducts(orderRegRequest.getProductOrderReqs());
+        List<String> unknownProductIds = getUnknownProductIds(orderRegRequest.getProductOrderReqs(), products);
+        if (!unknownProductIds.isEmpty()) {
+            log.warn("[Order Creation] Unknown product IDs for customer {}: {}", orderRegRequest.getCustomerId(), unknownProductIds);
+            return unknownProductsResponse(orderRegRequest.getOrderId(), unknownProductIds);
+        }
+
         Orders orders = new Orders();
         orders.setOrderId(UUID.randomUUID().toString());
 
@@ -65,22 +94,26 @@ public class OrderServiceImpl implements OrderService {
         orders.setDeliveryTimeSlot(orderRegRequest.getDeliveryTimeSlot());
         orders.setDeliveryDate(orderRegRequest.getDeliveryDate());
         orders.setDeliveryFrequency(orderRegRequest.getDeliveryFrequency());
-        orders.setDeliveryCharge(BigDecimal.valueOf(orderRegRequest.getDeliveryCharge()));
+        long deliveryChargePaise = OrderPricing.toPaise(orderRegRequest.getDeliveryCharge());
+        orders.setDeliveryCharge(OrderPricing.toRupees(deliveryChargePaise));
         orders.setOrderStatus(ORDER_PLACED);
         orders.setStatus(ACTIVE);
         orders.setCreatedBy(orders.getCustomerName());
         orders.setCreatedTime(LocalDateTime.now());
         orders.setUpdatedBy(orders.getCustomerName());
         orders.setUpdatedTime(LocalDateTime.now());
-        List<ProductOrders> productOrders = getProductOrders(orderRegRequest.getProductOrderReqs(), orders);
+        List<ProductOrders> productOrders = getProductOrders(orderRegRequest.getProductOrderReqs(), products, orders);
 
         //Order total calculation
-        double orderTotal = productOrders.stream().mapToDouble(po -> po.getProductPrice().multiply(BigDecimal.valueOf(po.getQuantity())).doubleValue())
-                .sum() + orderRegRequest.getDeliveryCharge();
-        orders.setOrderTotal(BigDecimal.valueOf(orderTotal));
+        orders.setOrderTotal(OrderPricing.toRupees(
+                OrderPricing.orderTotal(orderRegRequest.getProductOrderReqs(), products, deliveryChargePaise)));
 
         Orders saveOrder = ordersRepository.save(orders);
         List<ProductOrders> saveProductOrders = productOrdersRepository.saveAll(productOrders);
+        outboxPublisher.publish(OutboxEventType.ORDER_PLACED, saveOrder.getOrderId(), orderPayload(saveOrder, saveProductOrders));
+        SalesDelta salesDelta = new SalesDelta();
+        salesDelta.add(saveOrder, saveProductOrders);
+        salesRollupWriter.apply(salesDelta);
         
         log.info("[Order Creation] Successfully created order ID: {} for customer: {} with {} items, Total: {}", 
                  saveOrder.getOrderId(), saveOrder.getCustomerName(), 
@@ -94,25 +127,26 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDetails> getAllOrders(Pageable pageable) {
         log.info("[Order Retrieval] Fetching all orders with pagination - Page: {}, Size: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
-        Page<Orders> orders = ordersRepository.findAll(pageable);
-        List<OrderDetails> orderDetails = getOrderDetails(orders);
+        List<OrderDetails> orderDetails = getOrderDetails(ordersRepository.findOrderIds(pageable));
         log.info("[Order Retrieval] Retrieved {} orders", orderDetails.size());
         return orderDetails;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDetails> getAllOrdersByCustomerId(String customerId, Pageable pageable) {
         log.info("[Order Retrieval] Fetching orders for customer ID: {}", customerId);
-        Page<Orders> orders = ordersRepository.findByCustomerId(customerId, pageable);
-        List<OrderDetails> orderDetails = getOrderDetails(orders);
+        List<OrderDetails> orderDetails = getOrderDetails(ordersRepository.findOrderIdsByCustomerId(customerId, pageable));
         log.info("[Order Retrieval] Retrieved {} orders for customer: {}", orderDetails.size(), customerId);
         return orderDetails;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDetails> getAllOrdersByPhone(String phoneNo, Pageable pageable) {
         log.info("[Order Retrieval] Fetching orders for phone: {}", phoneNo);
         
@@ -123,12 +157,62 @@ public class OrderServiceImpl implements OrderService {
                 return new RuntimeException("Customer not found");
             });
         
-        Page<Orders> orders = ordersRepository.findByCustomerId(customer.getCustomerId(), pageable);
-        List<OrderDetails> orderDetails = getOrderDetails(orders);
+        List<OrderDetails> orderDetails = getOrderDetails(
+                ordersRepository.findOrderIdsByCustomerId(customer.getCustomerId(), pageable));
         log.info("[Order Retrieval] Retrieved {} orders for phone: {}", orderDetails.size(), phoneNo);
         return orderDetails;
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDetails> getAllOrders(String cursor, int size) {
+        log.info("[Order Retrieval] Fetching all orders after cursor: {}, Size: {}", cursor, size);
+        List<String> orderIds = ordersRepository.findOrderIdsAfter(decodeCursor(cursor), size + 1);
+        CursorPage<OrderDetails> page = getOrderPage(orderIds, size);
+        log.info("[Order Retrieval] Retrieved {} orders", page.getContent().size());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDetails> getAllOrdersByPhone(String phoneNo, String cursor, int size) {
+        log.info("[Order Retrieval] Fetching orders for phone: {} after cursor: {}", phoneNo, cursor);
+
+        Customers customer = customersRepository.findByPrimaryPhone(phoneNo).stream().findFirst()
+            .orElseThrow(() -> {
+                log.error("[Order Retrieval] Customer not found with phone: {}", phoneNo);
+                return new RuntimeException("Customer not found");
+            });
+
+        List<String> orderIds = ordersRepository.findOrderIdsByCustomerIdAfter(customer.getCustomerId(),
+                decodeCursor(cursor), size + 1);
+        CursorPage<OrderDetails> page = getOrderPage(orderIds, size);
+        log.info("[Order Retrieval] Retrieved {} orders for phone: {}", page.getContent().size(), phoneNo);
+        return page;
+    }
+
+    /**
+     * @return null for the first page, the decoded position otherwise
+     * @throws IllegalArgumentException if the cursor is not one this service issued
+     */
+    private PageCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor);
+    }
+
+    /**
+     * Builds a keyset page from up to size + 1 IDs; the extra ID only signals that another page exists
+     */
+    private CursorPage<OrderDetails> getOrderPage(List<String> orderIds, int size) {
+        boolean hasMore = orderIds.size() > size;
+        List<OrderDetails> content = getOrderDetails(hasMore ? orderIds.subList(0, size) : orderIds);
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDetails last = content.get(content.size() - 1);
+            nextCursor = new PageCursor(last.getOrderDateTime(), last.getOrderId()).encode();
+        }
+        return CursorPage.<OrderDetails>builder().content(content).nextCursor(nextCursor).build();
+    }
+
     @Override
     @Transactional
     public void deleteOrder(String orderId) {
@@ -144,7 +228,14 @@ public class OrderServiceImpl implements OrderService {
         log.info("[Order Deletion] Deleting order with {} product orders", 
                  order.getProductOrders() != null ? order.getProductOrders().size() : 0);
         
+        SalesDelta salesDelta = new SalesDelta();
+        salesDelta.subtract(order, order.getProductOrders());
         ordersRepository.delete(order);
+        salesRollupWriter.apply(salesDelta);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("customerId", order.getCustomerId());
+        outboxPublisher.publish(OutboxEventType.ORDER_DELETED, orderId, payload);
         log.info("[Order Deletion] Successfully deleted order ID: {}", orderId);
     }
     
@@ -161,7 +252,19 @@ public class OrderServiceImpl implements OrderService {
             });
         
         log.info("[Order Update] Found existing order for customer: {}", existingOrder.getCustomerName());
+
+        // Validate products before touching the existing lines
+        Map<String, ProductDetails> products = getProducts(orderRegRequest.getProductOrderReqs());
+        List<String> unknownProductIds = getUnknownProductIds(orderRegRequest.getProductOrderReqs(), products);
+        if (!unknownProductIds.isEmpty()) {
+            log.warn("[Order Update] Unknown product IDs for order {}: {}", orderRegRequest.getOrderId(), unknownProductIds);
+            return unknownProductsResponse(orderRegRequest.getOrderId(), unknownProductIds);
+        }
         
+        // Take the order out of the sales rollups as it was before the update
+        SalesDelta salesDelta = new SalesDelta();
+        salesDelta.subtract(existingOrder, existingOrder.getProductOrders());
+
         // Remove existing product orders using iterator to maintain cascade relationship
         List<ProductOrders> existingProductOrders = existingOrder.getProductOrders();
         if (existingProductOrders != null && !existingProductOrders.isEmpty()) {
@@ -175,30 +278,33 @@ public class OrderServiceImpl implements OrderService {
         existingOrder.setDeliveryTimeSlot(orderRegRequest.getDeliveryTimeSlot());
         existingOrder.setDeliveryFrequency(orderRegRequest.getDeliveryFrequency());
         existingOrder.setOrderStatus(orderRegRequest.getOrderStatus());
-        existingOrder.setDeliveryCharge(BigDecimal.valueOf(orderRegRequest.getDeliveryCharge()));
+        long deliveryChargePaise = OrderPricing.toPaise(orderRegRequest.getDeliveryCharge());
+        existingOrder.setDeliveryCharge(OrderPricing.toRupees(deliveryChargePaise));
         existingOrder.setUpdatedBy(existingOrder.getCustomerName());
         existingOrder.setUpdatedTime(LocalDateTime.now());
         
         // Create new product orders
-        List<ProductOrders> newProductOrders = getProductOrders(orderRegRequest.getProductOrderReqs(), existingOrder);
+        List<ProductOrders> newProductOrders = getProductOrders(orderRegRequest.getProductOrderReqs(), products, existingOrder);
         
-        // Calculate new total
-        BigDecimal productTotal = newProductOrders.stream()
-            .map(po -> po.getProductPrice().multiply(BigDecimal.valueOf(po.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal orderTotal = productTotal.add(existingOrder.getDeliveryCharge());
+        // Calculate new total, the same way as on creation
+        BigDecimal orderTotal = OrderPricing.toRupees(
+                OrderPricing.orderTotal(orderRegRequest.getProductOrderReqs(), products, deliveryChargePaise));
         existingOrder.setOrderTotal(orderTotal);
         
         // Add new product orders to the collection
         existingOrder.getProductOrders().addAll(newProductOrders);
         
-        // Save updated order (cascade will save product orders)
-        Orders updatedOrder = ordersRepository.save(existingOrder);
+        // The order is managed, so the flush on commit persists the new lines. save() would merge it, and merging
+        // the new lines (assigned IDs) issues a SELECT per line
+        salesDelta.add(existingOrder, newProductOrders);
+        salesRollupWriter.apply(salesDelta);
+        outboxPublisher.publish(OutboxEventType.ORDER_UPDATED, existingOrder.getOrderId(),
+                orderPayload(existingOrder, newProductOrders));
         
         log.info("[Order Update] Successfully updated order: {} with {} products, Total: {}", 
-                 updatedOrder.getOrderId(), newProductOrders.size(), orderTotal);
+                 existingOrder.getOrderId(), newProductOrders.size(), orderTotal);
         
-        OrderRegResponse response = OrderRegResponse.builder().orderId(updatedOrder.getOrderId()).build();
+        OrderRegResponse response = OrderRegResponse.builder().orderId(existingOrder.getOrderId()).build();
         response.setStatusCode(SUCCESS_CODE);
         response.setStatus(SUCCESS);
         
@@ -206,17 +312,48 @@ public class OrderServiceImpl implements OrderService {
     }
 
 
-    private List<ProductOrders> getProductOrders(List<ProductOrdersReq> productOrderReq, Orders order) {
+    /**
+     * Loads all products referenced by the order lines in one query, keyed by product ID
+     */
+    private Map<String, ProductDetails> getProducts(List<ProductOrdersReq> productOrderReq) {
+        Set<String> productIds = productOrderReq.stream()
+                .map(ProductOrdersReq::getProductId)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productCatalog.getProducts(productIds);
+    }
+
+    private List<String> getUnknownProductIds(List<ProductOrdersReq> productOrderReq, Map<String, ProductDetails> products) {
+        return productOrderReq.stream()
+                .map(ProductOrdersReq::getProductId)
+                .filter(productId -> !products.containsKey(productId))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private OrderRegResponse unknownProductsResponse(String orderId, List<String> unknownProductIds) {
+        OrderRegResponse response = OrderRegResponse.builder().orderId(orderId).build();
+        response.setStatusCode("400");
+        response.setStatus(FAILED);
+        response.setErrorMsg("Unknown product ID(s): " + String.join(", ", unknownProductIds));
+        return response;
+    }
+
+    private List<ProductOrders> getProductOrders(List<ProductOrdersReq> productOrderReq,
+                                                 Map<String, ProductDetails> products, Orders order) {
 
         List<ProductOrders> productOrdersList = productOrderReq.stream().map(po -> {
-            Products product = productsRepository.findByProductId(po.getProductId());
+            ProductDetails product = products.get(po.getProductId());
 
             ProductOrders productOrder = new ProductOrders();
             productOrder.setProductOrderId(UUID.randomUUID().toString());
             productOrder.setOrders(order);
-            productOrder.setProducts(product);
+            // Lines are priced from the catalog snapshot; the product itself is only referenced by ID
+            productOrder.setProducts(productsRepository.getReferenceById(product.getProductId()));
             productOrder.setProductName(product.getProductName());
-            productOrder.setProductPrice(product.getProductPrice());
+            productOrder.setProductPrice(OrderPricing.toRupees(product.getPricePaise()));
             productOrder.setQuantity(Long.valueOf(po.getQuantity()));
 
             productOrder.setCreatedBy(order.getCustomerName());
@@ -229,8 +366,39 @@ public class OrderServiceImpl implements OrderService {
         return productOrdersList;
     }
 
+    /**
+     * Event payload for downstream consumers: the order and its lines, without customer contact details
+     */
+    private Map<String, Object> orderPayload(Orders order, List<ProductOrders> productOrders) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getOrderId());
+        payload.put("customerId", order.getCustomerId());
+        payload.put("deliveryDate", order.getDeliveryDate());
+        payload.put("deliveryTimeSlot", order.getDeliveryTimeSlot());
+        payload.put("deliveryFrequency", order.getDeliveryFrequency());
+        payload.put("orderTotal", order.getOrderTotal());
+        payload.put("lines", productOrders.stream()
+                .map(line -> Map.of("productId", line.getProducts().getProductId(), "quantity", line.getQuantity()))
+                .collect(Collectors.toList()));
+        return payload;
+    }
+
+
+    /**
+     * Loads the given page of orders with their lines and products in one query, keeping the page order
+     */
+    private List<OrderDetails> getOrderDetails(List<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Orders> ordersById = ordersRepository.findWithProductOrdersByOrderIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Orders::getOrderId, Function.identity()));
+        return getOrderDetails(orderIds.stream().map(ordersById::get).filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
 
-    private List<OrderDetails> getOrderDetails(Page<Orders> orders){
+    // Package-private for the mapping benchmark
+    static List<OrderDetails> getOrderDetails(Iterable<Orders> orders){
         List<OrderDetails> orderDetailsList = new ArrayList<>();
         orders.forEach(order -> {
             OrderDetails orderDetails =  OrderDetails.builder().orderId(order.getOrderId())
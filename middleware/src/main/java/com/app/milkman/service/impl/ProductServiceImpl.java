@@ -1,5 +1,6 @@
 package com.app.milkman.service.impl;
 
+import com.app.milkman.component.ProductCatalog;
 import com.app.milkman.entity.Products;
 import com.app.milkman.model.ProductDetails;
 import com.app.milkman.model.ProductRegRequest;
@@ -31,6 +32,9 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     ProductsRepository productsRepository;
 
+    @Autowired
+    ProductCatalog productCatalog;
+
     @Override
     public ProductRegResponse registerProduct(ProductRegRequest productReg) {
         log.info("[Product Registration] Starting registration for product: {}", productReg.getProductName());
@@ -50,6 +54,7 @@ public class ProductServiceImpl implements ProductService {
 
             // Insert Product
             Products productSave = productsRepository.save(product);
+            productCatalog.invalidate();
             log.info("[Product Registration] Successfully registered product: {} (ID: {})", 
                      productSave.getProductName(), productSave.getProductId());
 
@@ -97,6 +102,7 @@ public class ProductServiceImpl implements ProductService {
                 ? BigDecimal.valueOf(productReg.getPrice()) : product.getProductPrice());
         //Update DB record
         Products saveProduct = productsRepository.save(product);
+        productCatalog.invalidate();
         log.info("[Product Update] Successfully updated product: {} (ID: {})", 
                  saveProduct.getProductName(), saveProduct.getProductId());
 
@@ -111,23 +117,16 @@ public class ProductServiceImpl implements ProductService {
         log.info("[Product Retrieval] Fetching all products with pagination - Page: {}, Size: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Products> products = productsRepository.findAll(pageable);
-        List<ProductDetails> response = products.stream().map(ps -> copyProduct(ps)).collect(Collectors.toList());
+        List<ProductDetails> response;
+        if (pageable.getSort().isSorted()) {
+            // Only the default product ID order is kept in memory
+            Page<Products> products = productsRepository.findAll(pageable);
+            response = products.stream().map(ProductCatalog::toDetails).collect(Collectors.toList());
+        } else {
+            response = productCatalog.getProducts(pageable.getOffset(), pageable.getPageSize());
+        }
         
         log.info("[Product Retrieval] Retrieved {} products", response.size());
         return response;
     }
-
-    private ProductDetails copyProduct(Products product) {
-        return ProductDetails.builder().
-                productId(product.getProductId())
-                .productName(product.getProductName())
-                .productPrice(product.getProductPrice())
-                .productDescription(product.getProductDescription())
-                .status(product.getStatus())
-                .createdBy(product.getCreatedBy())
-                .createdTime(product.getCreatedTime())
-                .updatedBy(product.getUpdatedBy())
-                .updatedTime(product.getUpdatedTime()).build();
-    }
 }
@@ -0,0 +1,120 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.model.PinCodeSales;
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.model.ProductSales;
+import com.app.milkman.model.SalesReconcileResponse;
+import com.app.milkman.model.SalesReport;
+import com.app.milkman.model.SalesReportDay;
+import com.app.milkman.report.SalesRollupReconciler;
+import com.app.milkman.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.app.milkman.utils.Constants.*;
+
+/**
+ * Sales figures over date ranges, read from the order_rollup and sales_rollup tables.
+ *
+ * The rollups hold one row per sales day and pin code (and product), so a report reads a number of rows that grows
+ * with the days in the range, not with the number of orders. Rows whose orders were all deleted are left at zero
+ * and skipped here.
+ */
+@Slf4j
+@Service
+public class ReportServiceImpl implements ReportService {
+
+    private static final String DAILY_SALES = "SELECT o.salesdate, o.orders, o.revenue, o.deliverycharges, "
+            + "COALESCE(s.litres, 0) "
+            + "FROM (SELECT salesdate, SUM(ordercount) AS orders, SUM(ordertotal) AS revenue, "
+            + "SUM(deliverycharge) AS deliverycharges FROM milkman.order_rollup "
+            + "WHERE salesdate BETWEEN ? AND ? GROUP BY salesdate HAVING SUM(ordercount) <> 0) o "
+            + "LEFT JOIN (SELECT salesdate, SUM(quantity) AS litres FROM milkman.sales_rollup "
+            + "WHERE salesdate BETWEEN ? AND ? GROUP BY salesdate) s ON s.salesdate = o.salesdate "
+            + "ORDER BY o.salesdate";
+
+    private static final String PRODUCT_SALES = "SELECT productid, SUM(ordercount), SUM(quantity), SUM(revenue) "
+            + "FROM milkman.sales_rollup WHERE salesdate BETWEEN ? AND ? "
+            + "GROUP BY productid HAVING SUM(ordercount) <> 0 ORDER BY productid";
+
+    private static final String PIN_CODE_SALES = "SELECT o.pincode, o.orders, o.revenue, COALESCE(s.litres, 0) "
+            + "FROM (SELECT pincode, SUM(ordercount) AS orders, SUM(ordertotal) AS revenue FROM milkman.order_rollup "
+            + "WHERE salesdate BETWEEN ? AND ? GROUP BY pincode HAVING SUM(ordercount) <> 0) o "
+            + "LEFT JOIN (SELECT pincode, SUM(quantity) AS litres FROM milkman.sales_rollup "
+            + "WHERE salesdate BETWEEN ? AND ? GROUP BY pincode) s ON s.pincode = o.pincode "
+            + "ORDER BY o.pincode";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private SalesRollupReconciler salesRollupReconciler;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesReport getSales(LocalDate from, LocalDate to) {
+        log.info("[Sales Report] Reading daily sales from {} to {}", from, to);
+        List<SalesReportDay> days = jdbcTemplate.query(DAILY_SALES, (rs, rowNum) -> new SalesReportDay(
+                rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+                rs.getLong(5)), from, to, from, to);
+
+        return SalesReport.builder()
+                .from(from)
+                .to(to)
+                .orders(days.stream().mapToLong(SalesReportDay::getOrders).sum())
+                .revenue(days.stream().map(SalesReportDay::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .deliveryCharges(days.stream().map(SalesReportDay::getDeliveryCharges)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))
+                .litres(days.stream().mapToLong(SalesReportDay::getLitres).sum())
+                .days(days)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSales> getProductSales(LocalDate from, LocalDate to) {
+        log.info("[Sales Report] Reading product sales from {} to {}", from, to);
+        List<ProductSales> products = jdbcTemplate.query(PRODUCT_SALES, (rs, rowNum) -> new ProductSales(
+                rs.getString(1), null, rs.getLong(2), rs.getLong(3), rs.getBigDecimal(4)), from, to);
+
+        // Names come from the catalog snapshot; products removed since keep a null name
+        Map<String, ProductDetails> catalog = productCatalog.getProducts(
+                products.stream().map(ProductSales::getProductId).toList());
+        products.forEach(product -> {
+            ProductDetails details = catalog.get(product.getProductId());
+            if (details != null) {
+                product.setProductName(details.getProductName());
+            }
+        });
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PinCodeSales> getPinCodeSales(LocalDate from, LocalDate to) {
+        log.info("[Sales Report] Reading pin code sales from {} to {}", from, to);
+        return jdbcTemplate.query(PIN_CODE_SALES, (rs, rowNum) -> new PinCodeSales(rs.getString(1), rs.getLong(2),
+                rs.getBigDecimal(3), rs.getLong(4)), from, to, from, to);
+    }
+
+    @Override
+    public SalesReconcileResponse reconcile(LocalDate from, LocalDate to) {
+        int rows = salesRollupReconciler.reconcile(from, to);
+        SalesReconcileResponse response = SalesReconcileResponse.builder().from(from).to(to).rollupRows(rows).build();
+        response.setStatus(SUCCESS);
+        response.setStatusCode(SUCCESS_CODE);
+        return response;
+    }
+}
@@ -1,23 +1,34 @@
 package com.app.milkman.service.impl;
 
+import com.app.milkman.component.ProductCatalog;
 import com.app.milkman.entity.*;
 import com.app.milkman.model.*;
+import com.app.milkman.outbox.OutboxEventType;
+import com.app.milkman.outbox.OutboxPublisher;
 import com.app.milkman.repository.CustomersRepository;
 import com.app.milkman.repository.ProductSubscriptionsRepository;
 import com.app.milkman.repository.ProductsRepository;
 import com.app.milkman.repository.SubscriptionRepository;
 import com.app.milkman.service.SubscribeService;
+import com.app.milkman.utils.DeliveryDays;
+import com.app.milkman.utils.OrderPricing;
+import com.app.milkman.utils.PageCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.app.milkman.utils.Constants.*;
@@ -31,18 +42,38 @@ public class SubscribeServiceImpl implements SubscribeService {
     @Autowired
     private ProductsRepository productsRepository;
 
+    @Autowired
+    private ProductCatalog productCatalog;
+
     @Autowired
     private SubscriptionRepository subscriptionRepository;
 
     @Autowired
     private ProductSubscriptionsRepository productSubscriptionsRepository;
 
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
     @Override
+    @Transactional
     public SubscribeResponse subscribe(SubscribeRequest subscribeRequest) {
         log.info("[Subscription Creation] Creating subscription for customer ID: {}", subscribeRequest.getCustomerId());
 
         Customers customers = customersRepository.findByCustomerId(subscribeRequest.getCustomerId());
 
+        Map<String, ProductDetails> products = getProducts(subscribeRequest.getProductOrderReqs());
+        List<String> unknownProductIds = getUnknownProductIds(subscribeRequest.getProductOrderReqs(), products);
+        if (!unknownProductIds.isEmpty()) {
+            log.warn("[Subscription Creation] Unknown product IDs for customer {}: {}", subscribeRequest.getCustomerId(), unknownProductIds);
+            return unknownProductsResponse(subscribeRequest.getSubscriptionId(), unknownProductIds);
+        }
+        String deliveryDays = String.join(", ", subscribeRequest.getDeliveryDays());
+        Short deliveryDaysMask = getDeliveryDaysMask(deliveryDays);
+        if (deliveryDaysMask == null) {
+            log.warn("[Subscription Creation] Invalid delivery days for customer {}: {}", subscribeRequest.getCustomerId(), deliveryDays);
+            return invalidDeliveryDaysResponse(subscribeRequest.getSubscriptionId(), deliveryDays);
+        }
+
         Subscriptions subscriptions = new Subscriptions();
         subscriptions.setSubscriptionId(UUID.randomUUID().toString());
 
@@ -61,8 +92,10 @@ public class SubscribeServiceImpl implements SubscribeService {
         subscriptions.setDeliveryStartDate(subscribeRequest.getDeliveryStartDate());
         subscriptions.setDeliveryEndDate(subscribeRequest.getDeliveryEndDate());
         subscriptions.setDeliveryFrequency(subscribeRequest.getDeliveryFrequency());
-        subscriptions.setDeliveryDays(String.join(", ", subscribeRequest.getDeliveryDays()));
-        subscriptions.setDeliveryCharge(BigDecimal.valueOf(subscribeRequest.getDeliveryCharge()));
+        subscriptions.setDeliveryDays(deliveryDays);
+        subscriptions.setDeliveryDaysMask(deliveryDaysMask);
+        long deliveryChargePaise = OrderPricing.toPaise(subscribeRequest.getDeliveryCharge());
+        subscriptions.setDeliveryCharge(OrderPricing.toRupees(deliveryChargePaise));
         subscriptions.setOrderStatus(ORDER_PLACED);
         subscriptions.setStatus(ACTIVE);
         subscriptions.setCreatedBy(subscriptions.getCustomerName());
@@ -70,13 +103,14 @@ public class SubscribeServiceImpl implements SubscribeService {
         subscriptions.setUpdatedBy(subscriptions.getCustomerName());
         subscriptions.setUpdatedTime(LocalDateTime.now());
         //get product details
-        List<ProductSubscriptions> productSubscriptions = getProductOrders(subscribeRequest.getProductOrderReqs(), subscriptions);
-        double orderTotal = productSubscriptions.stream().mapToDouble(po -> po.getProductPrice().multiply(BigDecimal.valueOf(po.getQuantity())).doubleValue())
-                .sum() + subscribeRequest.getDeliveryCharge();
-        subscriptions.setOrderTotal(BigDecimal.valueOf(orderTotal));
+        List<ProductSubscriptions> productSubscriptions = getProductOrders(subscribeRequest.getProductOrderReqs(), products, subscriptions);
+        subscriptions.setOrderTotal(OrderPricing.toRupees(
+                OrderPricing.orderTotal(subscribeRequest.getProductOrderReqs(), products, deliveryChargePaise)));
 
         Subscriptions subscriptionDetails = subscriptionRepository.save(subscriptions);
         List<ProductSubscriptions> saveProductOrders = productSubscriptionsRepository.saveAll(productSubscriptions);
+        outboxPublisher.publish(OutboxEventType.SUBSCRIPTION_CREATED, subscriptionDetails.getSubscriptionId(),
+                subscriptionPayload(subscriptionDetails, saveProductOrders));
         
         log.info("[Subscription Creation] Successfully created subscription ID: {} for customer: {} with {} products, Total: {} (from {} to {})", 
                  subscriptionDetails.getSubscriptionId(), subscriptionDetails.getCustomerName(), 
@@ -90,17 +124,68 @@ public class SubscribeServiceImpl implements SubscribeService {
         return response;
     }
 
-    private List<ProductSubscriptions> getProductOrders(List<ProductOrdersReq> productOrderReq, Subscriptions subscriptions) {
+    /**
+     * Resolves every product of the request from the catalog snapshot
+     */
+    private Map<String, ProductDetails> getProducts(List<ProductOrdersReq> productOrderReq) {
+        Set<String> productIds = productOrderReq.stream()
+                .map(ProductOrdersReq::getProductId)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productCatalog.getProducts(productIds);
+    }
+
+    private List<String> getUnknownProductIds(List<ProductOrdersReq> productOrderReq, Map<String, ProductDetails> products) {
+        return productOrderReq.stream()
+                .map(ProductOrdersReq::getProductId)
+                .filter(productId -> !products.containsKey(productId))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private SubscribeResponse unknownProductsResponse(String subscriptionId, List<String> unknownProductIds) {
+        SubscribeResponse response = SubscribeResponse.builder().subscriptionId(subscriptionId).build();
+        response.setStatusCode("400");
+        response.setStatus(FAILED);
+        response.setErrorMsg("Unknown product ID(s): " + String.join(", ", unknownProductIds));
+        return response;
+    }
+
+    /**
+     * @return the day-of-week mask stored next to the delivery days, or null if a name is not a day of the week
+     */
+    private static Short getDeliveryDaysMask(String deliveryDays) {
+        try {
+            return (short) DeliveryDays.parse(deliveryDays);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private SubscribeResponse invalidDeliveryDaysResponse(String subscriptionId, String deliveryDays) {
+        SubscribeResponse response = SubscribeResponse.builder().subscriptionId(subscriptionId).build();
+        response.setStatusCode("400");
+        response.setStatus(FAILED);
+        response.setErrorMsg("Invalid delivery days: " + deliveryDays);
+        return response;
+    }
+
+    private List<ProductSubscriptions> getProductOrders(List<ProductOrdersReq> productOrderReq,
+                                                        Map<String, ProductDetails> products,
+                                                        Subscriptions subscriptions) {
 
         List<ProductSubscriptions> productOrdersList = productOrderReq.stream().map(po -> {
-            Products product = productsRepository.findByProductId(po.getProductId());
+            ProductDetails product = products.get(po.getProductId());
 
             ProductSubscriptions productSubscriptions = new ProductSubscriptions();
             productSubscriptions.setProductSubscriptionId(UUID.randomUUID().toString());
             productSubscriptions.setSubscriptions(subscriptions);
-            productSubscriptions.setProducts(product);
+            // Lines are priced from the catalog snapshot; the product itself is only referenced by ID
+            productSubscriptions.setProducts(productsRepository.getReferenceById(product.getProductId()));
             productSubscriptions.setProductName(product.getProductName());
-            productSubscriptions.setProductPrice(product.getProductPrice());
+            productSubscriptions.setProductPrice(OrderPricing.toRupees(product.getPricePaise()));
             productSubscriptions.setQuantity(Long.valueOf(po.getQuantity()));
 
             productSubscriptions.setCreatedBy(subscriptions.getCustomerName());
@@ -113,27 +198,48 @@ public class SubscribeServiceImpl implements SubscribeService {
         return productOrdersList;
     }
 
+    /**
+     * Event payload for downstream consumers: the delivery schedule and lines, without customer contact details
+     */
+    private Map<String, Object> subscriptionPayload(Subscriptions subscription, List<ProductSubscriptions> productSubscriptions) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("subscriptionId", subscription.getSubscriptionId());
+        payload.put("customerId", subscription.getCustomerId());
+        payload.put("deliveryStartDate", subscription.getDeliveryStartDate());
+        payload.put("deliveryEndDate", subscription.getDeliveryEndDate());
+        payload.put("deliveryTimeSlot", subscription.getDeliveryTimeSlot());
+        payload.put("deliveryFrequency", subscription.getDeliveryFrequency());
+        payload.put("deliveryDays", subscription.getDeliveryDays());
+        payload.put("orderTotal", subscription.getOrderTotal());
+        payload.put("lines", productSubscriptions.stream()
+                .map(line -> Map.of("productId", line.getProducts().getProductId(), "quantity", line.getQuantity()))
+                .collect(Collectors.toList()));
+        return payload;
+    }
+
 
     @Override
+    @Transactional(readOnly = true)
     public List<SubscriptionDetails> getAllOrders(Pageable pageable) {
         log.info("[Subscription Retrieval] Fetching all subscriptions with pagination - Page: {}, Size: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
-        Page<Subscriptions> subscriptions = subscriptionRepository.findAll(pageable);
-        List<SubscriptionDetails> details = getOrderDetails(subscriptions);
+        List<SubscriptionDetails> details = withProductDetails(subscriptionRepository.findSubscriptionDetails(pageable));
         log.info("[Subscription Retrieval] Retrieved {} subscriptions", details.size());
         return details;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SubscriptionDetails> getAllSubscriptionsByCustomerId(String customerId, Pageable pageable) {
         log.info("[Subscription Retrieval] Fetching subscriptions for customer ID: {}", customerId);
-        Page<Subscriptions> subscriptions = subscriptionRepository.findByCustomerId(customerId, pageable);
-        List<SubscriptionDetails> details = getOrderDetails(subscriptions);
+        List<SubscriptionDetails> details = withProductDetails(
+                subscriptionRepository.findSubscriptionDetailsByCustomerId(customerId, pageable));
         log.info("[Subscription Retrieval] Retrieved {} subscriptions for customer: {}", details.size(), customerId);
         return details;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SubscriptionDetails> getAllSubscriptionsByPhone(String phoneNo, Pageable pageable) {
         log.info("[Subscription Retrieval] Fetching subscriptions for phone: {}", phoneNo);
         List<Customers> customers = customersRepository.findByPrimaryPhone(phoneNo);
@@ -142,64 +248,78 @@ public class SubscribeServiceImpl implements SubscribeService {
             return new ArrayList<>();
         }
         Customers customer = customers.get(0);
-        Page<Subscriptions> subscriptions = subscriptionRepository.findByCustomerId(customer.getCustomerId(), pageable);
-        List<SubscriptionDetails> details = getOrderDetails(subscriptions);
+        List<SubscriptionDetails> details = withProductDetails(
+                subscriptionRepository.findSubscriptionDetailsByCustomerId(customer.getCustomerId(), pageable));
         log.info("[Subscription Retrieval] Retrieved {} subscriptions for phone: {}", details.size(), phoneNo);
         return details;
     }
 
-    private List<SubscriptionDetails> getOrderDetails(Page<Subscriptions> orders) {
-        List<SubscriptionDetails> subscriptionDetailsList = new ArrayList<>();
-        orders.forEach(subscription -> {
-            SubscriptionDetails orderDetails = SubscriptionDetails.builder().subscriptionId(subscription.getSubscriptionId())
-                    .orderDateTime(subscription.getOrderDateTime())
-                    .orderStatus(subscription.getOrderStatus())
-                    .orderTotal(subscription.getOrderTotal())
-                    .address(subscription.getAddress())
-                    .customerId(subscription.getCustomerId())
-                    .customerName(subscription.getCustomerName())
-                    .deliveryCharge(subscription.getDeliveryCharge())
-                    .deliveryStartDate(subscription.getDeliveryStartDate())
-                    .deliveryEndDate(subscription.getDeliveryEndDate())
-                    .deliveryDays(subscription.getDeliveryDays())
-                    .deliveryTimeSlot(subscription.getDeliveryTimeSlot())
-                    .deliveryFrequency(subscription.getDeliveryFrequency())
-                    .emailId(subscription.getEmailId())
-                    .landmark(subscription.getLandmark())
-                    .pinCode(subscription.getPinCode())
-                    .primaryPhone(subscription.getPrimaryPhone())
-                    .status(subscription.getStatus())
-                    .orderDateTime(subscription.getOrderDateTime())
-                    .createdBy(subscription.getCreatedBy())
-                    .createdTime(subscription.getCreatedTime())
-                    .updatedBy(subscription.getUpdatedBy())
-                    .updatedTime(subscription.getUpdatedTime())
-                    .build();
-
-            List<SubscriptionProductDetails> orderProductDetailsList = subscription.getProductSubscriptions().stream().map(po ->
-                    SubscriptionProductDetails.builder()
-                            .productSubscriptionId(po.getProductSubscriptionId())
-                            .subscriptionId(subscription.getSubscriptionId())
-                            .productId(po.getProducts().getProductId())
-                            .productName(po.getProductName())
-                            .productPrice(po.getProductPrice())
-                            .quantity(po.getQuantity())
-                            .status(po.getStatus())
-                            .createdBy(po.getCreatedBy())
-                            .createdTime(po.getCreatedTime())
-                            .updatedBy(po.getUpdatedBy())
-                            .updatedTime(po.getUpdatedTime())
-                            .build()
-            ).collect(Collectors.toList());
-
-            orderDetails.setSubscriptionProductDetails(orderProductDetailsList);
-            subscriptionDetailsList.add(orderDetails);
-        });
-        return subscriptionDetailsList;
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<SubscriptionDetails> getAllOrders(String cursor, int size) {
+        log.info("[Subscription Retrieval] Fetching all subscriptions after cursor: {}, Size: {}", cursor, size);
+        List<SubscriptionDetails> subscriptions =
+                subscriptionRepository.findSubscriptionDetailsAfter(decodeCursor(cursor), size + 1);
+        CursorPage<SubscriptionDetails> page = getSubscriptionPage(subscriptions, size);
+        log.info("[Subscription Retrieval] Retrieved {} subscriptions", page.getContent().size());
+        return page;
     }
 
     @Override
-    @org.springframework.transaction.annotation.Transactional
+    @Transactional(readOnly = true)
+    public CursorPage<SubscriptionDetails> getAllSubscriptionsByPhone(String phoneNo, String cursor, int size) {
+        log.info("[Subscription Retrieval] Fetching subscriptions for phone: {} after cursor: {}", phoneNo, cursor);
+        List<Customers> customers = customersRepository.findByPrimaryPhone(phoneNo);
+        if (customers.isEmpty()) {
+            log.warn("[Subscription Retrieval] No customer found with phone: {}", phoneNo);
+            return CursorPage.<SubscriptionDetails>builder().content(new ArrayList<>()).build();
+        }
+        String customerId = customers.get(0).getCustomerId();
+        List<SubscriptionDetails> subscriptions = subscriptionRepository.findSubscriptionDetailsByCustomerIdAfter(
+                customerId, decodeCursor(cursor), size + 1);
+        CursorPage<SubscriptionDetails> page = getSubscriptionPage(subscriptions, size);
+        log.info("[Subscription Retrieval] Retrieved {} subscriptions for phone: {}", page.getContent().size(), phoneNo);
+        return page;
+    }
+
+    /**
+     * @return null for the first page, the decoded position otherwise
+     * @throws IllegalArgumentException if the cursor is not one this service issued
+     */
+    private PageCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor);
+    }
+
+    /**
+     * Builds a keyset page from up to size + 1 rows; the extra row only signals that another page exists
+     */
+    private CursorPage<SubscriptionDetails> getSubscriptionPage(List<SubscriptionDetails> subscriptions, int size) {
+        boolean hasMore = subscriptions.size() > size;
+        List<SubscriptionDetails> content = withProductDetails(hasMore ? subscriptions.subList(0, size) : subscriptions);
+        String nextCursor = null;
+        if (hasMore) {
+            SubscriptionDetails last = content.get(content.size() - 1);
+            nextCursor = new PageCursor(last.getOrderDateTime(), last.getSubscriptionId()).encode();
+        }
+        return CursorPage.<SubscriptionDetails>builder().content(content).nextCursor(nextCursor).build();
+    }
+
+    /**
+     * Attaches product lines to a page of projected subscriptions using one query for the whole page
+     */
+    private List<SubscriptionDetails> withProductDetails(List<SubscriptionDetails> subscriptions) {
+        if (subscriptions.isEmpty()) {
+            return subscriptions;
+        }
+        Map<String, SubscriptionDetails> byId = subscriptions.stream()
+                .collect(Collectors.toMap(SubscriptionDetails::getSubscriptionId, Function.identity()));
+        productSubscriptionsRepository.findProductDetailsBySubscriptionIdIn(byId.keySet())
+                .forEach(line -> byId.get(line.getSubscriptionId()).getSubscriptionProductDetails().add(line));
+        return subscriptions;
+    }
+
+    @Override
+    @Transactional
     public SubscribeResponse updateSubscription(SubscribeRequest subscribeRequest) {
         log.info("[Subscription Update] Updating subscription ID: {}", subscribeRequest.getSubscriptionId());
         
@@ -209,6 +329,19 @@ public class SubscribeServiceImpl implements SubscribeService {
                     return new RuntimeException("Subscription not found");
                 });
 
+        Map<String, ProductDetails> products = getProducts(subscribeRequest.getProductOrderReqs());
+        List<String> unknownProductIds = getUnknownProductIds(subscribeRequest.getProductOrderReqs(), products);
+        if (!unknownProductIds.isEmpty()) {
+            log.warn("[Subscription Update] Unknown product IDs for subscription {}: {}", subscribeRequest.getSubscriptionId(), unknownProductIds);
+            return unknownProductsResponse(subscribeRequest.getSubscriptionId(), unknownProductIds);
+        }
+        String deliveryDays = String.join(", ", subscribeRequest.getDeliveryDays());
+        Short deliveryDaysMask = getDeliveryDaysMask(deliveryDays);
+        if (deliveryDaysMask == null) {
+            log.warn("[Subscription Update] Invalid delivery days for subscription {}: {}", subscribeRequest.getSubscriptionId(), deliveryDays);
+            return invalidDeliveryDaysResponse(subscribeRequest.getSubscriptionId(), deliveryDays);
+        }
+
         // Remove existing product subscriptions using clear() to trigger orphanRemoval
         existingSubscription.getProductSubscriptions().clear();
 
@@ -217,26 +350,29 @@ public class SubscribeServiceImpl implements SubscribeService {
         existingSubscription.setDeliveryEndDate(subscribeRequest.getDeliveryEndDate());
         existingSubscription.setDeliveryTimeSlot(subscribeRequest.getDeliveryTimeSlot());
         existingSubscription.setDeliveryFrequency(subscribeRequest.getDeliveryFrequency());
-        existingSubscription.setDeliveryDays(String.join(", ", subscribeRequest.getDeliveryDays()));
+        existingSubscription.setDeliveryDays(deliveryDays);
+        existingSubscription.setDeliveryDaysMask(deliveryDaysMask);
         existingSubscription.setOrderStatus(subscribeRequest.getOrderStatus());
-        existingSubscription.setDeliveryCharge(BigDecimal.valueOf(subscribeRequest.getDeliveryCharge()));
+        long deliveryChargePaise = OrderPricing.toPaise(subscribeRequest.getDeliveryCharge());
+        existingSubscription.setDeliveryCharge(OrderPricing.toRupees(deliveryChargePaise));
         existingSubscription.setUpdatedBy(existingSubscription.getCustomerName());
         existingSubscription.setUpdatedTime(LocalDateTime.now());
 
         // Create new product subscriptions
-        List<ProductSubscriptions> newProductSubscriptions = getProductOrders(subscribeRequest.getProductOrderReqs(), existingSubscription);
+        List<ProductSubscriptions> newProductSubscriptions = getProductOrders(subscribeRequest.getProductOrderReqs(), products, existingSubscription);
 
-        // Calculate new total
-        BigDecimal productTotal = newProductSubscriptions.stream()
-                .map(ps -> ps.getProductPrice().multiply(BigDecimal.valueOf(ps.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        existingSubscription.setOrderTotal(productTotal.add(existingSubscription.getDeliveryCharge()));
+        // Calculate new total, the same way as on subscription
+        existingSubscription.setOrderTotal(OrderPricing.toRupees(
+                OrderPricing.orderTotal(subscribeRequest.getProductOrderReqs(), products, deliveryChargePaise)));
 
         // Add to managed collection instead of replacing
         existingSubscription.getProductSubscriptions().addAll(newProductSubscriptions);
 
-        // Save (cascade handles product subscriptions)
-        Subscriptions updatedSubscription = subscriptionRepository.save(existingSubscription);
+        // The subscription is managed, so the flush on commit persists the new lines. save() would merge it, and
+        // merging the new lines (assigned IDs) issues a SELECT per line
+        Subscriptions updatedSubscription = existingSubscription;
+        outboxPublisher.publish(OutboxEventType.SUBSCRIPTION_UPDATED, updatedSubscription.getSubscriptionId(),
+                subscriptionPayload(updatedSubscription, newProductSubscriptions));
 
         log.info("[Subscription Update] Successfully updated subscription: {} with {} products, Total: {}",
                  updatedSubscription.getSubscriptionId(), newProductSubscriptions.size(), 
@@ -251,7 +387,7 @@ public class SubscribeServiceImpl implements SubscribeService {
     }
 
     @Override
-    @org.springframework.transaction.annotation.Transactional
+    @Transactional
     public void deleteSubscription(String subscriptionId) {
         log.info("[Subscription Delete] Deleting subscription ID: {}", subscriptionId);
         
@@ -262,6 +398,10 @@ public class SubscribeServiceImpl implements SubscribeService {
                 });
 
         subscriptionRepository.delete(subscription);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("subscriptionId", subscriptionId);
+        payload.put("customerId", subscription.getCustomerId());
+        outboxPublisher.publish(OutboxEventType.SUBSCRIPTION_DELETED, subscriptionId, payload);
         
         log.info("[Subscription Delete] Successfully deleted subscription: {}", subscriptionId);
     }
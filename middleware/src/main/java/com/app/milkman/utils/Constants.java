@@ -13,6 +13,7 @@ public class Constants {
     public static final String FAILED = "FAILED";
     public static final String NO_FOUND_CODE = "404";
     public static final String INTERNAL_ERROR_CODE = "500";
+    public static final String SERVICE_UNAVAILABLE_CODE = "503";
 
     public static final String KEY = "MILKMANENCRYPTDECRYPTKEYSH";
 
@@ -22,6 +23,9 @@ public class Constants {
     public static final String IN_PROGRESS = "IN PROGRESS";
     public static final String DELIVERED = "DELIVERED";
 
+    // Subscription delivery frequency: every other day from the start date, on the subscription's delivery days
+    public static final String ALTERNATE_DAYS = "ALTERNATE_DAYS";
+
 
     //sms
     public static final String SMS_NUMBER= "+16788204490";
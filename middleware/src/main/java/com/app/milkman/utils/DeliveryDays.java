@@ -0,0 +1,75 @@
+package com.app.milkman.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Day-of-week bitmask for the comma-joined deliveryDays of a subscription.
+ *
+ * Bit 0 is Monday and bit 6 is Sunday. Day names are matched on their first three letters, ignoring case, so the
+ * full names sent by the apps ("Monday, Tuesday") and the short form ("MON,WED,FRI") both work. A subscription
+ * without delivery days is delivered every day. Subscriptions keep the mask in their deliverydaysmask column.
+ */
+@UtilityClass
+public class DeliveryDays {
+
+    public static final int NONE = 0;
+    public static final int ALL_DAYS = 0b111_1111;
+
+    /**
+     * @return the mask of the named days, {@link #ALL_DAYS} if none are given
+     * @throws IllegalArgumentException if a name is not a day of the week
+     */
+    public static int parse(String deliveryDays) {
+        if (deliveryDays == null || deliveryDays.isBlank()) {
+            return ALL_DAYS;
+        }
+        int mask = NONE;
+        for (String name : deliveryDays.split(",")) {
+            String day = name.trim();
+            if (!day.isEmpty()) {
+                mask |= bit(parseDay(day));
+            }
+        }
+        return mask == NONE ? ALL_DAYS : mask;
+    }
+
+    public static boolean includes(int mask, DayOfWeek day) {
+        return (mask & bit(day)) != 0;
+    }
+
+    public static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    /**
+     * Every mask with the day's bit set, for filtering the mask column with IN: unlike (mask &amp; bit) &lt;&gt; 0,
+     * that predicate can be answered from an index on the column
+     */
+    public static List<Short> masksIncluding(DayOfWeek day) {
+        int bit = bit(day);
+        List<Short> masks = new ArrayList<>(64);
+        for (int mask = 1; mask <= ALL_DAYS; mask++) {
+            if ((mask & bit) != 0) {
+                masks.add((short) mask);
+            }
+        }
+        return masks;
+    }
+
+    private static DayOfWeek parseDay(String name) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        if (upper.length() >= 3) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day.name().startsWith(upper)) {
+                    return day;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a day of the week: " + name);
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.milkman.utils;
+
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.model.ProductOrdersReq;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact order and subscription pricing in paise.
+ *
+ * A cart is priced in long paise, so totals are exact, do not depend on the order of the lines and allocate nothing
+ * per line. Amounts are converted only at the edges: catalog prices once when the product snapshot is built, the
+ * request's delivery charge once per order, and the total once when it is stored. Amounts with more than two
+ * decimals are rounded half-up to the paisa; a double is read as its shortest decimal form first, so 10.1 is
+ * 10.10 and not 10.0999... Arithmetic that would overflow a long throws ArithmeticException instead of wrapping.
+ */
+@UtilityClass
+public class OrderPricing {
+
+    public static final int PAISE_SCALE = 2;
+
+    public static long toPaise(BigDecimal amount) {
+        return amount.setScale(PAISE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @throws NumberFormatException if the amount is NaN or infinite
+     */
+    public static long toPaise(double amount) {
+        return toPaise(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * @return the amount in rupees with a scale of two, as stored in the price and total columns
+     */
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, PAISE_SCALE);
+    }
+
+    public static long lineTotal(long unitPricePaise, long quantity) {
+        return Math.multiplyExact(unitPricePaise, quantity);
+    }
+
+    /**
+     * Sums the lines at their catalog price; every product on the lines must be in the map
+     */
+    public static long itemsTotal(List<ProductOrdersReq> lines, Map<String, ProductDetails> products) {
+        long total = 0;
+        for (ProductOrdersReq line : lines) {
+            total = Math.addExact(total, lineTotal(products.get(line.getProductId()).getPricePaise(), line.getQuantity()));
+        }
+        return total;
+    }
+
+    public static long orderTotal(List<ProductOrdersReq> lines, Map<String, ProductDetails> products,
+                                  long deliveryChargePaise) {
+        return Math.addExact(itemsTotal(lines, products), deliveryChargePaise);
+    }
+}
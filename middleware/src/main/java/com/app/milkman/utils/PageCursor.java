@@ -0,0 +1,80 @@
+package com.app.milkman.utils;
+
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a keyset page, ordered by (orderDateTime desc, id desc) with the legacy rows that have
+ * no orderDateTime last, by id desc.
+ *
+ * Clients only ever see the encoded form, an opaque URL-safe token they pass back to read the next page.
+ */
+@Value
+public class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime orderDateTime;
+    String id;
+
+    public String encode() {
+        String position = (orderDateTime == null ? "" : orderDateTime.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token value previously returned by {@link #encode()}
+     * @throws IllegalArgumentException if the token was not produced by this class
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0 || separator == position.length() - 1) {
+                throw new IllegalArgumentException("Malformed page cursor");
+            }
+            LocalDateTime orderDateTime = separator == 0 ? null : LocalDateTime.parse(position.substring(0, separator));
+            return new PageCursor(orderDateTime, position.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Reads up to limit rows after a position, null for the first page. Dated and undated rows are read by separate
+     * queries, so each keeps a bounded range scan of the (orderdatetime, id) index; the undated ones are only read
+     * once the dated ones run out.
+     *
+     * @param firstDated     first rows with an orderDateTime, newest first
+     * @param datedAfter     rows with an orderDateTime after a dated position
+     * @param firstUndated   first rows without an orderDateTime, by id desc
+     * @param undatedAfter   rows without an orderDateTime after the given id
+     */
+    public static <T> List<T> rowsAfter(PageCursor position, int limit,
+                                        Function<Pageable, List<T>> firstDated,
+                                        BiFunction<PageCursor, Pageable, List<T>> datedAfter,
+                                        Function<Pageable, List<T>> firstUndated,
+                                        BiFunction<String, Pageable, List<T>> undatedAfter) {
+        if (position != null && position.getOrderDateTime() == null) {
+            return undatedAfter.apply(position.getId(), PageRequest.ofSize(limit));
+        }
+        List<T> rows = position == null
+                ? firstDated.apply(PageRequest.ofSize(limit))
+                : datedAfter.apply(position, PageRequest.ofSize(limit));
+        if (rows.size() == limit) {
+            return rows;
+        }
+        List<T> combined = new ArrayList<>(rows);
+        combined.addAll(firstUndated.apply(PageRequest.ofSize(limit - rows.size())));
+        return combined;
+    }
+}
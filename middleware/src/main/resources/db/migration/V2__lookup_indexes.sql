@@ -0,0 +1,18 @@
+-- Indexes for the lookup columns used by login, registration and the order/subscription listings
+
+-- Customers: login and registration look customers up by phone or e-mail among ACTIVE rows only.
+-- The partial unique indexes serve those lookups and stop two active accounts sharing a phone or e-mail.
+-- Duplicate active rows left by earlier releases must be resolved before this migration can be applied.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_active_pphone ON milkman.customers (pphone) WHERE status = 'ACTIVE';
+CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_active_emailid ON milkman.customers (emailid) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_customers_customerid ON milkman.customers (customerid);
+
+-- Orders and subscriptions: listings by customer and keyset listings, newest first
+CREATE INDEX IF NOT EXISTS idx_orders_orderdatetime ON milkman.orders (orderdatetime DESC, orderid DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_customerid_orderdatetime ON milkman.orders (customerid, orderdatetime DESC, orderid DESC);
+CREATE INDEX IF NOT EXISTS idx_subscriptions_orderdatetime ON milkman.subscriptions (orderdatetime DESC, subscriptionid DESC);
+CREATE INDEX IF NOT EXISTS idx_subscriptions_customerid_orderdatetime ON milkman.subscriptions (customerid, orderdatetime DESC, subscriptionid DESC);
+
+-- Line items are always read through their parent
+CREATE INDEX IF NOT EXISTS idx_product_orders_orderid ON milkman.product_orders (orderid);
+CREATE INDEX IF NOT EXISTS idx_product_subscriptions_subscriptionid ON milkman.product_subscriptions (subscriptionid);
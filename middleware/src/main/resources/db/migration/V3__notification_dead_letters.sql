@@ -0,0 +1,12 @@
+-- Notifications that exhausted their delivery attempts, kept for inspection and manual resend
+CREATE TABLE milkman.notification_dead_letters (
+	id bigserial NOT NULL,
+	channel varchar(10) NOT NULL,
+	recipient varchar NOT NULL,
+	subject varchar NULL,
+	body varchar(4000) NULL,
+	attempts int4 NOT NULL,
+	lasterror varchar(1000) NULL,
+	createdtime timestamp NOT NULL,
+	CONSTRAINT notification_dead_letters_pkey PRIMARY KEY (id)
+);
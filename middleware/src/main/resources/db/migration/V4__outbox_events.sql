@@ -0,0 +1,16 @@
+-- Transactional outbox: order and subscription events written with the change itself and relayed in the background
+CREATE TABLE milkman.outbox_events (
+	id bigserial NOT NULL,
+	eventtype varchar(40) NOT NULL,
+	aggregateid varchar NOT NULL,
+	payload varchar(4000) NULL,
+	status varchar(10) NOT NULL,
+	attempts int4 NOT NULL,
+	lasterror varchar(1000) NULL,
+	createdtime timestamp NOT NULL,
+	availabletime timestamp NOT NULL,
+	CONSTRAINT outbox_events_pkey PRIMARY KEY (id)
+);
+
+-- The relay only ever reads pending events, oldest first
+CREATE INDEX idx_outbox_events_pending ON milkman.outbox_events (id) WHERE status = 'PENDING';
@@ -0,0 +1,23 @@
+-- Day-of-week bitmask of subscriptions.deliverydays (bit 0 = Monday ... bit 6 = Sunday, see DeliveryDays),
+-- written by the service layer so day filters no longer parse the comma-joined text
+ALTER TABLE milkman.subscriptions ADD COLUMN deliverydaysmask smallint NULL;
+
+-- Backfill: a day is set when one of the comma-separated names starts with its three-letter abbreviation, in any
+-- case ("Monday, Tuesday" and "MON,TUE" both work); no names at all means every day
+UPDATE milkman.subscriptions SET deliverydaysmask = CASE
+	WHEN deliverydays IS NULL OR btrim(deliverydays, ' ,') = '' THEN 127
+	ELSE (CASE WHEN deliverydays ~* '(^|,)\s*mon' THEN 1 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*tue' THEN 2 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*wed' THEN 4 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*thu' THEN 8 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*fri' THEN 16 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*sat' THEN 32 ELSE 0 END)
+		| (CASE WHEN deliverydays ~* '(^|,)\s*sun' THEN 64 ELSE 0 END)
+END;
+
+ALTER TABLE milkman.subscriptions ALTER COLUMN deliverydaysmask SET NOT NULL;
+
+-- Active subscriptions by delivery day. Day filters are written as deliverydaysmask IN (every mask containing the
+-- day), which this index answers; a (deliverydaysmask & bit) <> 0 predicate could not use it
+CREATE INDEX idx_subscriptions_active_deliverydaysmask ON milkman.subscriptions (deliverydaysmask, deliverystartdate)
+	WHERE status = 'ACTIVE';
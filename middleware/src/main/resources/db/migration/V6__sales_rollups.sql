@@ -0,0 +1,37 @@
+-- Daily sales rollups, maintained with every order change and rebuilt nightly for the last days (see
+-- SalesRollupWriter and SalesRollupReconciler). salesdate is the date part of orders.orderdatetime; pincode is
+-- empty for orders without one.
+CREATE TABLE milkman.order_rollup (
+	salesdate date NOT NULL,
+	pincode varchar NOT NULL,
+	ordercount int8 NOT NULL,
+	ordertotal numeric NOT NULL,
+	deliverycharge numeric NOT NULL,
+	CONSTRAINT order_rollup_pkey PRIMARY KEY (salesdate, pincode)
+);
+
+CREATE TABLE milkman.sales_rollup (
+	salesdate date NOT NULL,
+	productid varchar NOT NULL,
+	pincode varchar NOT NULL,
+	ordercount int8 NOT NULL,
+	quantity int8 NOT NULL,
+	revenue numeric NOT NULL,
+	CONSTRAINT sales_rollup_pkey PRIMARY KEY (salesdate, productid, pincode)
+);
+
+-- Backfill from the existing orders
+INSERT INTO milkman.order_rollup (salesdate, pincode, ordercount, ordertotal, deliverycharge)
+SELECT CAST(o.orderdatetime AS date), COALESCE(o.pincode, ''), count(*), COALESCE(sum(o.ordertotal), 0),
+	COALESCE(sum(o.deliverycharge), 0)
+FROM milkman.orders o
+WHERE o.orderdatetime IS NOT NULL
+GROUP BY CAST(o.orderdatetime AS date), COALESCE(o.pincode, '');
+
+INSERT INTO milkman.sales_rollup (salesdate, productid, pincode, ordercount, quantity, revenue)
+SELECT CAST(o.orderdatetime AS date), po.productid, COALESCE(o.pincode, ''), count(DISTINCT o.orderid),
+	COALESCE(sum(po.quantity), 0), COALESCE(sum(po.productprice * po.quantity), 0)
+FROM milkman.orders o
+JOIN milkman.product_orders po ON po.orderid = o.orderid
+WHERE o.orderdatetime IS NOT NULL AND po.productid IS NOT NULL
+GROUP BY CAST(o.orderdatetime AS date), po.productid, COALESCE(o.pincode, '');
@@ -0,0 +1,2 @@
+-- Payloads carry every order line, so large orders outgrew varchar(4000) and failed the insert along with the order
+ALTER TABLE milkman.outbox_events ALTER COLUMN payload TYPE text;
@@ -0,0 +1,9 @@
+-- Customer IDs (CUST###) are reserved from this sequence in blocks of INCREMENT BY (see CustomerIdAllocator, whose
+-- BLOCK_SIZE must match). Installations that ran CustomerIdAllocator before this migration already have it.
+CREATE SEQUENCE IF NOT EXISTS milkman.customer_id_seq INCREMENT BY 50;
+
+-- Next block starts after the highest existing customer number, and after the last block already handed out
+SELECT setval('milkman.customer_id_seq', GREATEST(
+	(SELECT COALESCE(max(CAST(substring(customerid FROM 5) AS int8)), 0) + 1
+		FROM milkman.customers WHERE customerid ~ '^CUST[0-9]+$'),
+	(SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM milkman.customer_id_seq)), false);
@@ -0,0 +1,2 @@
+-- The relay holds an event back while an earlier one of its aggregate is pending, looked up per due event
+CREATE INDEX idx_outbox_events_pending_aggregateid ON milkman.outbox_events (aggregateid, id) WHERE status = 'PENDING';
@@ -0,0 +1,151 @@
+package com.app.milkman;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL, which the H2 tests never do: rows of an installation at V4 are loaded,
+ * then the remaining migrations and their backfills run over them. Uses a Testcontainers PostgreSQL, or the empty
+ * database given with -PmigrationJdbcUrl; skipped when there is neither.
+ */
+@DisplayName("Migration Smoke Tests")
+class MigrationSmokeTest {
+
+    private static PostgreSQLContainer<?> container;
+    private static JdbcTemplate jdbcTemplate;
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() {
+        String jdbcUrl = System.getProperty("milkman.migrationJdbcUrl");
+        if (jdbcUrl != null) {
+            dataSource = new DriverManagerDataSource(jdbcUrl, System.getProperty("milkman.migrationUsername"),
+                    System.getProperty("milkman.migrationPassword"));
+        } else {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+            container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+                    .withDatabaseName("milkman");
+            container.start();
+            dataSource = new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(),
+                    container.getPassword());
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should migrate an existing installation and backfill its rows")
+    void testMigrateExistingInstallation() {
+        assertTrue(flyway("4").migrate().success);
+        loadInstallation();
+
+        assertTrue(flyway(null).migrate().success);
+
+        // V5: delivery day names in any case and spacing, nothing at all meaning every day
+        assertEquals(Map.of("SUB1", 5, "SUB2", 65, "SUB3", 127, "SUB4", 127, "SUB5", 16), jdbcTemplate.query(
+                "SELECT subscriptionid, deliverydaysmask FROM milkman.subscriptions",
+                rs -> {
+                    Map<String, Integer> masks = new HashMap<>();
+                    while (rs.next()) {
+                        masks.put(rs.getString(1), rs.getInt(2));
+                    }
+                    return masks;
+                }));
+
+        // V6: one row per day and pincode, the undated order and the line without a product left out
+        List<Map<String, Object>> orderRollup = jdbcTemplate.queryForList(
+                "SELECT pincode, ordercount, ordertotal, deliverycharge FROM milkman.order_rollup "
+                        + "WHERE salesdate = DATE '2026-01-05' ORDER BY pincode");
+        assertEquals(2, orderRollup.size());
+        assertRow(orderRollup.get(0), "", 1L, "0", "5");
+        assertRow(orderRollup.get(1), "500001", 2L, "150", "10");
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.order_rollup", Integer.class));
+
+        List<Map<String, Object>> salesRollup = jdbcTemplate.queryForList(
+                "SELECT productid, ordercount, quantity, revenue FROM milkman.sales_rollup "
+                        + "WHERE salesdate = DATE '2026-01-05' AND pincode = '500001' ORDER BY productid");
+        assertEquals(2, salesRollup.size());
+        assertRow(salesRollup.get(0), "MIGPROD1", 2L, 3L, "60");
+        assertRow(salesRollup.get(1), "MIGPROD2", 1L, 1L, "60");
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.sales_rollup", Integer.class));
+
+        // V7: payloads beyond the former varchar(4000)
+        jdbcTemplate.update("INSERT INTO milkman.outbox_events (eventtype, aggregateid, payload, status, attempts, "
+                + "createdtime, availabletime) VALUES ('ORDER_PLACED', 'ORD1', ?, 'PENDING', 0, now(), now())",
+                "x".repeat(10_000));
+
+        // V8: the first block starts after the highest CUST number, in steps of the allocator's block size
+        assertEquals(121L, jdbcTemplate.queryForObject("SELECT nextval('milkman.customer_id_seq')", Long.class));
+        assertEquals(171L, jdbcTemplate.queryForObject("SELECT nextval('milkman.customer_id_seq')", Long.class));
+
+        // Running again is a no-op
+        assertEquals(0, flyway(null).migrate().migrationsExecuted);
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("milkman");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static void loadInstallation() {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO milkman.customers (customerid, firstname, status) VALUES "
+                        + "('CUST007', 'Seeded', 'ACTIVE'), ('CUST120', 'Registered', 'ACTIVE'), "
+                        + "('ADMIN001', 'Admin', 'ACTIVE'), ('CUSTOMER', 'Invalid', 'ACTIVE')",
+                "INSERT INTO milkman.products (productid, productname, productprice) VALUES "
+                        + "('MIGPROD1', 'Milk', 20), ('MIGPROD2', 'Curd', 60)",
+                "INSERT INTO milkman.subscriptions (subscriptionid, customerid, customername, address, pincode, "
+                        + "deliverydays) VALUES "
+                        + "('SUB1', 'CUST007', 'Seeded', 'Street 1', '500001', 'Monday, Wednesday'), "
+                        + "('SUB2', 'CUST007', 'Seeded', 'Street 1', '500001', 'MON,sun'), "
+                        + "('SUB3', 'CUST007', 'Seeded', 'Street 1', '500001', NULL), "
+                        + "('SUB4', 'CUST007', 'Seeded', 'Street 1', '500001', ' , '), "
+                        + "('SUB5', 'CUST007', 'Seeded', 'Street 1', '500001', 'Friday')",
+                "INSERT INTO milkman.orders (orderid, customerid, pincode, orderdatetime, ordertotal, deliverycharge) "
+                        + "VALUES "
+                        + "('ORD1', 'CUST007', '500001', TIMESTAMP '2026-01-05 09:00', 100, 10), "
+                        + "('ORD2', 'CUST007', '500001', TIMESTAMP '2026-01-05 18:30', 50, NULL), "
+                        + "('ORD3', 'CUST007', NULL, TIMESTAMP '2026-01-05 12:00', NULL, 5), "
+                        + "('ORD4', 'CUST007', '500001', NULL, 30, 0)",
+                "INSERT INTO milkman.product_orders (product_order_id, orderid, productid, productprice, quantity) "
+                        + "VALUES "
+                        + "('PO1', 'ORD1', 'MIGPROD1', 20, 2), ('PO2', 'ORD1', 'MIGPROD2', 60, 1), "
+                        + "('PO3', 'ORD2', 'MIGPROD1', 20, 1), ('PO4', 'ORD2', NULL, 30, 1), "
+                        + "('PO5', 'ORD4', 'MIGPROD1', 20, 3)");
+    }
+
+    private static void assertRow(Map<String, Object> row, Object key, long count, Object amount, Object other) {
+        Object[] values = row.values().toArray();
+        assertEquals(key, values[0]);
+        assertEquals(count, ((Number) values[1]).longValue());
+        assertEquals(0, new BigDecimal(amount.toString()).compareTo(new BigDecimal(values[2].toString())), row.toString());
+        assertEquals(0, new BigDecimal(other.toString()).compareTo(new BigDecimal(values[3].toString())), row.toString());
+    }
+}
@@ -4,6 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Encrypt/Decrypt Service Tests")
@@ -63,4 +69,47 @@ class EncryptDecryptTest {
 
         assertEquals("", decrypted, "Empty string should be encrypted and decrypted correctly");
     }
+
+    @Test
+    @DisplayName("Concurrent encryption with different keys should match single-threaded results")
+    void testConcurrentEncryptDecrypt() throws Exception {
+        String[] secrets = {secretKey, "key1", "key2", "MILKMANENCRYPTDECRYPTKEYSH"};
+        String[] expected = new String[secrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            expected[i] = new EncryptDecrypt().encrypt(testData, secrets[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                int offset = task;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int k = (offset + i) % secrets.length;
+                        String encrypted = encryptDecrypt.encrypt(testData, secrets[k]);
+                        if (!expected[k].equals(encrypted)
+                                || !testData.equals(encryptDecrypt.decrypt(encrypted, secrets[k]))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Every concurrent encrypt/decrypt should match the single-threaded result");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null when decrypting with the wrong key and keep working afterwards")
+    void testDecryptWithWrongKey() {
+        String encrypted = encryptDecrypt.encrypt(testData, secretKey);
+
+        assertNull(encryptDecrypt.decrypt(encrypted, "wrongKey"), "Wrong key should not decrypt");
+        assertEquals(testData, encryptDecrypt.decrypt(encrypted, secretKey));
+    }
 }
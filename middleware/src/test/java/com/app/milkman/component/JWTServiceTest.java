@@ -1,5 +1,6 @@
 package com.app.milkman.component;
 
+import com.app.milkman.model.TokenClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -92,4 +93,16 @@ class JWTServiceTest {
 
         assertNotEquals(customerToken, adminToken, "Tokens for different roles should be different");
     }
+
+    @Test
+    @DisplayName("Should return all claims from a single parse")
+    void testParseToken() {
+        String token = jwtService.GenerateToken(testPhoneNumber, testRole);
+        TokenClaims claims = jwtService.parseToken(token);
+
+        assertEquals(testPhoneNumber, claims.getPhoneNo(), "Subject should be the phone number");
+        assertEquals(testRole, claims.getRole(), "Role should match");
+        assertEquals("access", claims.getType(), "Token type should be access");
+        assertEquals(jwtService.extractExpiration(token), claims.getExpiration(), "Expiry should match");
+    }
 }
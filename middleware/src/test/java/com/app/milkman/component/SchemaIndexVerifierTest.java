@@ -0,0 +1,45 @@
+package com.app.milkman.component;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(SchemaIndexVerifier.class)
+@DisplayName("Schema Index Verifier Tests")
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should report only the indexes the database does not have")
+    void testFindMissingIndexes() throws Exception {
+        // The H2 test schema comes from the entities, which declare the keyset listing indexes only
+        List<String> missing = schemaIndexVerifier.findMissingIndexes();
+
+        assertFalse(missing.contains("orders.idx_orders_orderdatetime"));
+        assertFalse(missing.contains("subscriptions.idx_subscriptions_customerid_orderdatetime"));
+        assertTrue(missing.contains("product_orders.idx_product_orders_orderid"));
+        assertTrue(missing.contains("customers.uq_customers_active_pphone"));
+
+        jdbcTemplate.execute("CREATE INDEX idx_product_orders_orderid ON milkman.product_orders (orderid)");
+        try {
+            assertFalse(schemaIndexVerifier.findMissingIndexes().contains("product_orders.idx_product_orders_orderid"));
+        } finally {
+            jdbcTemplate.execute("DROP INDEX milkman.idx_product_orders_orderid");
+        }
+    }
+}
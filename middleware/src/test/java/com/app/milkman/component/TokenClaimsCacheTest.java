@@ -0,0 +1,67 @@
+package com.app.milkman.component;
+
+import com.app.milkman.model.TokenClaims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Claims Cache Tests")
+class TokenClaimsCacheTest {
+
+    private JWTService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenClaimsCache tokenClaimsCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JWTService();
+        meterRegistry = new SimpleMeterRegistry();
+        tokenClaimsCache = new TokenClaimsCache();
+        ReflectionTestUtils.setField(tokenClaimsCache, "jwtService", jwtService);
+        ReflectionTestUtils.setField(tokenClaimsCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tokenClaimsCache, "maxSize", 100L);
+        tokenClaimsCache.init();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeated lookups from the cache")
+    void testRepeatedLookupsHitCache() {
+        String token = jwtService.GenerateToken("9876543210", "ADMIN");
+
+        TokenClaims first = tokenClaimsCache.getClaims(token);
+        TokenClaims second = tokenClaimsCache.getClaims(token);
+
+        assertSame(first, second, "Second lookup should return the cached claims");
+        assertEquals("9876543210", first.getPhoneNo());
+        assertEquals("ADMIN", first.getRole());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwtClaims").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwtClaims").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep claims of different tokens apart")
+    void testDifferentTokens() {
+        String adminToken = jwtService.GenerateToken("1111111111", "ADMIN");
+        String userToken = jwtService.GenerateToken("2222222222", "USER");
+
+        assertEquals("ADMIN", tokenClaimsCache.getClaims(adminToken).getRole());
+        assertEquals("USER", tokenClaimsCache.getClaims(userToken).getRole());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens on every lookup")
+    void testInvalidTokenIsNotCached() {
+        String token = jwtService.GenerateToken("9876543210", "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> tokenClaimsCache.getClaims(tampered));
+        assertThrows(JwtException.class, () -> tokenClaimsCache.getClaims(tampered));
+    }
+}
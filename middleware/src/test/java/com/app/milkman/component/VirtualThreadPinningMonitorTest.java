@@ -0,0 +1,62 @@
+package com.app.milkman.component;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Virtual Thread Pinning Monitor Tests")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(monitor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(monitor, "threshold", Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should record a virtual thread that sleeps while holding a monitor")
+    void testPinningIsRecorded() throws Exception {
+        Object lock = new Object();
+        // Thread.startVirtualThread is Java 21 API, and the test sources are compiled for Java 17
+        Thread thread = (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class).invoke(null,
+                (Runnable) () -> {
+                    synchronized (lock) {
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+        thread.join();
+
+        // Events reach the stream when JFR flushes, about once a second
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0) {
+            assertTrue(System.nanoTime() < deadline, "No pinning recorded within 10s");
+            Thread.sleep(100);
+        }
+        assertTrue(meterRegistry.get("jvm.threads.virtual.pinned").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 40);
+    }
+}
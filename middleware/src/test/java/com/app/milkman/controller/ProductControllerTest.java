@@ -1,5 +1,7 @@
 package com.app.milkman.controller;
 
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.model.ProductDetails;
 import com.app.milkman.model.ProductRegRequest;
 import com.app.milkman.model.ProductRegResponse;
 import com.app.milkman.service.ProductService;
@@ -10,12 +12,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +47,9 @@ class ProductControllerTest {
         @MockBean
         private ProductService productService;
 
+        @Autowired
+        private ProductCatalog productCatalog;
+
         @MockBean
         private com.app.milkman.component.RoleAuthorizationInterceptor roleAuthorizationInterceptor;
 
@@ -102,4 +118,97 @@ class ProductControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
         }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match with 304 until the listing changes")
+        void testGetAllProductsConditional() throws Exception {
+                productCatalog.invalidate();
+                when(productService.getAllProducts(any())).thenReturn(List.of(ProductDetails.builder()
+                                .productId("P001").productName("Milk").productPrice(BigDecimal.valueOf(50)).build()));
+
+                MvcResult first = mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists(HttpHeaders.ETAG))
+                                .andExpect(jsonPath("$[0].productId").value("P001"))
+                                .andReturn();
+                String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+                mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "5")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, etag));
+                // Both requests were served from the one serialized page
+                verify(productService, times(1)).getAllProducts(any());
+
+                // The tag follows the content, not the catalog version, so it survives a reload (or a restart)
+                productCatalog.invalidate();
+                mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "5")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                                .andExpect(status().isNotModified());
+
+                when(productService.getAllProducts(any())).thenReturn(List.of(ProductDetails.builder()
+                                .productId("P001").productName("Milk").productPrice(BigDecimal.valueOf(55)).build()));
+                productCatalog.invalidate();
+                MvcResult changed = mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "5")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                                .andExpect(status().isOk())
+                                .andReturn();
+                assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        }
+
+        @Test
+        @DisplayName("Should serve the precompressed variant to gzip clients")
+        void testGetAllProductsGzip() throws Exception {
+                productCatalog.invalidate();
+                when(productService.getAllProducts(any())).thenReturn(List.of(ProductDetails.builder()
+                                .productId("P002").productName("Curd").productPrice(BigDecimal.valueOf(30)).build()));
+
+                MvcResult plain = mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "7"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                                .andReturn();
+                MvcResult gzip = mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "7")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                                .andReturn();
+
+                String plainEtag = plain.getResponse().getHeader(HttpHeaders.ETAG);
+                String gzipEtag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+                assertNotEquals(plainEtag, gzipEtag);
+                try (GZIPInputStream in = new GZIPInputStream(
+                                new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+                        assertEquals(plain.getResponse().getContentAsString(),
+                                        new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "7")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                                .andExpect(status().isNotModified());
+
+                // gzip;q=0 refuses gzip
+                mockMvc.perform(get("/product/getProducts")
+                                .param("page", "0")
+                                .param("size", "7")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                                .andExpect(header().string(HttpHeaders.ETAG, plainEtag));
+        }
 }
@@ -0,0 +1,235 @@
+package com.app.milkman.metrics;
+
+import com.app.milkman.component.EncryptDecrypt;
+import com.app.milkman.component.JWTService;
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.model.OrderRegRequest;
+import com.app.milkman.model.ProductOrdersReq;
+import com.app.milkman.model.SubscribeRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.app.milkman.utils.Constants.KEY;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls every endpoint with a @SqlBudget against real data sized to expose an N+1 (20-line carts, 50-row pages).
+ * The test profile runs budgets in strict mode, so a request over its budget fails the test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Controller SQL Budget Tests")
+class ControllerSqlBudgetTest {
+
+    private static final String CUSTOMER_ID = "BUDGETCUST";
+    private static final String PHONE = "7555000001";
+    private static final String PIN_CODE = "599001";
+    private static final int PRODUCTS = 20;
+    private static final int ROWS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private EncryptDecrypt encryptDecrypt;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private String userToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.update("INSERT INTO milkman.customers (customerid, firstname, lastname, pphone, auth_pin, "
+                + "pincode, status) VALUES (?, 'Budget', 'Customer', ?, ?, ?, 'ACTIVE')",
+                CUSTOMER_ID, PHONE, encryptDecrypt.encrypt("1234", KEY), PIN_CODE);
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Object[]{"BUDGETPROD" + i, "Product " + i, BigDecimal.valueOf(30 + i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.products (productid, productname, productprice, status) "
+                + "VALUES (?, ?, ?, 'ACTIVE')", products);
+
+        LocalDateTime placed = LocalDateTime.now().minusDays(1);
+        List<Object[]> headers = new ArrayList<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String id = String.format("BUDGET%02d", i);
+            headers.add(new Object[]{id, CUSTOMER_ID, PHONE, PIN_CODE, Timestamp.valueOf(placed.plusMinutes(i))});
+            for (int line = 0; line < 2; line++) {
+                lines.add(new Object[]{id + "-" + line, id, "BUDGETPROD" + line});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.orders (orderid, customerid, customername, pphone, pincode, "
+                + "orderdatetime, status, deliverycharge, ordertotal) VALUES (?, ?, 'Budget Customer', ?, ?, ?, "
+                + "'ACTIVE', 10, 71)", headers);
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.product_orders (product_order_id, orderid, productid, "
+                + "productprice, quantity) VALUES (?, ?, ?, 30, 1)", lines);
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.subscriptions (subscriptionid, customerid, customername, "
+                + "pphone, address, pincode, orderdatetime, deliverystartdate, deliverydays, deliverydaysmask, status, "
+                + "deliverycharge, ordertotal) VALUES (?, ?, 'Budget Customer', ?, 'Address', ?, ?, CURRENT_DATE, "
+                + "'Monday, Tuesday, Wednesday, Thursday, Friday, Saturday, Sunday', 127, 'ACTIVE', 10, 71)", headers);
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.product_subscriptions (product_subscription_id, subscriptionid, "
+                + "productid, productprice, quantity) VALUES (?, ?, ?, 30, 1)", lines);
+        productCatalog.invalidate();
+
+        userToken = "Bearer " + jwtService.GenerateToken(PHONE, "USER");
+        adminToken = "Bearer " + jwtService.GenerateToken(PHONE, "ADMIN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM milkman.outbox_events WHERE aggregateid IN "
+                + "(SELECT orderid FROM milkman.orders WHERE customerid = ?) OR aggregateid IN "
+                + "(SELECT subscriptionid FROM milkman.subscriptions WHERE customerid = ?)", CUSTOMER_ID, CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM milkman.product_orders WHERE orderid IN "
+                + "(SELECT orderid FROM milkman.orders WHERE customerid = ?)", CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM milkman.orders WHERE customerid = ?", CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM milkman.product_subscriptions WHERE subscriptionid IN "
+                + "(SELECT subscriptionid FROM milkman.subscriptions WHERE customerid = ?)", CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM milkman.subscriptions WHERE customerid = ?", CUSTOMER_ID);
+        jdbcTemplate.update("DELETE FROM milkman.order_rollup WHERE pincode = ?", PIN_CODE);
+        jdbcTemplate.update("DELETE FROM milkman.sales_rollup WHERE pincode = ?", PIN_CODE);
+        jdbcTemplate.update("DELETE FROM milkman.products WHERE productid LIKE 'BUDGETPROD%'");
+        jdbcTemplate.update("DELETE FROM milkman.customers WHERE customerid = ?", CUSTOMER_ID);
+        productCatalog.invalidate();
+    }
+
+    @Test
+    @DisplayName("Customer and product endpoints should stay within their SQL budgets")
+    void testCustomerAndProductBudgets() throws Exception {
+        mockMvc.perform(post("/customer/authenticate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailIdOrPhone\":\"" + PHONE + "\",\"authPin\":\"1234\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(CUSTOMER_ID));
+        mockMvc.perform(get("/customer/" + CUSTOMER_ID)).andExpect(status().isOk());
+        mockMvc.perform(get("/product/getProducts").param("page", "0").param("size", "50"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Order endpoints should stay within their SQL budgets with 20-line carts and 50-row pages")
+    void testOrderBudgets() throws Exception {
+        perform(post("/order/create"), orderRequest(null)).andExpect(jsonPath("$.statusCode").value("200"));
+        perform(put("/order/update"), orderRequest("BUDGET00")).andExpect(jsonPath("$.statusCode").value("200"));
+
+        for (String token : new String[]{userToken, adminToken}) {
+            mockMvc.perform(get("/order/getAllOrders").param("page", "0").param("size", "50")
+                            .header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(ROWS));
+            mockMvc.perform(get("/order/getAllOrders").param("cursor", "").param("size", "50")
+                            .header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(ROWS));
+        }
+        mockMvc.perform(get("/order/getAllOrders/" + CUSTOMER_ID).param("page", "0").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS));
+    }
+
+    @Test
+    @DisplayName("Subscription endpoints should stay within their SQL budgets with 20-line carts and 50-row pages")
+    void testSubscriptionBudgets() throws Exception {
+        perform(post("/subscribe/create"), subscribeRequest(null)).andExpect(jsonPath("$.statusCode").value("200"));
+        perform(put("/subscribe/update"), subscribeRequest("BUDGET00"))
+                .andExpect(jsonPath("$.statusCode").value("200"));
+
+        for (String token : new String[]{userToken, adminToken}) {
+            mockMvc.perform(get("/subscribe/getAllSubscriptions").param("page", "0").param("size", "50")
+                            .header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(ROWS));
+            mockMvc.perform(get("/subscribe/getAllSubscriptions").param("cursor", "").param("size", "50")
+                            .header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(ROWS));
+        }
+        mockMvc.perform(get("/subscribe/getAllSubscriptions/" + CUSTOMER_ID).param("page", "0").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS));
+        mockMvc.perform(get("/subscribe/manifest").param("date", LocalDate.now().plusDays(1).toString())
+                        .header("Authorization", adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", userToken)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+
+    private static List<ProductOrdersReq> cart() {
+        List<ProductOrdersReq> cart = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductOrdersReq line = new ProductOrdersReq();
+            line.setProductId("BUDGETPROD" + i);
+            line.setQuantity(1 + i % 3);
+            cart.add(line);
+        }
+        return cart;
+    }
+
+    private static OrderRegRequest orderRequest(String orderId) {
+        OrderRegRequest request = new OrderRegRequest();
+        request.setOrderId(orderId);
+        request.setCustomerId(CUSTOMER_ID);
+        request.setProductOrderReqs(cart());
+        request.setDeliveryDate(LocalDate.now().plusDays(1));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryFrequency("ONETIME");
+        request.setOrderStatus("ACTIVE");
+        request.setDeliveryCharge(10.0);
+        return request;
+    }
+
+    private static SubscribeRequest subscribeRequest(String subscriptionId) {
+        SubscribeRequest request = new SubscribeRequest();
+        request.setSubscriptionId(subscriptionId);
+        request.setCustomerId(CUSTOMER_ID);
+        request.setProductOrderReqs(cart());
+        request.setDeliveryStartDate(LocalDate.now().plusDays(1));
+        request.setDeliveryEndDate(LocalDate.now().plusDays(30));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryDays(List.of("Monday", "Thursday"));
+        request.setDeliveryFrequency("DAILY");
+        request.setOrderStatus("ACTIVE");
+        request.setDeliveryCharge(10.0);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.milkman.metrics;
+
+import com.app.milkman.model.SubscribeRequest;
+import com.app.milkman.service.OrderService;
+import com.app.milkman.service.SubscribeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Operation Metrics Tests")
+class OperationMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SubscribeService subscribeService;
+
+    @Test
+    @DisplayName("Should time service calls per class and method, tagging failures with the exception")
+    void testServiceCallsAreTimed() {
+        long before = count(timer(OperationTimingAspect.SERVICE, "OrderServiceImpl", "getAllOrdersByCustomerId"));
+        orderService.getAllOrdersByCustomerId("METRICSCUST0", PageRequest.of(0, 10));
+        assertEquals(before + 1, count(timer(OperationTimingAspect.SERVICE, "OrderServiceImpl",
+                "getAllOrdersByCustomerId")));
+
+        SubscribeRequest request = new SubscribeRequest();
+        request.setSubscriptionId("METRICS-MISSING");
+        request.setProductOrderReqs(List.of());
+        request.setDeliveryDays(List.of("Monday"));
+        long failedBefore = count(failures());
+        assertThrows(RuntimeException.class, () -> subscribeService.updateSubscription(request));
+        assertEquals(failedBefore + 1, count(failures()));
+    }
+
+    @Test
+    @DisplayName("Should record statements and DB time of a request, and time its repository calls")
+    void testRequestDbWorkIsRecorded() throws Exception {
+        jdbcTemplate.update("INSERT INTO milkman.customers (customerid, firstname, lastname, pphone, status) "
+                + "VALUES ('METRICSCUST1', 'Metrics', 'Customer', '7999999001', 'ACTIVE')");
+        DistributionSummary statementsBefore = statements();
+        long requestsBefore = statementsBefore == null ? 0 : statementsBefore.count();
+        double totalBefore = statementsBefore == null ? 0 : statementsBefore.totalAmount();
+        long lookupsBefore = count(timer(OperationTimingAspect.REPOSITORY, "CustomersRepository", "findByCustomerId"));
+
+        mockMvc.perform(get("/customer/METRICSCUST1")).andExpect(status().isOk());
+
+        assertEquals(requestsBefore + 1, statements().count());
+        assertTrue(statements().totalAmount() >= totalBefore + 1, "The customer lookup should count as a statement");
+        assertEquals(lookupsBefore + 1, count(timer(OperationTimingAspect.REPOSITORY, "CustomersRepository",
+                "findByCustomerId")));
+        assertTrue(meterRegistry.get("milkman.http.db.time").tag("uri", "/customer/{customerId}").timer()
+                .totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertNull(RequestDbStats.current(), "Request stats should not outlive the request");
+
+        jdbcTemplate.update("DELETE FROM milkman.customers WHERE customerid = 'METRICSCUST1'");
+    }
+
+    private DistributionSummary statements() {
+        return meterRegistry.find("milkman.http.db.statements").tag("uri", "/customer/{customerId}").summary();
+    }
+
+    private Timer timer(String name, String className, String method) {
+        return meterRegistry.find(name).tag("class", className).tag("method", method).tag("error", "none").timer();
+    }
+
+    private Timer failures() {
+        return meterRegistry.find(OperationTimingAspect.SERVICE).tag("class", "SubscribeServiceImpl")
+                .tag("method", "updateSubscription").tag("error", "RuntimeException").timer();
+    }
+
+    private static long count(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
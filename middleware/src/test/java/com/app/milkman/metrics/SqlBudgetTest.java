@@ -0,0 +1,130 @@
+package com.app.milkman.metrics;
+
+import com.app.milkman.exceptions.SqlBudgetExceededException;
+import com.app.milkman.repository.CustomersRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlBudgetTest.LookupController.class)
+@DisplayName("SQL Budget Tests")
+class SqlBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should pass requests within the budget of their handler")
+    void testRequestWithinBudget() throws Exception {
+        long before = exceeded();
+        mockMvc.perform(get("/sql-budget/lookups/2")).andExpect(status().isOk());
+        assertEquals(before, exceeded(), "A request within budget should not be counted");
+    }
+
+    @Test
+    @DisplayName("Should fail requests over the budget of their handler in strict mode")
+    void testRequestOverBudgetFails() {
+        long before = exceeded();
+
+        Exception exception = assertThrows(Exception.class,
+                () -> mockMvc.perform(get("/sql-budget/lookups/3")));
+
+        assertInstanceOf(SqlBudgetExceededException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("prepared 3 SQL statements"),
+                exception.getCause().getMessage());
+        assertEquals(before + 1, exceeded());
+        assertNull(RequestDbStats.current(), "Request stats should not outlive a failed request");
+    }
+
+    @Test
+    @DisplayName("Should count statements sent through JdbcTemplate against the budget")
+    void testJdbcTemplateRequestOverBudgetFails() throws Exception {
+        mockMvc.perform(get("/sql-budget/jdbc-lookups/2")).andExpect(status().isOk());
+
+        Exception exception = assertThrows(Exception.class,
+                () -> mockMvc.perform(get("/sql-budget/jdbc-lookups/3")));
+
+        assertInstanceOf(SqlBudgetExceededException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("prepared 3 SQL statements"),
+                exception.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Should answer over-budget requests with an error over real HTTP, not the buffered 200")
+    void testRequestOverBudgetFailsOverHttp() {
+        ResponseEntity<String> within = restTemplate.getForEntity("/sql-budget/lookups/2", String.class);
+        assertEquals(HttpStatus.OK, within.getStatusCode());
+        assertEquals("2", within.getBody());
+
+        ResponseEntity<String> over = restTemplate.getForEntity("/sql-budget/lookups/3", String.class);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, over.getStatusCode());
+    }
+
+    private long exceeded() {
+        Counter counter = meterRegistry.find("milkman.http.sql.budget.exceeded")
+                .tag("uri", "/sql-budget/lookups/{count}").counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+
+    /**
+     * Looks a customer up the given number of times, one statement each, like a loop over lazy associations or a
+     * JdbcTemplate query per row
+     */
+    @RestController
+    @RequestMapping("/sql-budget")
+    static class LookupController {
+
+        @Autowired
+        private CustomersRepository customersRepository;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @SqlBudget(statements = 2)
+        @GetMapping("/lookups/{count}")
+        public int lookups(@PathVariable int count) {
+            for (int i = 0; i < count; i++) {
+                customersRepository.findByCustomerId("SQLBUDGET" + i);
+            }
+            return count;
+        }
+
+        @SqlBudget(statements = 2)
+        @GetMapping("/jdbc-lookups/{count}")
+        public int jdbcLookups(@PathVariable int count) {
+            for (int i = 0; i < count; i++) {
+                jdbcTemplate.queryForList("SELECT customerid FROM milkman.customers WHERE customerid = ?",
+                        String.class, "SQLBUDGET" + i);
+            }
+            return count;
+        }
+    }
+}
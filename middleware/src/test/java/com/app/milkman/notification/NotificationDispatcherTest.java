@@ -0,0 +1,303 @@
+package com.app.milkman.notification;
+
+import com.app.milkman.component.EmailComponent;
+import com.app.milkman.component.SMSComponent;
+import com.app.milkman.entity.NotificationDeadLetter;
+import com.app.milkman.model.EmailRequest;
+import com.app.milkman.model.ParentResponse;
+import com.app.milkman.model.SMSRequest;
+import com.app.milkman.repository.NotificationDeadLetterRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "milkman.notification.sms.transport=fake",
+        "milkman.notification.queue-capacity=20",
+        "milkman.notification.batch-size=5",
+        "milkman.notification.workers=1",
+        "milkman.notification.max-attempts=3",
+        "milkman.notification.initial-backoff=20ms"
+})
+@ActiveProfiles("test")
+@DisplayName("Notification Dispatcher Tests")
+class NotificationDispatcherTest {
+
+    // Local SMTP server on the port and credentials configured for the test profile
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    @Autowired
+    private EmailComponent emailComponent;
+
+    @Autowired
+    private SMSComponent smsComponent;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private FakeSmsGateway smsGateway;
+
+    @BeforeEach
+    void setUp() {
+        smsGateway.reset();
+        deadLetterRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return immediately and deliver e-mails through SMTP in the background")
+    void testEmailDelivery() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            EmailRequest email = new EmailRequest();
+            email.setRecipient("customer" + i + "@example.com");
+            email.setSubject("Order " + i);
+            email.setMsgBody("Your order has been placed");
+            ParentResponse response = emailComponent.sendEmail(email);
+            assertEquals("200", response.getStatusCode());
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 3));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals(List.of("Order 0", "Order 1", "Order 2"),
+                List.of(received[0].getSubject(), received[1].getSubject(), received[2].getSubject())
+                        .stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Should batch queued SMS and reject submissions once the queue is full")
+    void testBatchingAndBackpressure() throws Exception {
+        smsGateway.closeGate();
+        assertEquals("200", smsComponent.sendSMS(sms("+911000000000")).getStatusCode());
+        assertTrue(smsGateway.awaitSending(), "First SMS should reach the gateway");
+
+        // The single worker is blocked, so the dispatcher waits for it without taking a batch; the queue takes 20 more
+        int accepted = 1;
+        int rejected = 0;
+        for (int i = 1; i <= 40; i++) {
+            ParentResponse response = smsComponent.sendSMS(sms("+91100000" + String.format("%04d", i)));
+            if ("200".equals(response.getStatusCode())) {
+                accepted++;
+            } else {
+                assertEquals("503", response.getStatusCode());
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0, "A full queue should reject submissions");
+
+        smsGateway.openGate();
+        int expected = accepted;
+        awaitUntil(() -> smsGateway.delivered() == expected);
+        assertEquals(0, notificationDispatcher.getQueueSize(NotificationChannel.SMS));
+        assertTrue(smsGateway.batches.stream().allMatch(batch -> batch.size() <= 5));
+        assertTrue(smsGateway.batches.stream().anyMatch(batch -> batch.size() == 5),
+                "Notifications waiting in the queue should go out in full batches");
+    }
+
+    @Test
+    @DisplayName("Should retry failed SMS and dead-letter them after the last attempt")
+    void testRetryAndDeadLetter() throws Exception {
+        // Fails once, then goes through
+        smsGateway.failures.put("+912000000000", new AtomicInteger(1));
+        // Never goes through
+        smsGateway.failures.put("+913000000000", new AtomicInteger(Integer.MAX_VALUE));
+
+        smsComponent.sendSMS(sms("+912000000000"));
+        smsComponent.sendSMS(sms("+913000000000"));
+
+        awaitUntil(() -> !deadLetterRepository.findByChannel("SMS").isEmpty());
+        awaitUntil(() -> smsGateway.delivered() == 1);
+
+        List<NotificationDeadLetter> deadLetters = deadLetterRepository.findByChannel("SMS");
+        assertEquals(1, deadLetters.size());
+        assertEquals("+913000000000", deadLetters.get(0).getRecipient());
+        assertEquals(3, deadLetters.get(0).getAttempts());
+        assertEquals("Gateway rejected +913000000000", deadLetters.get(0).getLastError());
+        assertEquals(3, smsGateway.attempts("+913000000000"));
+        assertEquals(2, smsGateway.attempts("+912000000000"));
+    }
+
+    @Test
+    @DisplayName("Should leave queued SMS in the queue when stopped while waiting for a worker")
+    void testStopKeepsQueuedNotifications() throws Exception {
+        // A dispatcher of its own, as stopping the shared one would break the other tests
+        FakeSmsGateway gateway = new FakeSmsGateway();
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "transports", List.of(gateway));
+        ReflectionTestUtils.setField(dispatcher, "deadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 20);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 5);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofSeconds(1));
+        dispatcher.start();
+
+        gateway.closeGate();
+        dispatcher.submit(notification("+914000000000"));
+        assertTrue(gateway.awaitSending(), "First SMS should reach the gateway");
+        for (int i = 1; i <= 7; i++) {
+            dispatcher.submit(notification("+91400000" + String.format("%04d", i)));
+        }
+
+        // stop() waits for the batch in flight, so it runs aside until the gateway lets that batch through
+        Thread stopping = new Thread(() -> {
+            try {
+                dispatcher.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopping.start();
+        awaitUntil(() -> !dispatcher.isDispatching(NotificationChannel.SMS));
+        gateway.openGate();
+        stopping.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(1, gateway.delivered());
+        assertEquals(7, dispatcher.getQueueSize(NotificationChannel.SMS),
+                "No notification should be taken from the queue and dropped");
+    }
+
+    @Test
+    @DisplayName("Should grow the retry backoff exponentially up to the maximum")
+    void testBackoff() {
+        assertEquals(20, notificationDispatcher.backoff(1).toMillis());
+        assertEquals(40, notificationDispatcher.backoff(2).toMillis());
+        assertEquals(80, notificationDispatcher.backoff(3).toMillis());
+        assertEquals(60_000, notificationDispatcher.backoff(40).toMillis());
+    }
+
+    private static SMSRequest sms(String toNumber) {
+        SMSRequest sms = new SMSRequest();
+        sms.setToNumber(toNumber);
+        sms.setTextMessage("Your milk will be delivered tomorrow");
+        return sms;
+    }
+
+    private static Notification notification(String toNumber) {
+        return Notification.builder()
+                .channel(NotificationChannel.SMS)
+                .recipient(toNumber)
+                .body("Your milk will be delivered tomorrow")
+                .build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10s");
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class FakeSmsConfiguration {
+
+        @Bean
+        FakeSmsGateway fakeSmsGateway() {
+            return new FakeSmsGateway();
+        }
+    }
+
+    /**
+     * In-memory SMS gateway recording every batch; recipients can be scripted to fail a number of times
+     */
+    static class FakeSmsGateway implements NotificationTransport {
+
+        final List<List<Notification>> batches = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        private final AtomicInteger delivered = new AtomicInteger();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile CountDownLatch sending = new CountDownLatch(1);
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.SMS;
+        }
+
+        @Override
+        public List<FailedNotification> send(List<Notification> batch) {
+            sending.countDown();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(List.copyOf(batch));
+            List<FailedNotification> failed = new ArrayList<>();
+            for (Notification notification : batch) {
+                attempts.computeIfAbsent(notification.getRecipient(), key -> new AtomicInteger()).incrementAndGet();
+                AtomicInteger remainingFailures = failures.get(notification.getRecipient());
+                if (remainingFailures != null && remainingFailures.getAndDecrement() > 0) {
+                    failed.add(new FailedNotification(notification,
+                            new IllegalStateException("Gateway rejected " + notification.getRecipient())));
+                } else {
+                    delivered.incrementAndGet();
+                }
+            }
+            return failed;
+        }
+
+        void reset() {
+            batches.clear();
+            failures.clear();
+            attempts.clear();
+            delivered.set(0);
+            gate = new CountDownLatch(0);
+            sending = new CountDownLatch(1);
+        }
+
+        void closeGate() {
+            gate = new CountDownLatch(1);
+        }
+
+        void openGate() {
+            gate.countDown();
+        }
+
+        boolean awaitSending() throws InterruptedException {
+            return sending.await(5, TimeUnit.SECONDS);
+        }
+
+        int delivered() {
+            return delivered.get();
+        }
+
+        int attempts(String recipient) {
+            AtomicInteger count = attempts.get(recipient);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
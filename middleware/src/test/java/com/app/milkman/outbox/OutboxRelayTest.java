@@ -0,0 +1,182 @@
+package com.app.milkman.outbox;
+
+import com.app.milkman.entity.OutboxEvent;
+import com.app.milkman.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "milkman.outbox.batch-size=3",
+        "milkman.outbox.max-attempts=2",
+        "milkman.outbox.initial-backoff=1m"
+})
+@ActiveProfiles("test")
+@Import({OutboxPublisher.class, OutboxRelay.class, SimpleMeterRegistry.class})
+@DisplayName("Outbox Relay Tests")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        listener.reset();
+    }
+
+    @Test
+    @DisplayName("Should deliver events in write order, one batch at a time, and clear them")
+    void testRelayDeliversInOrder() {
+        for (int i = 0; i < 5; i++) {
+            outboxPublisher.publish(OutboxEventType.ORDER_PLACED, "ORDER" + i, Map.of("orderId", "ORDER" + i));
+        }
+
+        assertEquals(3, outboxRelay.relayBatch());
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(0, outboxRelay.relayBatch());
+
+        assertEquals(List.of("ORDER0", "ORDER1", "ORDER2", "ORDER3", "ORDER4"), listener.aggregateIds);
+        assertEquals(0, outboxEventRepository.count());
+        assertTrue(meterRegistry.get("outbox.events").tag("result", "delivered").counter().count() >= 5);
+        assertTrue(meterRegistry.get("outbox.event.lag").timer().count() >= 5);
+    }
+
+    @Test
+    @DisplayName("Should reschedule failed deliveries and mark them FAILED after the last attempt")
+    void testFailedDeliveryIsRetriedThenFailed() {
+        listener.failingAggregateIds.add("SUB1");
+        outboxPublisher.publish(OutboxEventType.SUBSCRIPTION_CREATED, "SUB1", Map.of("subscriptionId", "SUB1"));
+        outboxPublisher.publish(OutboxEventType.SUBSCRIPTION_CREATED, "SUB2", Map.of("subscriptionId", "SUB2"));
+
+        assertEquals(2, outboxRelay.relayBatch());
+        OutboxEvent failed = outboxEventRepository.findAll().get(0);
+        assertEquals("SUB1", failed.getAggregateId());
+        assertEquals(1, failed.getAttempts());
+        assertEquals(OutboxEvent.PENDING, failed.getStatus());
+        assertTrue(failed.getAvailableTime().isAfter(LocalDateTime.now()), "Retry should wait for the backoff");
+        assertEquals(0, outboxRelay.relayBatch(), "Nothing is due before the backoff elapses");
+
+        failed.setAvailableTime(LocalDateTime.now().minusSeconds(1));
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(OutboxEvent.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertEquals("Listener rejected SUB1", failed.getLastError());
+        assertEquals(0, outboxRelay.relayBatch(), "Failed events are not relayed again");
+        assertEquals(List.of("SUB1", "SUB2", "SUB1"), listener.aggregateIds);
+    }
+
+    @Test
+    @DisplayName("Should hold an aggregate's later events back while an earlier one waits for its retry")
+    void testRetryKeepsAggregateOrder() {
+        listener.failingAggregateIds.add("ORDERA");
+        outboxPublisher.publish(OutboxEventType.ORDER_PLACED, "ORDERA", Map.of("orderId", "ORDERA"));
+        outboxPublisher.publish(OutboxEventType.ORDER_UPDATED, "ORDERA", Map.of("orderId", "ORDERA"));
+        outboxPublisher.publish(OutboxEventType.ORDER_PLACED, "ORDERB", Map.of("orderId", "ORDERB"));
+
+        assertEquals(2, outboxRelay.relayBatch(), "ORDER_UPDATED waits behind the ORDER_PLACED of its order");
+        assertEquals(0, outboxRelay.relayBatch(), "Nothing is due while ORDER_PLACED waits for its retry");
+
+        listener.failingAggregateIds.clear();
+        OutboxEvent placed = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getEventType() == OutboxEventType.ORDER_PLACED).findFirst().orElseThrow();
+        placed.setAvailableTime(LocalDateTime.now().minusSeconds(1));
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+
+        assertEquals(List.of("ORDERA", "ORDERB", "ORDERA", "ORDERA"), listener.aggregateIds);
+        assertEquals(List.of(OutboxEventType.ORDER_PLACED, OutboxEventType.ORDER_PLACED, OutboxEventType.ORDER_PLACED,
+                OutboxEventType.ORDER_UPDATED), listener.eventTypes);
+    }
+
+    @Test
+    @DisplayName("Should store and deliver the payloads of large orders")
+    void testLargePayloads() {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(Map.of("productId", UUID.randomUUID().toString(), "quantity", i + 1));
+        }
+        Map<String, Object> payload = Map.of("orderId", "BIG0", "lines", lines);
+        outboxPublisher.publish(OutboxEventType.ORDER_PLACED, "BIG0", payload);
+        outboxPublisher.publishAll(OutboxEventType.ORDER_PLACED, Map.of("BIG1", payload));
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(2, events.size());
+        events.forEach(event -> assertTrue(event.getPayload().length() > 20_000, "Payload was cut short"));
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(List.of("BIG0", "BIG1"), listener.aggregateIds);
+    }
+
+    @Test
+    @DisplayName("Should only write an event inside the caller's transaction")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testPublishRequiresTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () ->
+                outboxPublisher.publish(OutboxEventType.ORDER_PLACED, "ORDER9", Map.of("orderId", "ORDER9")));
+    }
+
+    @TestConfiguration
+    static class ListenerConfiguration {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements OutboxEventListener {
+
+        final List<String> aggregateIds = Collections.synchronizedList(new ArrayList<>());
+        final List<OutboxEventType> eventTypes = Collections.synchronizedList(new ArrayList<>());
+        final Set<String> failingAggregateIds = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            aggregateIds.add(event.getAggregateId());
+            eventTypes.add(event.getEventType());
+            if (failingAggregateIds.contains(event.getAggregateId())) {
+                throw new IllegalStateException("Listener rejected " + event.getAggregateId());
+            }
+        }
+
+        void reset() {
+            aggregateIds.clear();
+            eventTypes.clear();
+            failingAggregateIds.clear();
+        }
+    }
+}
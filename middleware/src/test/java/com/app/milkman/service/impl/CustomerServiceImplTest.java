@@ -0,0 +1,109 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.model.CustomerAuthRequest;
+import com.app.milkman.model.CustomerAuthResponse;
+import com.app.milkman.model.CustomerRegRequest;
+import com.app.milkman.model.CustomerRegResponse;
+import com.app.milkman.service.CustomerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Customer Service Tests")
+class CustomerServiceImplTest {
+
+    private static final int REGISTRATIONS = 300;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    @DisplayName("Concurrent registrations should never share a customer ID")
+    void testConcurrentRegistrationsGetUniqueIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CustomerRegResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                CustomerRegRequest request = registrationRequest(i);
+                Callable<CustomerRegResponse> registration = () -> {
+                    start.await();
+                    return customerService.registerCustomer(request);
+                };
+                futures.add(executor.submit(registration));
+            }
+            start.countDown();
+
+            Set<String> customerIds = new HashSet<>();
+            for (Future<CustomerRegResponse> future : futures) {
+                CustomerRegResponse response = future.get();
+                assertEquals("200", response.getStatusCode(), response.getErrorMsg());
+                assertTrue(response.getCustomerId().matches("^CUST\\d{3,}$"),
+                        "Unexpected customer ID format: " + response.getCustomerId());
+                assertTrue(customerIds.add(response.getCustomerId()),
+                        "Duplicate customer ID: " + response.getCustomerId());
+            }
+            assertEquals(REGISTRATIONS, customerIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Login should find the customer by phone or by e-mail and reject a wrong PIN")
+    void testAuthenticateByPhoneOrEmail() {
+        CustomerRegRequest registration = registrationRequest(REGISTRATIONS + 1);
+        registration.setPrimaryPhone("6000000001");
+        registration.setEmailId("login.customer@example.com");
+        CustomerRegResponse registered = customerService.registerCustomer(registration);
+        assertEquals("200", registered.getStatusCode(), registered.getErrorMsg());
+
+        CustomerAuthResponse byPhone = customerService.authenticate(authRequest("6000000001", "1234"));
+        assertEquals("200", byPhone.getStatusCode());
+        assertEquals(registered.getCustomerId(), byPhone.getCustomerId());
+        assertNotNull(byPhone.getAuthToken());
+
+        CustomerAuthResponse byEmail = customerService.authenticate(authRequest("login.customer@example.com", "1234"));
+        assertEquals("200", byEmail.getStatusCode());
+        assertEquals(registered.getCustomerId(), byEmail.getCustomerId());
+
+        assertEquals("404", customerService.authenticate(authRequest("6000000001", "9999")).getStatusCode());
+        assertEquals("404", customerService.authenticate(authRequest("login.customer@example.com", "")).getStatusCode());
+        assertEquals("404", customerService.authenticate(authRequest("nobody@example.com", "1234")).getStatusCode());
+    }
+
+    private CustomerAuthRequest authRequest(String emailIdOrPhone, String authPin) {
+        CustomerAuthRequest request = new CustomerAuthRequest();
+        request.setEmailIdOrPhone(emailIdOrPhone);
+        request.setAuthPin(authPin);
+        return request;
+    }
+
+    private CustomerRegRequest registrationRequest(int index) {
+        CustomerRegRequest request = new CustomerRegRequest();
+        request.setFirstName("Load");
+        request.setLastName("Customer" + index);
+        request.setPrimaryPhone(String.format("7%09d", index));
+        request.setEmailId("load.customer" + index + "@example.com");
+        request.setAuthPin("1234");
+        request.setAddress("1 Dairy Road");
+        request.setPincode("560001");
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.model.DeliveryManifest;
+import com.app.milkman.model.DeliveryManifestGroup;
+import com.app.milkman.model.DeliveryManifestItem;
+import com.app.milkman.utils.DeliveryDays;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "milkman.subscription.manifest.fetch-size=100")
+@ActiveProfiles("test")
+@Import({DeliveryManifestServiceImpl.class, SimpleMeterRegistry.class})
+@DisplayName("Delivery Manifest Service Tests")
+class DeliveryManifestServiceImplTest {
+
+    // A Wednesday
+    private static final LocalDate DELIVERY_DATE = LocalDate.of(2024, 6, 5);
+
+    @Autowired
+    private DeliveryManifestServiceImpl deliveryManifestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Object[]> subscriptions = new ArrayList<>();
+    private final List<Object[]> lines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO milkman.products (productid, productname, productprice, status) "
+                    + "VALUES (?, ?, ?, 'ACTIVE')", "MANPROD" + i, "Product " + i, BigDecimal.TEN);
+        }
+        subscriptions.clear();
+        lines.clear();
+    }
+
+    @Test
+    @DisplayName("Should group deliveries by pin code and slot and add up product quantities")
+    void testManifest() {
+        LocalDate start = DELIVERY_DATE.minusDays(10);
+        subscription("S01", "500001", "MORNING", "DAILY", "Monday, Tuesday, Wednesday", start, null, "ACTIVE", 2, 1);
+        subscription("S02", "500001", "MORNING", "WEEKLY", "WED", start, DELIVERY_DATE, "ACTIVE", 3);
+        subscription("S03", "500001", "EVENING", "DAILY", "", start, null, "ACTIVE", 0, 0, 1);
+        subscription("S04", "500002", "MORNING", "DAILY", null, start, null, "ACTIVE", 4);
+        // No delivery on the date: other weekday, ended, not started, inactive, odd day of an alternate plan
+        subscription("S05", "500001", "MORNING", "WEEKLY", "Thursday", start, null, "ACTIVE", 5);
+        subscription("S06", "500001", "MORNING", "DAILY", "", start, DELIVERY_DATE.minusDays(1), "ACTIVE", 5);
+        subscription("S07", "500001", "MORNING", "DAILY", "", DELIVERY_DATE.plusDays(1), null, "ACTIVE", 5);
+        subscription("S08", "500001", "MORNING", "DAILY", "", start, null, "INACTIVE", 5);
+        subscription("S09", "500001", "MORNING", "ALTERNATE_DAYS", "", DELIVERY_DATE.minusDays(3), null, "ACTIVE", 5);
+        // Even day of an alternate plan
+        subscription("S10", "500002", "MORNING", "ALTERNATE_DAYS", "", DELIVERY_DATE.minusDays(4), null, "ACTIVE", 1, 2);
+        // Days the migration backfill could not read are stored as an empty mask and never delivered
+        subscription("S11", "500002", "MORNING", "WEEKLY", "Someday", start, null, "ACTIVE", 5);
+        save();
+
+        DeliveryManifest manifest = deliveryManifestService.getManifest(DELIVERY_DATE);
+
+        assertEquals(DELIVERY_DATE, manifest.getDeliveryDate());
+        assertEquals(5, manifest.getSubscriptions());
+        List<DeliveryManifestGroup> groups = manifest.getGroups();
+        assertEquals(3, groups.size());
+
+        assertEquals("EVENING", groups.get(0).getDeliveryTimeSlot());
+        assertEquals(List.of(new DeliveryManifestItem("MANPROD2", "Product 2", 1)), groups.get(0).getProducts());
+
+        DeliveryManifestGroup morning = groups.get(1);
+        assertEquals("500001", morning.getPinCode());
+        assertEquals("MORNING", morning.getDeliveryTimeSlot());
+        assertEquals(2, morning.getSubscriptions());
+        assertEquals(List.of(new DeliveryManifestItem("MANPROD0", "Product 0", 5),
+                new DeliveryManifestItem("MANPROD1", "Product 1", 1)), morning.getProducts());
+
+        DeliveryManifestGroup other = groups.get(2);
+        assertEquals("500002", other.getPinCode());
+        assertEquals(2, other.getSubscriptions());
+        assertEquals(List.of(new DeliveryManifestItem("MANPROD0", "Product 0", 5),
+                new DeliveryManifestItem("MANPROD1", "Product 1", 2)), other.getProducts());
+    }
+
+    @Test
+    @DisplayName("Should stream through a large number of subscriptions quickly")
+    void testLargeManifest() {
+        int count = 10_000;
+        String[] days = {"Monday, Wednesday, Friday", "Tuesday, Thursday", "", "MON,TUE,WED,THU,FRI,SAT,SUN"};
+        for (int i = 0; i < count; i++) {
+            subscription(String.format("BULK%06d", i), "5000" + i % 50, i % 3 == 0 ? "EVENING" : "MORNING",
+                    "WEEKLY", days[i % days.length], DELIVERY_DATE.minusDays(30), null, "ACTIVE", 1, i % 2);
+        }
+        save();
+
+        long started = System.nanoTime();
+        DeliveryManifest manifest = deliveryManifestService.getManifest(DELIVERY_DATE);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        // Every pattern but Tuesday/Thursday includes Wednesday
+        assertEquals(count / 4 * 3, manifest.getSubscriptions());
+        assertEquals(100, manifest.getGroups().size());
+        long morningMilk = manifest.getGroups().stream()
+                .filter(group -> "MORNING".equals(group.getDeliveryTimeSlot()))
+                .flatMap(group -> group.getProducts().stream())
+                .filter(item -> "MANPROD0".equals(item.getProductId()))
+                .mapToLong(DeliveryManifestItem::getQuantity).sum();
+        long expected = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % 4 != 1 && i % 3 != 0) {
+                expected++;
+            }
+        }
+        assertEquals(expected, morningMilk);
+        // Loose bound for slow CI machines
+        assertTrue(millis < 10_000, "Manifest over " + count + " subscriptions took " + millis + "ms");
+    }
+
+    /**
+     * Adds a subscription with one line per given quantity (MANPROD0, MANPROD1, ...); zero quantities are skipped
+     */
+    private void subscription(String id, String pinCode, String timeSlot, String frequency, String days,
+                              LocalDate start, LocalDate end, String status, int... quantities) {
+        subscriptions.add(new Object[]{id, "CUST" + id, pinCode, Date.valueOf(start), end == null ? null : Date.valueOf(end),
+                timeSlot, frequency, days, deliveryDaysMask(days), status});
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] > 0) {
+                lines.add(new Object[]{id + "-" + i, id, "MANPROD" + i, "Product " + i, quantities[i]});
+            }
+        }
+    }
+
+    private static short deliveryDaysMask(String days) {
+        try {
+            return (short) DeliveryDays.parse(days);
+        } catch (IllegalArgumentException e) {
+            return DeliveryDays.NONE;
+        }
+    }
+
+    private void save() {
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.subscriptions (subscriptionid, customerid, pincode, "
+                + "deliverystartdate, deliveryenddate, deliverytimeslot, deliveryfrequency, deliverydays, "
+                + "deliverydaysmask, status, deliverycharge, ordertotal) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)", subscriptions);
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.product_subscriptions (product_subscription_id, subscriptionid, "
+                + "productid, productname, quantity, productprice) VALUES (?, ?, ?, ?, ?, 10)", lines);
+    }
+}
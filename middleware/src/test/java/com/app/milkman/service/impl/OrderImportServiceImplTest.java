@@ -0,0 +1,196 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Customers;
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.OrderImportFormat;
+import com.app.milkman.model.OrderImportResponse;
+import com.app.milkman.model.OrderImportRowResult;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.report.SalesRollupWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "milkman.order.import.batch-size=500")
+@ActiveProfiles("test")
+@Import({OrderImportServiceImpl.class, ProductCatalog.class, OutboxPublisher.class, SalesRollupWriter.class,
+        SimpleMeterRegistry.class})
+@DisplayName("Order Import Service Tests")
+class OrderImportServiceImplTest {
+
+    private static final String CSV_HEADER =
+            "orderRef,customerId,productId,quantity,deliveryDate,deliveryTimeSlot,deliveryFrequency,deliveryCharge\n";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderImportServiceImpl orderImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @BeforeTransaction
+    void resetCatalog() {
+        // Products are seeded inside each rolled-back test transaction, so no snapshot may outlive a test
+        productCatalog.invalidate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 2; i++) {
+            Customers customer = new Customers();
+            customer.setCustomerId("IMPCUST" + i);
+            customer.setFirstName("Import");
+            customer.setLastName("Customer" + i);
+            customer.setPrimaryPhone("900000000" + i);
+            customer.setStatus("ACTIVE");
+            entityManager.persist(customer);
+        }
+        for (int i = 0; i < 5; i++) {
+            Products product = new Products();
+            product.setProductId("IMPPROD" + i);
+            product.setProductName("Product " + i);
+            product.setProductPrice(BigDecimal.valueOf(10 + i));
+            product.setStatus("ACTIVE");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("CSV import should group rows into orders and report every row")
+    void testCsvImport() throws IOException {
+        String csv = CSV_HEADER
+                + "A1,IMPCUST0,IMPPROD0,2,2024-06-01,MORNING,DAILY,5\n"
+                + "A1,IMPCUST0,IMPPROD1,1,,,,\n"
+                + ",IMPCUST1,IMPPROD2,3,2024-06-02,EVENING,ONETIME,\n"
+                + "\n"
+                + "B7,IMPCUST1,IMPPROD3,1,2024-06-03,MORNING,ONETIME,0\n"
+                + "B7,IMPCUST1,UNKNOWN,1,,,,\n"
+                + "C2,NOBODY,IMPPROD0,1,2024-06-03,MORNING,ONETIME,0\n"
+                + "D4,IMPCUST0,IMPPROD4,zero,2024-06-03,MORNING,ONETIME,0\n";
+
+        OrderImportResponse response = orderImportService.importOrders(stream(csv), OrderImportFormat.CSV);
+
+        assertEquals(7, response.getRowsRead());
+        assertEquals(3, response.getRowsImported());
+        assertEquals(4, response.getRowsFailed());
+        assertEquals(2, response.getOrdersCreated());
+        assertEquals("FAILED", response.getStatus());
+        assertEquals("4 of 7 rows were not imported", response.getErrorMsg());
+
+        List<OrderImportRowResult> results = response.getResults();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), results.stream().map(OrderImportRowResult::getRow).toList());
+        assertEquals("SUCCESS", results.get(0).getStatus());
+        assertEquals(results.get(0).getOrderId(), results.get(1).getOrderId(), "Rows of one order share its ID");
+        assertNotEquals(results.get(0).getOrderId(), results.get(2).getOrderId());
+        assertEquals("Order not imported: another line of the order is invalid", results.get(3).getErrorMsg());
+        assertEquals("Unknown product ID: UNKNOWN", results.get(4).getErrorMsg());
+        assertEquals("Unknown customer ID: NOBODY", results.get(5).getErrorMsg());
+        assertEquals("Invalid quantity: zero", results.get(6).getErrorMsg());
+
+        // 2 x 10 + 1 x 11 + delivery charge 5
+        assertEquals(0, new BigDecimal("36").compareTo(jdbcTemplate.queryForObject(
+                "SELECT ordertotal FROM milkman.orders WHERE orderid = ?", BigDecimal.class, results.get(0).getOrderId())));
+        assertEquals("Import Customer0", jdbcTemplate.queryForObject(
+                "SELECT customername FROM milkman.orders WHERE orderid = ?", String.class, results.get(0).getOrderId()));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.product_orders", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM milkman.outbox_events WHERE eventtype = 'ORDER_PLACED'", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT sum(ordercount) FROM milkman.order_rollup", Integer.class));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT sum(quantity) FROM milkman.sales_rollup", Integer.class));
+    }
+
+    @Test
+    @DisplayName("NDJSON import should keep the orders read before a malformed line and stop there")
+    void testNdjsonImportStopsAtMalformedLine() throws IOException {
+        String ndjson = """
+                {"orderRef":"N1","customerId":"IMPCUST0","productId":"IMPPROD0","quantity":1,"deliveryCharge":2.5}
+                {"orderRef":"N2","customerId":"IMPCUST1","productId":"IMPPROD1","quantity":"2"}
+                {"orderRef":"N2","customerId":"IMPCUST1","productId":"IMPPROD2","quantity":1}
+                {"orderRef":"N2","customerId":"IMPCUST1",
+                {"orderRef":"N3","customerId":"IMPCUST0","productId":"IMPPROD0","quantity":1}
+                """;
+
+        OrderImportResponse response = orderImportService.importOrders(stream(ndjson), OrderImportFormat.NDJSON);
+
+        assertEquals(3, response.getRowsRead());
+        assertEquals(1, response.getOrdersCreated());
+        assertEquals(1, response.getRowsImported());
+        List<OrderImportRowResult> results = response.getResults();
+        assertEquals(4, results.size());
+        assertEquals("SUCCESS", results.get(0).getStatus());
+        assertTrue(results.get(1).getErrorMsg().startsWith("Order not imported: the input could not be read"),
+                "An order cut short by the malformed line is not imported");
+        assertEquals(4, results.get(3).getRow());
+        assertTrue(results.get(3).getErrorMsg().startsWith("Malformed input"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.orders", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Large imports should be streamed and saved in batches")
+    void testLargeImport() throws IOException {
+        int orders = 5_000;
+        int linesPerOrder = 4;
+        // The body is generated while it is read, so the test never builds the whole file either
+        Iterator<InputStream> rows = IntStream.range(0, orders * linesPerOrder)
+                .mapToObj(i -> stream("O" + i / linesPerOrder + ",IMPCUST" + i / linesPerOrder % 2 + ",IMPPROD" + i % linesPerOrder
+                        + ",1,2024-06-01,MORNING,DAILY,5\n"))
+                .iterator();
+        InputStream body = new SequenceInputStream(stream(CSV_HEADER), new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return rows.next();
+            }
+        }));
+
+        long started = System.nanoTime();
+        OrderImportResponse response = orderImportService.importOrders(body, OrderImportFormat.CSV);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals("SUCCESS", response.getStatus(), response.getErrorMsg());
+        assertEquals(orders * linesPerOrder, response.getRowsImported());
+        assertEquals(orders, response.getOrdersCreated());
+        assertEquals(orders * linesPerOrder,
+                jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.product_orders", Integer.class));
+        assertEquals(orders, jdbcTemplate.queryForObject("SELECT count(*) FROM milkman.outbox_events", Integer.class));
+        // Loose bound for slow CI machines; the point is that 20k lines take seconds, not minutes
+        assertTrue(millis < 30_000, "Import of " + orders * linesPerOrder + " lines took " + millis + "ms");
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,392 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Customers;
+import com.app.milkman.entity.Orders;
+import com.app.milkman.entity.OutboxEvent;
+import com.app.milkman.entity.ProductOrders;
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.CursorPage;
+import com.app.milkman.model.OrderDetails;
+import com.app.milkman.model.OrderRegRequest;
+import com.app.milkman.model.OrderRegResponse;
+import com.app.milkman.model.ProductOrdersReq;
+import com.app.milkman.outbox.OutboxEventType;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.report.SalesRollupWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({OrderServiceImpl.class, ProductCatalog.class, OutboxPublisher.class, SalesRollupWriter.class,
+        SimpleMeterRegistry.class})
+@DisplayName("Order Service Tests")
+class OrderServiceImplTest {
+
+    private static final int PRODUCT_COUNT = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private Statistics statistics;
+
+    @BeforeTransaction
+    void resetCatalog() {
+        // Products are seeded inside each rolled-back test transaction, so no snapshot may outlive a test
+        productCatalog.invalidate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Customers customer = new Customers();
+        customer.setCustomerId("CUST900");
+        customer.setFirstName("Test");
+        customer.setLastName("Customer");
+        customer.setPrimaryPhone("9000000000");
+        customer.setStatus("ACTIVE");
+        entityManager.persist(customer);
+
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Products product = new Products();
+            product.setProductId("ORDPROD" + i);
+            product.setProductName("Product " + i);
+            product.setProductPrice(BigDecimal.valueOf(40 + i));
+            product.setStatus("ACTIVE");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Order creation should run the same number of queries regardless of line count")
+    void testCreateOrderQueryCountIsConstant() {
+        productCatalog.getProducts();
+        for (int lines : new int[]{1, 5, PRODUCT_COUNT}) {
+            statistics.clear();
+
+            OrderRegResponse response = orderService.createOrder(orderRequest(lines));
+
+            assertEquals("200", response.getStatusCode());
+            // One customer lookup; products are priced from the catalog snapshot
+            assertEquals(1, statistics.getQueryExecutionCount(),
+                    "Unexpected query count for an order with " + lines + " lines");
+            OutboxEvent event = entityManager.getEntityManager()
+                    .createQuery("SELECT e FROM OutboxEvent e WHERE e.aggregateId = :orderId", OutboxEvent.class)
+                    .setParameter("orderId", response.getOrderId()).getSingleResult();
+            assertEquals(OutboxEventType.ORDER_PLACED, event.getEventType());
+            assertTrue(event.getPayload().contains("\"customerId\":\"CUST900\""));
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Order creation should insert new rows without selecting them first and batch the line items")
+    void testCreateOrderBatchesInserts() {
+        productCatalog.getProducts();
+        for (int lines : new int[]{1, PRODUCT_COUNT}) {
+            statistics.clear();
+
+            orderService.createOrder(orderRequest(lines));
+            entityManager.flush();
+
+            // Customer lookup, outbox insert, order insert and one batched insert for all lines
+            assertEquals(4, statistics.getPrepareStatementCount(),
+                    "Unexpected statement count for an order with " + lines + " lines");
+            assertEquals(lines + 2, statistics.getEntityInsertCount());
+            assertEquals(1, statistics.getEntityLoadCount(), "Only the customer should be loaded");
+            entityManager.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Creating and updating an order should price the same random carts identically and exactly")
+    void testCreateAndUpdateTotalsMatch() {
+        // Prices a double sum gets wrong (0.1 + 0.2), and one with a third decimal that is rounded to the paisa
+        String[] prices = {"0.10", "0.20", "23.45", "12.125", "99.99"};
+        for (int i = 0; i < prices.length; i++) {
+            Products product = new Products();
+            product.setProductId("ORDFRAC" + i);
+            product.setProductName("Fractional " + i);
+            product.setProductPrice(new BigDecimal(prices[i]));
+            product.setStatus("ACTIVE");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Random random = new Random(20_240_101L);
+        for (int cart = 0; cart < 50; cart++) {
+            OrderRegRequest request = orderRequest(0);
+            BigDecimal expected = BigDecimal.valueOf(random.nextInt(5_000), 2);
+            request.setDeliveryCharge(expected.doubleValue());
+            for (int line = 0, lines = 1 + random.nextInt(10); line < lines; line++) {
+                int product = random.nextInt(prices.length);
+                ProductOrdersReq req = new ProductOrdersReq();
+                req.setProductId("ORDFRAC" + product);
+                req.setQuantity(1 + random.nextInt(5));
+                request.getProductOrderReqs().add(req);
+                expected = expected.add(new BigDecimal(prices[product]).setScale(2, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(req.getQuantity())));
+            }
+
+            OrderRegResponse created = orderService.createOrder(request);
+            entityManager.flush();
+            entityManager.clear();
+            BigDecimal createdTotal = entityManager.find(Orders.class, created.getOrderId()).getOrderTotal();
+            assertEquals(0, expected.compareTo(createdTotal), "Cart " + cart + ": " + createdTotal + " != " + expected);
+
+            // The same lines in another order through the update path
+            Collections.shuffle(request.getProductOrderReqs(), random);
+            request.setOrderId(created.getOrderId());
+            request.setOrderStatus("ORDER PLACED");
+            assertEquals("200", orderService.updateOrder(request).getStatusCode());
+            entityManager.flush();
+            entityManager.clear();
+            BigDecimal updatedTotal = entityManager.find(Orders.class, created.getOrderId()).getOrderTotal();
+            assertEquals(0, createdTotal.compareTo(updatedTotal), "Cart " + cart + " was repriced on update");
+        }
+    }
+
+    @Test
+    @DisplayName("Updating and deleting an order should publish ORDER_UPDATED and ORDER_DELETED")
+    void testUpdateAndDeletePublishEvents() {
+        String orderId = orderService.createOrder(orderRequest(2)).getOrderId();
+        entityManager.flush();
+        entityManager.clear();
+
+        OrderRegRequest update = orderRequest(3);
+        update.setOrderId(orderId);
+        orderService.updateOrder(update);
+        orderService.deleteOrder(orderId);
+        entityManager.flush();
+
+        List<OutboxEvent> events = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM OutboxEvent e WHERE e.aggregateId = :orderId ORDER BY e.id", OutboxEvent.class)
+                .setParameter("orderId", orderId).getResultList();
+        assertEquals(List.of(OutboxEventType.ORDER_PLACED, OutboxEventType.ORDER_UPDATED, OutboxEventType.ORDER_DELETED),
+                events.stream().map(OutboxEvent::getEventType).toList());
+        assertTrue(events.get(1).getPayload().contains("\"productId\":\"ORDPROD2\""),
+                "The update event should carry the new lines");
+        assertTrue(events.get(2).getPayload().contains("\"customerId\":\"CUST900\""));
+    }
+
+    @Test
+    @DisplayName("Order creation should reject unknown product IDs")
+    void testCreateOrderWithUnknownProduct() {
+        OrderRegRequest request = orderRequest(2);
+        ProductOrdersReq unknown = new ProductOrdersReq();
+        unknown.setProductId("MISSING");
+        unknown.setQuantity(1);
+        request.getProductOrderReqs().add(unknown);
+
+        OrderRegResponse response = orderService.createOrder(request);
+
+        assertEquals("400", response.getStatusCode());
+        assertEquals("FAILED", response.getStatus());
+        assertTrue(response.getErrorMsg().contains("MISSING"));
+        assertNull(response.getOrderId());
+        assertEquals(0L, entityManager.getEntityManager()
+                .createQuery("SELECT count(e) FROM OutboxEvent e", Long.class).getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Listing a page of orders should load orders, lines and products in two statements")
+    void testGetAllOrdersStatementCount() {
+        Customers customer = entityManager.getEntityManager()
+                .createQuery("SELECT c FROM Customers c WHERE c.customerId = 'CUST900'", Customers.class)
+                .getSingleResult();
+        for (int i = 0; i < 50; i++) {
+            Orders order = new Orders();
+            order.setOrderId(String.format("LISTORD%03d", i));
+            order.setCustomerId(customer.getCustomerId());
+            order.setOrderDateTime(LocalDateTime.now().minusMinutes(i));
+            order.setDeliveryCharge(BigDecimal.TEN);
+            order.setOrderTotal(BigDecimal.TEN);
+            entityManager.persist(order);
+            for (int line = 0; line < 3; line++) {
+                ProductOrders productOrder = new ProductOrders();
+                productOrder.setProductOrderId(order.getOrderId() + "-" + line);
+                productOrder.setOrders(order);
+                productOrder.setProducts(entityManager.find(Products.class, "ORDPROD" + (i + line) % PRODUCT_COUNT));
+                productOrder.setProductPrice(BigDecimal.ONE);
+                productOrder.setQuantity(1L);
+                entityManager.persist(productOrder);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<OrderDetails> page = orderService.getAllOrders(PageRequest.of(0, 50, Sort.by("orderDateTime")));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "Expected one ID page query and one fetch join");
+        assertEquals(50, page.size());
+        assertEquals("LISTORD049", page.get(0).getOrderId(), "Page order should follow the requested sort");
+        page.forEach(order -> {
+            assertEquals(3, order.getOrderProductDetails().size());
+            order.getOrderProductDetails().forEach(line -> assertNotNull(line.getProductId()));
+        });
+
+        statistics.clear();
+        List<OrderDetails> customerPage = orderService.getAllOrdersByCustomerId("CUST900", PageRequest.of(1, 20));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(20, customerPage.size());
+    }
+
+    @Test
+    @DisplayName("Keyset pages should cost the same statements and time however deep the page")
+    void testKeysetPaginationOverLargeDataset() {
+        int orderCount = 10_000;
+        int pageSize = 50;
+        // Two orders per timestamp, so the order ID tie-breaker is exercised on every page
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 6, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            rows.add(new Object[]{String.format("SEEK%05d", i), i % 2 == 0 ? "CUST900" : "CUST901",
+                    Timestamp.valueOf(start.plusMinutes(i / 2)), BigDecimal.TEN, BigDecimal.TEN});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.orders (orderid, customerid, orderdatetime, deliverycharge, "
+                + "ordertotal) VALUES (?, ?, ?, ?, ?)", rows);
+
+        List<String> seen = new ArrayList<>();
+        List<Long> pageNanos = new ArrayList<>();
+        String cursor = "";
+        do {
+            statistics.clear();
+            long started = System.nanoTime();
+            CursorPage<OrderDetails> page = orderService.getAllOrders(cursor, pageSize);
+            pageNanos.add(System.nanoTime() - started);
+
+            page.getContent().forEach(order -> seen.add(order.getOrderId()));
+            cursor = page.getNextCursor();
+            // The last dated page also looks for orders without a date
+            assertEquals(cursor == null ? 3 : 2, statistics.getPrepareStatementCount(),
+                    "Expected one ID query and one fetch join per page");
+            entityManager.clear();
+        } while (cursor != null);
+
+        assertEquals(orderCount, seen.size());
+        assertEquals(String.format("SEEK%05d", orderCount - 1), seen.get(0), "Newest order should come first");
+        assertEquals("SEEK00000", seen.get(orderCount - 1));
+        assertEquals(orderCount, new HashSet<>(seen).size(), "Pages should neither overlap nor skip orders");
+
+        // Loose bound: the deepest pages may not be much slower than the first ones (offset paging degrades linearly)
+        long firstPages = median(pageNanos.subList(5, 25));
+        long lastPages = median(pageNanos.subList(pageNanos.size() - 20, pageNanos.size()));
+        assertTrue(lastPages <= firstPages * 5 + 20_000_000L,
+                "Deep pages took " + lastPages + "ns against " + firstPages + "ns for the first pages");
+
+        statistics.clear();
+        CursorPage<OrderDetails> customerPage = orderService.getAllOrdersByPhone("9000000000", "", pageSize);
+        assertEquals(pageSize, customerPage.getContent().size());
+        customerPage.getContent().forEach(order -> assertEquals("CUST900", order.getCustomerId()));
+        assertNotNull(customerPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Keyset listing should page through legacy orders without a date after the dated ones")
+    void testKeysetPaginationWithUndatedOrders() {
+        LocalDateTime placed = LocalDateTime.of(2024, 1, 1, 6, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(new Object[]{"DATED" + i, "CUST900", Timestamp.valueOf(placed.plusMinutes(i)), BigDecimal.TEN,
+                    BigDecimal.TEN});
+            rows.add(new Object[]{"UNDATED" + i, "CUST900", null, BigDecimal.TEN, BigDecimal.TEN});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.orders (orderid, customerid, orderdatetime, deliverycharge, "
+                + "ordertotal) VALUES (?, ?, ?, ?, ?)", rows);
+        List<String> expected = List.of("DATED2", "DATED1", "DATED0", "UNDATED2", "UNDATED1", "UNDATED0");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<OrderDetails> page = orderService.getAllOrders(cursor, 2);
+            page.getContent().forEach(order -> seen.add(order.getOrderId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(expected, seen);
+
+        seen.clear();
+        do {
+            CursorPage<OrderDetails> page = orderService.getAllOrdersByPhone("9000000000", cursor, 4);
+            page.getContent().forEach(order -> seen.add(order.getOrderId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("Keyset listing should reject cursors it did not issue")
+    void testKeysetPaginationRejectsInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getAllOrders("not-a-cursor", 20));
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private OrderRegRequest orderRequest(int lines) {
+        List<ProductOrdersReq> productOrderReqs = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            ProductOrdersReq req = new ProductOrdersReq();
+            req.setProductId("ORDPROD" + i);
+            req.setQuantity(i + 1);
+            productOrderReqs.add(req);
+        }
+        OrderRegRequest request = new OrderRegRequest();
+        request.setCustomerId("CUST900");
+        request.setProductOrderReqs(productOrderReqs);
+        request.setDeliveryDate(LocalDate.now().plusDays(1));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryFrequency("ONETIME");
+        request.setDeliveryCharge(10.0);
+        return request;
+    }
+}
@@ -0,0 +1,157 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.model.ProductRegRequest;
+import com.app.milkman.model.ProductRegResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({ProductServiceImpl.class, ProductCatalog.class, SimpleMeterRegistry.class})
+@DisplayName("Product Service Tests")
+class ProductServiceImplTest {
+
+    private static final int PRODUCT_COUNT = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeTransaction
+    void resetCatalog() {
+        // Products are seeded inside each rolled-back test transaction, so no snapshot may outlive a test
+        productCatalog.invalidate();
+    }
+
+    private void seedProducts() {
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Products product = new Products();
+            product.setProductId(String.format("CATPROD%02d", i));
+            product.setProductName("Product " + i);
+            product.setProductPrice(BigDecimal.valueOf(20 + i));
+            product.setStatus("ACTIVE");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Repeated product listings should be served from the snapshot without queries")
+    void testListingServedFromSnapshot() {
+        seedProducts();
+        double hitsBefore = lookups("hit");
+        double missesBefore = lookups("miss");
+        long rebuildsBefore = meterRegistry.get("product.catalog.rebuild").timer().count();
+
+        List<ProductDetails> first = productService.getAllProducts(PageRequest.of(0, 5));
+        long queriesAfterFirst = statistics.getQueryExecutionCount();
+        List<ProductDetails> second = productService.getAllProducts(PageRequest.of(0, 5));
+        List<ProductDetails> last = productService.getAllProducts(PageRequest.of(2, 5));
+
+        assertEquals(1, queriesAfterFirst, "First listing should load the catalog once");
+        assertEquals(1, statistics.getQueryExecutionCount(), "Later listings should not query the database");
+        assertEquals(5, first.size());
+        assertSame(first.get(0), second.get(0), "Snapshot entries should be shared, not rebuilt");
+        assertEquals("CATPROD00", first.get(0).getProductId());
+        assertEquals(List.of("CATPROD10", "CATPROD11"), last.stream().map(ProductDetails::getProductId).toList());
+        assertTrue(productService.getAllProducts(PageRequest.of(3, 5)).isEmpty());
+
+        assertEquals(3.0, lookups("hit") - hitsBefore);
+        assertEquals(1.0, lookups("miss") - missesBefore);
+        assertEquals(1, meterRegistry.get("product.catalog.rebuild").timer().count() - rebuildsBefore);
+    }
+
+    @Test
+    @DisplayName("Sorted listings should still be read from the database")
+    void testSortedListingFallsBackToDatabase() {
+        seedProducts();
+        List<ProductDetails> products = productService.getAllProducts(
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "productPrice")));
+
+        assertEquals("CATPROD11", products.get(0).getProductId());
+        assertEquals(3, products.size());
+    }
+
+    @Test
+    // Product writes must commit for the catalog to see them, so this test runs outside the rolled-back transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Registering or updating a product should publish a new catalog version")
+    void testWritesInvalidateSnapshot() {
+        // No test transaction here, so the @BeforeTransaction reset does not run
+        productCatalog.invalidate();
+        long version = productCatalog.getVersion();
+        int sizeBefore = productCatalog.getProducts().size();
+
+        ProductRegRequest registration = new ProductRegRequest();
+        registration.setProductName("Catalog Paneer");
+        registration.setPrice(90.0);
+        registration.setStatus("ACTIVE");
+        ProductRegResponse registered = productService.registerProduct(registration);
+        try {
+            assertEquals("200", registered.getStatusCode());
+            assertTrue(productCatalog.getVersion() > version);
+            assertEquals(sizeBefore + 1, productCatalog.getProducts().size());
+
+            ProductRegRequest update = new ProductRegRequest();
+            update.setProductId(registered.getProductId());
+            update.setPrice(95.0);
+            productService.updateProduct(update);
+
+            ProductDetails updated = productCatalog.getProducts(List.of(registered.getProductId()))
+                    .get(registered.getProductId());
+            assertEquals(0, BigDecimal.valueOf(95.0).compareTo(updated.getProductPrice()));
+        } finally {
+            var cleanup = entityManagerFactory.createEntityManager();
+            cleanup.getTransaction().begin();
+            cleanup.createQuery("DELETE FROM Products p WHERE p.productId = :productId")
+                    .setParameter("productId", registered.getProductId()).executeUpdate();
+            cleanup.getTransaction().commit();
+            cleanup.close();
+            productCatalog.invalidate();
+        }
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("product.catalog.lookups").tag("result", result).counter().count();
+    }
+}
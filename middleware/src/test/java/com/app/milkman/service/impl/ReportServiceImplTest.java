@@ -0,0 +1,259 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Customers;
+import com.app.milkman.entity.Orders;
+import com.app.milkman.entity.ProductOrders;
+import com.app.milkman.entity.Products;
+import com.app.milkman.model.OrderRegRequest;
+import com.app.milkman.model.OrderRegResponse;
+import com.app.milkman.model.PinCodeSales;
+import com.app.milkman.model.ProductOrdersReq;
+import com.app.milkman.model.ProductSales;
+import com.app.milkman.model.SalesReport;
+import com.app.milkman.model.SalesReportDay;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.report.SalesDelta;
+import com.app.milkman.report.SalesRollupReconciler;
+import com.app.milkman.report.SalesRollupWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ReportServiceImpl.class, OrderServiceImpl.class, SalesRollupWriter.class, SalesRollupReconciler.class,
+        ProductCatalog.class, OutboxPublisher.class, SimpleMeterRegistry.class})
+@DisplayName("Report Service Tests")
+class ReportServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportServiceImpl reportService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private SalesRollupReconciler salesRollupReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @BeforeTransaction
+    void resetCatalog() {
+        // Products are seeded inside each rolled-back test transaction, so no snapshot may outlive a test
+        productCatalog.invalidate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 2; i++) {
+            Customers customer = new Customers();
+            customer.setCustomerId("REPCUST" + i);
+            customer.setFirstName("Report");
+            customer.setLastName("Customer" + i);
+            customer.setPrimaryPhone("910000000" + i);
+            customer.setPinCode("50000" + i);
+            customer.setStatus("ACTIVE");
+            entityManager.persist(customer);
+        }
+        for (int i = 0; i < 3; i++) {
+            Products product = new Products();
+            product.setProductId("REPPROD" + i);
+            product.setProductName("Product " + i);
+            product.setProductPrice(BigDecimal.valueOf(25 + i));
+            product.setStatus("ACTIVE");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Placing, updating and deleting orders should keep the rollups equal to the orders")
+    void testRollupsFollowOrderChanges() {
+        orderService.createOrder(orderRequest("REPCUST0", "REPPROD0", 2, "REPPROD1", 1));
+        // Two lines of the same product count as one order for that product
+        orderService.createOrder(orderRequest("REPCUST0", "REPPROD0", 1, "REPPROD0", 3));
+        OrderRegResponse updated = orderService.createOrder(orderRequest("REPCUST1", "REPPROD1", 4));
+        OrderRegResponse deleted = orderService.createOrder(orderRequest("REPCUST1", "REPPROD2", 5));
+        // Later requests load the orders with their lines
+        entityManager.flush();
+        entityManager.clear();
+
+        OrderRegRequest update = orderRequest("REPCUST1", "REPPROD0", 1, "REPPROD1", 2);
+        update.setOrderId(updated.getOrderId());
+        update.setDeliveryCharge(15.0);
+        orderService.updateOrder(update);
+        orderService.deleteOrder(deleted.getOrderId());
+        entityManager.flush();
+
+        LocalDate today = LocalDate.now();
+        SalesReport sales = reportService.getSales(today.minusDays(1), today.plusDays(1));
+        assertEquals(3, sales.getOrders());
+        assertEquals(10, sales.getLitres());
+        assertAmount(jdbcTemplate.queryForObject("SELECT SUM(ordertotal) FROM milkman.orders", BigDecimal.class),
+                sales.getRevenue());
+        assertAmount(BigDecimal.valueOf(35), sales.getDeliveryCharges());
+        assertEquals(1, sales.getDays().size());
+
+        List<ProductSales> products = reportService.getProductSales(today.minusDays(1), today.plusDays(1));
+        assertEquals(List.of("REPPROD0", "REPPROD1"), products.stream().map(ProductSales::getProductId).toList(),
+                "A product whose only order was deleted should not be reported");
+        assertEquals("Product 0", products.get(0).getProductName());
+        assertEquals(3, products.get(0).getOrders());
+        assertEquals(7, products.get(0).getLitres());
+        assertAmount(BigDecimal.valueOf(175), products.get(0).getRevenue());
+        assertEquals(2, products.get(1).getOrders());
+        assertEquals(3, products.get(1).getLitres());
+
+        List<PinCodeSales> pinCodes = reportService.getPinCodeSales(today.minusDays(1), today.plusDays(1));
+        assertEquals(List.of("500000", "500001"), pinCodes.stream().map(PinCodeSales::getPinCode).toList());
+        assertEquals(2, pinCodes.get(0).getOrders());
+        assertEquals(7, pinCodes.get(0).getLitres());
+        assertEquals(1, pinCodes.get(1).getOrders());
+        assertEquals(3, pinCodes.get(1).getLitres());
+
+        // A rebuild from the orders finds nothing to change
+        String before = describe(sales, products);
+        salesRollupReconciler.reconcile(today.minusDays(1), today.plusDays(1));
+        assertEquals(before, describe(reportService.getSales(today.minusDays(1), today.plusDays(1)),
+                reportService.getProductSales(today.minusDays(1), today.plusDays(1))));
+    }
+
+    @Test
+    @DisplayName("Reconcile should rebuild the rollups of orders written around the services")
+    void testReconcileRebuildsRollups() {
+        int days = 10;
+        int ordersPerDay = 500;
+        LocalDate first = LocalDate.of(2024, 3, 1);
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (int i = 0; i < days * ordersPerDay; i++) {
+            String orderId = String.format("RECON%05d", i);
+            LocalDateTime placed = first.plusDays(i / ordersPerDay).atTime(6, 0).plusSeconds(i % ordersPerDay);
+            orders.add(new Object[]{orderId, "REPCUST" + i % 2, "50000" + i % 2, Timestamp.valueOf(placed),
+                    BigDecimal.TEN, BigDecimal.valueOf(10 + 25 * (1 + i % 3))});
+            lines.add(new Object[]{orderId + "-0", orderId, "REPPROD0", BigDecimal.valueOf(25), 1 + i % 3});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.orders (orderid, customerid, pincode, orderdatetime, "
+                + "deliverycharge, ordertotal) VALUES (?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO milkman.product_orders (product_order_id, orderid, productid, "
+                + "productprice, quantity) VALUES (?, ?, ?, ?, ?)", lines);
+        LocalDate last = first.plusDays(days - 1);
+        assertEquals(0, reportService.getSales(first, last).getOrders(), "Orders written by SQL are not rolled up");
+
+        int rows = salesRollupReconciler.reconcile(first, last);
+
+        // Two pin codes per day, once for the orders and once for the single product
+        assertEquals(days * 2 * 2, rows);
+        SalesReport sales = reportService.getSales(first, last);
+        assertEquals(days * ordersPerDay, sales.getOrders());
+        assertEquals(days, sales.getDays().size());
+        assertEquals(first, sales.getDays().get(0).getDate());
+        Map<String, Object> expected = jdbcTemplate.queryForMap("SELECT SUM(o.ordertotal) AS revenue, "
+                + "SUM(po.quantity) AS litres FROM milkman.orders o JOIN milkman.product_orders po "
+                + "ON po.orderid = o.orderid WHERE o.orderid LIKE 'RECON%'");
+        assertAmount((BigDecimal) expected.get("revenue"), sales.getRevenue());
+        assertEquals(((Number) expected.get("litres")).longValue(), sales.getLitres());
+        sales.getDays().forEach(day -> assertEquals(ordersPerDay, day.getOrders()));
+
+        SalesReport oneDay = reportService.getSales(first.plusDays(3), first.plusDays(3));
+        assertEquals(ordersPerDay, oneDay.getOrders());
+    }
+
+    @Test
+    @DisplayName("Updating and deleting legacy orders without a date, amounts or product should leave the rollups alone")
+    void testLegacyOrdersAreNotRolledUp() {
+        jdbcTemplate.update("INSERT INTO milkman.orders (orderid, customerid, customername, pincode, deliverycharge, "
+                + "ordertotal) VALUES ('LEGACY0', 'REPCUST0', 'Report Customer0', '500000', 0, 25), "
+                + "('LEGACY1', 'REPCUST0', 'Report Customer0', '500000', 0, 25)");
+        jdbcTemplate.update("INSERT INTO milkman.product_orders (product_order_id, orderid, productid, productprice, "
+                + "quantity) VALUES ('LEGACY0-0', 'LEGACY0', 'REPPROD0', 25, 1), ('LEGACY0-1', 'LEGACY0', NULL, 25, 1), "
+                + "('LEGACY1-0', 'LEGACY1', NULL, 25, 1)");
+
+        OrderRegRequest update = orderRequest("REPCUST0", "REPPROD1", 2);
+        update.setOrderId("LEGACY0");
+        assertEquals("SUCCESS", orderService.updateOrder(update).getStatus());
+        orderService.deleteOrder("LEGACY1");
+        entityManager.flush();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM milkman.order_rollup", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM milkman.sales_rollup", Integer.class));
+
+        // A dated order with missing amounts and an unlinked line counts as an order of zero
+        Orders unpriced = new Orders();
+        unpriced.setOrderDateTime(LocalDateTime.now());
+        ProductOrders unlinked = new ProductOrders();
+        unlinked.setProductPrice(BigDecimal.TEN);
+        unlinked.setQuantity(1L);
+        SalesDelta delta = new SalesDelta();
+        delta.subtract(unpriced, List.of(unlinked));
+        SalesDelta.Totals totals = delta.getOrders().values().iterator().next();
+        assertEquals(-1, totals.getOrderCount());
+        assertAmount(BigDecimal.ZERO, totals.getAmount());
+        assertAmount(BigDecimal.ZERO, totals.getDeliveryCharge());
+        assertTrue(delta.getProducts().isEmpty());
+    }
+
+    private static void assertAmount(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual), "Expected " + expected + " but was " + actual);
+    }
+
+    /**
+     * Report content with amounts normalized, so reports read before and after a rebuild can be compared
+     */
+    private static String describe(SalesReport sales, List<ProductSales> products) {
+        String days = sales.getDays().stream()
+                .map(day -> day.getDate() + ":" + day.getOrders() + ":" + day.getRevenue().stripTrailingZeros()
+                        + ":" + day.getDeliveryCharges().stripTrailingZeros() + ":" + day.getLitres())
+                .collect(Collectors.joining(","));
+        String productTotals = products.stream()
+                .map(product -> product.getProductId() + ":" + product.getOrders() + ":" + product.getLitres()
+                        + ":" + product.getRevenue().stripTrailingZeros())
+                .collect(Collectors.joining(","));
+        return days + "|" + productTotals;
+    }
+
+    private static OrderRegRequest orderRequest(String customerId, Object... productsAndQuantities) {
+        List<ProductOrdersReq> lines = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            ProductOrdersReq line = new ProductOrdersReq();
+            line.setProductId((String) productsAndQuantities[i]);
+            line.setQuantity((Integer) productsAndQuantities[i + 1]);
+            lines.add(line);
+        }
+        OrderRegRequest request = new OrderRegRequest();
+        request.setCustomerId(customerId);
+        request.setProductOrderReqs(lines);
+        request.setDeliveryDate(LocalDate.now().plusDays(1));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryFrequency("ONETIME");
+        request.setDeliveryCharge(10.0);
+        return request;
+    }
+}
@@ -0,0 +1,310 @@
+package com.app.milkman.service.impl;
+
+import com.app.milkman.component.ProductCatalog;
+import com.app.milkman.entity.Customers;
+import com.app.milkman.entity.ProductSubscriptions;
+import com.app.milkman.entity.Products;
+import com.app.milkman.entity.Subscriptions;
+import com.app.milkman.model.CursorPage;
+import com.app.milkman.model.ProductOrdersReq;
+import com.app.milkman.model.SubscribeRequest;
+import com.app.milkman.model.SubscribeResponse;
+import com.app.milkman.model.SubscriptionDetails;
+import com.app.milkman.outbox.OutboxPublisher;
+import com.app.milkman.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({SubscribeServiceImpl.class, ProductCatalog.class, OutboxPublisher.class, SimpleMeterRegistry.class})
+@DisplayName("Subscribe Service Tests")
+class SubscribeServiceImplTest {
+
+    private static final int SUBSCRIPTION_COUNT = 30;
+    private static final int LINES_PER_SUBSCRIPTION = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubscribeServiceImpl subscribeService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeTransaction
+    void resetCatalog() {
+        // Products are seeded inside each rolled-back test transaction, so no snapshot may outlive a test
+        productCatalog.invalidate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Customers customer = new Customers();
+        customer.setCustomerId("CUST901");
+        customer.setFirstName("Test");
+        customer.setLastName("Subscriber");
+        customer.setPrimaryPhone("9000000001");
+        customer.setStatus("ACTIVE");
+        entityManager.persist(customer);
+
+        Products[] products = new Products[LINES_PER_SUBSCRIPTION];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Products();
+            products[i].setProductId("SUBPROD" + i);
+            products[i].setProductName("Product " + i);
+            products[i].setProductPrice(BigDecimal.valueOf(30 + i));
+            products[i].setStatus("ACTIVE");
+            entityManager.persist(products[i]);
+        }
+
+        for (int i = 0; i < SUBSCRIPTION_COUNT; i++) {
+            Subscriptions subscription = new Subscriptions();
+            subscription.setSubscriptionId(String.format("SUB%03d", i));
+            subscription.setCustomerId(customer.getCustomerId());
+            subscription.setCustomerName("Test Subscriber");
+            subscription.setOrderDateTime(LocalDateTime.now().minusMinutes(i));
+            subscription.setDeliveryStartDate(LocalDate.now());
+            subscription.setDeliveryEndDate(LocalDate.now().plusDays(30));
+            subscription.setDeliveryFrequency("DAILY");
+            // Even subscriptions deliver on Monday and Wednesday, odd ones on Tuesday
+            subscription.setDeliveryDays(i % 2 == 0 ? "Monday, Wednesday" : "Tuesday");
+            subscription.setDeliveryDaysMask((short) (i % 2 == 0 ? 0b101 : 0b10));
+            subscription.setDeliveryCharge(BigDecimal.TEN);
+            subscription.setOrderTotal(BigDecimal.valueOf(71));
+            subscription.setStatus("ACTIVE");
+            entityManager.persist(subscription);
+            for (int line = 0; line < LINES_PER_SUBSCRIPTION; line++) {
+                ProductSubscriptions productSubscription = new ProductSubscriptions();
+                productSubscription.setProductSubscriptionId(subscription.getSubscriptionId() + "-" + line);
+                productSubscription.setSubscriptions(subscription);
+                productSubscription.setProducts(products[line]);
+                productSubscription.setProductName(products[line].getProductName());
+                productSubscription.setProductPrice(products[line].getProductPrice());
+                productSubscription.setQuantity(1L);
+                entityManager.persist(productSubscription);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Listing subscriptions should build DTOs from two queries without loading entities")
+    void testGetAllSubscriptionsUsesProjections() {
+        List<SubscriptionDetails> page = subscribeService.getAllOrders(
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDateTime")));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "Expected one header query and one line query");
+        assertEquals(0, statistics.getEntityLoadCount(), "Listing should not hydrate managed entities");
+        assertEquals(20, page.size());
+        assertEquals("SUB000", page.get(0).getSubscriptionId(), "Page order should follow the requested sort");
+        page.forEach(subscription -> {
+            assertEquals(LINES_PER_SUBSCRIPTION, subscription.getSubscriptionProductDetails().size());
+            subscription.getSubscriptionProductDetails().forEach(line -> {
+                assertEquals(subscription.getSubscriptionId(), line.getSubscriptionId());
+                assertTrue(line.getProductId().startsWith("SUBPROD"));
+            });
+        });
+    }
+
+    @Test
+    @DisplayName("Listing subscriptions by customer should page over that customer only")
+    void testGetAllSubscriptionsByCustomerId() {
+        List<SubscriptionDetails> page = subscribeService.getAllSubscriptionsByCustomerId("CUST901",
+                PageRequest.of(1, 20));
+
+        assertEquals(SUBSCRIPTION_COUNT - 20, page.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(subscribeService.getAllSubscriptionsByCustomerId("CUST999", PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keyset listing should walk every subscription newest first without a count query")
+    void testKeysetPagination() {
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<SubscriptionDetails> page = subscribeService.getAllOrders(cursor, 7);
+            page.getContent().forEach(subscription -> {
+                assertEquals(LINES_PER_SUBSCRIPTION, subscription.getSubscriptionProductDetails().size());
+                seen.add(subscription.getSubscriptionId());
+            });
+            cursor = page.getNextCursor();
+            // The last dated page also looks for subscriptions without a date
+            assertEquals(cursor == null ? 3 : 2, statistics.getPrepareStatementCount(),
+                    "Expected one header query and one line query");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, pages);
+        assertEquals(SUBSCRIPTION_COUNT, seen.size());
+        for (int i = 0; i < SUBSCRIPTION_COUNT; i++) {
+            assertEquals(String.format("SUB%03d", i), seen.get(i));
+        }
+
+        CursorPage<SubscriptionDetails> customerPage = subscribeService.getAllSubscriptionsByPhone("9000000001", "", 50);
+        assertEquals(SUBSCRIPTION_COUNT, customerPage.getContent().size());
+        assertNull(customerPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Keyset listing should page through legacy subscriptions without a date after the dated ones")
+    void testKeysetPaginationWithUndatedSubscriptions() {
+        jdbcTemplate.update("UPDATE milkman.subscriptions SET orderdatetime = NULL "
+                + "WHERE subscriptionid IN ('SUB000', 'SUB001', 'SUB002')");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<SubscriptionDetails> page = subscribeService.getAllSubscriptionsByPhone("9000000001", cursor, 4);
+            page.getContent().forEach(subscription -> seen.add(subscription.getSubscriptionId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(SUBSCRIPTION_COUNT, seen.size());
+        assertEquals("SUB003", seen.get(0), "Dated subscriptions come first, newest first");
+        assertEquals(List.of("SUB002", "SUB001", "SUB000"), seen.subList(SUBSCRIPTION_COUNT - 3, SUBSCRIPTION_COUNT));
+        assertEquals(seen, subscribeService.getAllOrders("", SUBSCRIPTION_COUNT).getContent().stream()
+                .map(SubscriptionDetails::getSubscriptionId).toList());
+    }
+
+    @Test
+    @DisplayName("Subscribing should store the delivery days mask and reject unknown day names")
+    void testSubscribeStoresDeliveryDaysMask() {
+        SubscribeResponse response = subscribeService.subscribe(subscribeRequest("Monday", "FRI", "sunday"));
+
+        assertEquals("200", response.getStatusCode());
+        entityManager.flush();
+        entityManager.clear();
+        Subscriptions stored = entityManager.find(Subscriptions.class, response.getSubscriptionId());
+        assertEquals("Monday, FRI, sunday", stored.getDeliveryDays());
+        assertEquals((short) 0b101_0001, stored.getDeliveryDaysMask());
+
+        SubscribeRequest update = subscribeRequest();
+        update.setSubscriptionId(response.getSubscriptionId());
+        subscribeService.updateSubscription(update);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals((short) 0b111_1111, entityManager.find(Subscriptions.class, response.getSubscriptionId())
+                .getDeliveryDaysMask(), "No delivery days means every day");
+
+        SubscribeResponse invalid = subscribeService.subscribe(subscribeRequest("Monday", "Funday"));
+        assertEquals("400", invalid.getStatusCode());
+        assertEquals("FAILED", invalid.getStatus());
+        assertTrue(invalid.getErrorMsg().contains("Funday"));
+    }
+
+    @Test
+    @DisplayName("Subscribing and updating should price the same random carts identically")
+    void testSubscribeAndUpdateTotalsMatch() {
+        Products fractional = new Products();
+        fractional.setProductId("SUBFRAC");
+        fractional.setProductName("Fractional");
+        fractional.setProductPrice(new BigDecimal("0.10"));
+        fractional.setStatus("ACTIVE");
+        entityManager.persist(fractional);
+        entityManager.flush();
+        entityManager.clear();
+
+        Random random = new Random(20_240_101L);
+        for (int cart = 0; cart < 20; cart++) {
+            SubscribeRequest request = subscribeRequest();
+            request.setDeliveryCharge(random.nextInt(5_000) / 100.0);
+            for (int line = 0, lines = random.nextInt(6); line < lines; line++) {
+                ProductOrdersReq req = new ProductOrdersReq();
+                req.setProductId(random.nextBoolean() ? "SUBFRAC" : "SUBPROD1");
+                req.setQuantity(1 + random.nextInt(5));
+                request.getProductOrderReqs().add(req);
+            }
+
+            SubscribeResponse created = subscribeService.subscribe(request);
+            entityManager.flush();
+            entityManager.clear();
+            BigDecimal createdTotal = entityManager.find(Subscriptions.class, created.getSubscriptionId()).getOrderTotal();
+
+            Collections.shuffle(request.getProductOrderReqs(), random);
+            request.setSubscriptionId(created.getSubscriptionId());
+            subscribeService.updateSubscription(request);
+            entityManager.flush();
+            entityManager.clear();
+            BigDecimal updatedTotal = entityManager.find(Subscriptions.class, created.getSubscriptionId()).getOrderTotal();
+            assertEquals(0, createdTotal.compareTo(updatedTotal), "Cart " + cart + " was repriced on update");
+        }
+    }
+
+    @Test
+    @DisplayName("Day-of-week queries should select subscriptions through the delivery days mask")
+    void testFindByDeliveryDay() {
+        List<SubscriptionDetails> wednesday = subscriptionRepository.findActiveSubscriptionDetailsByDeliveryDay(
+                DayOfWeek.WEDNESDAY, PageRequest.of(0, 50));
+
+        assertEquals(SUBSCRIPTION_COUNT / 2, wednesday.size());
+        wednesday.forEach(subscription -> assertEquals("Monday, Wednesday", subscription.getDeliveryDays()));
+        assertTrue(subscriptionRepository.findActiveSubscriptionDetailsByDeliveryDay(
+                DayOfWeek.SUNDAY, PageRequest.of(0, 50)).isEmpty());
+
+        LocalDate tuesday = LocalDate.now().with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        assertEquals(SUBSCRIPTION_COUNT / 2, subscriptionRepository.countActiveByDeliveryDate(tuesday));
+        assertEquals(0, subscriptionRepository.countActiveByDeliveryDate(tuesday.plusWeeks(5)),
+                "Subscriptions end after 30 days");
+    }
+
+    private SubscribeRequest subscribeRequest(String... deliveryDays) {
+        ProductOrdersReq line = new ProductOrdersReq();
+        line.setProductId("SUBPROD0");
+        line.setQuantity(2);
+        SubscribeRequest request = new SubscribeRequest();
+        request.setCustomerId("CUST901");
+        request.setProductOrderReqs(new ArrayList<>(List.of(line)));
+        request.setDeliveryStartDate(LocalDate.now().plusDays(1));
+        request.setDeliveryTimeSlot("MORNING");
+        request.setDeliveryFrequency("WEEKLY");
+        request.setDeliveryDays(List.of(deliveryDays));
+        request.setDeliveryCharge(10.0);
+        return request;
+    }
+}
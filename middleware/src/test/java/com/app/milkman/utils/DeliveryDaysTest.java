@@ -0,0 +1,36 @@
+package com.app.milkman.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Delivery Days Tests")
+class DeliveryDaysTest {
+
+    @Test
+    @DisplayName("Should read full and short day names in any case")
+    void testParse() {
+        int mask = DeliveryDays.parse("Monday, Wednesday, Friday");
+
+        assertEquals(mask, DeliveryDays.parse("MON,WED,FRI"));
+        assertEquals(mask, DeliveryDays.parse(" fri , mon,Wed "));
+        assertTrue(DeliveryDays.includes(mask, DayOfWeek.MONDAY));
+        assertTrue(DeliveryDays.includes(mask, DayOfWeek.FRIDAY));
+        assertFalse(DeliveryDays.includes(mask, DayOfWeek.TUESDAY));
+        assertFalse(DeliveryDays.includes(mask, DayOfWeek.SUNDAY));
+        assertEquals(0b100_0000, DeliveryDays.parse("Sunday"));
+    }
+
+    @Test
+    @DisplayName("Should treat missing delivery days as every day and reject unknown names")
+    void testParseEdgeCases() {
+        assertEquals(DeliveryDays.ALL_DAYS, DeliveryDays.parse(null));
+        assertEquals(DeliveryDays.ALL_DAYS, DeliveryDays.parse(""));
+        assertEquals(DeliveryDays.ALL_DAYS, DeliveryDays.parse(" , "));
+        assertThrows(IllegalArgumentException.class, () -> DeliveryDays.parse("Monday, Funday"));
+        assertThrows(IllegalArgumentException.class, () -> DeliveryDays.parse("Mo"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.milkman.utils;
+
+import com.app.milkman.model.ProductDetails;
+import com.app.milkman.model.ProductOrdersReq;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Pricing Tests")
+class OrderPricingTest {
+
+    // Property checks run over seeded random carts, so a failure reproduces with the same seed
+    private static final long SEED = 20_240_101L;
+    private static final int CARTS = 2_000;
+
+    @Test
+    @DisplayName("Should round amounts half-up to the paisa and convert back with a scale of two")
+    void testConversions() {
+        assertEquals(1010, OrderPricing.toPaise(10.1));
+        assertEquals(30, OrderPricing.toPaise(0.1 + 0.2));
+        assertEquals(1, OrderPricing.toPaise(new BigDecimal("0.005")));
+        assertEquals(0, OrderPricing.toPaise(new BigDecimal("0.0049")));
+        assertEquals(4556, OrderPricing.toPaise(new BigDecimal("45.555")));
+        assertEquals(new BigDecimal("10.10"), OrderPricing.toRupees(1010));
+        assertEquals(new BigDecimal("0.00"), OrderPricing.toRupees(0));
+        assertThrows(NumberFormatException.class, () -> OrderPricing.toPaise(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Should total random carts exactly, whatever the order of their lines")
+    void testTotalsAreExact() {
+        Random random = new Random(SEED);
+        Map<String, ProductDetails> products = randomCatalog(random);
+        for (int cart = 0; cart < CARTS; cart++) {
+            List<ProductOrdersReq> lines = randomCart(random, products);
+            long deliveryChargePaise = random.nextInt(10_000);
+
+            BigDecimal expected = BigDecimal.valueOf(deliveryChargePaise, 2);
+            for (ProductOrdersReq line : lines) {
+                expected = expected.add(products.get(line.getProductId()).getProductPrice()
+                        .setScale(2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(line.getQuantity())));
+            }
+            BigDecimal total = OrderPricing.toRupees(OrderPricing.orderTotal(lines, products, deliveryChargePaise));
+            assertEquals(expected, total, "Cart " + cart + " of seed " + SEED);
+
+            Collections.shuffle(lines, random);
+            assertEquals(total, OrderPricing.toRupees(OrderPricing.orderTotal(lines, products, deliveryChargePaise)),
+                    "Line order changed the total of cart " + cart);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail on overflow rather than wrap")
+    void testOverflow() {
+        assertThrows(ArithmeticException.class, () -> OrderPricing.lineTotal(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> OrderPricing.toPaise(new BigDecimal("1E30")));
+    }
+
+    private static Map<String, ProductDetails> randomCatalog(Random random) {
+        Map<String, ProductDetails> products = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            // Mostly whole paise, some catalog prices with a third decimal to exercise rounding
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4) == 0 ? 3 : 2);
+            String productId = "PRICEPROD" + i;
+            products.put(productId, ProductDetails.builder().productId(productId).productPrice(price)
+                    .pricePaise(OrderPricing.toPaise(price)).build());
+        }
+        return products;
+    }
+
+    private static List<ProductOrdersReq> randomCart(Random random, Map<String, ProductDetails> products) {
+        List<String> productIds = new ArrayList<>(products.keySet());
+        int size = 1 + random.nextInt(100);
+        List<ProductOrdersReq> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductOrdersReq line = new ProductOrdersReq();
+            line.setProductId(productIds.get(random.nextInt(productIds.size())));
+            line.setQuantity(1 + random.nextInt(20));
+            lines.add(line);
+        }
+        return lines;
+    }
+}
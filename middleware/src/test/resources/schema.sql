@@ -1,3 +1,6 @@
 -- Initialize H2 test database
 CREATE SCHEMA IF NOT EXISTS milkman;
 SET SCHEMA milkman;
+
+-- Created by the V8 migration on PostgreSQL (CustomerIdAllocator)
+CREATE SEQUENCE IF NOT EXISTS milkman.customer_id_seq START WITH 1 INCREMENT BY 50;